@@ -4,7 +4,7 @@ USE Group16;
 CREATE TABLE UserInfo (
     userID INT AUTO_INCREMENT PRIMARY KEY,
     username VARCHAR(50) NOT NULL UNIQUE,
-    password VARCHAR(64) NOT NULL,
+    password VARCHAR(255) NOT NULL,
     role ENUM('customer', 'carrier', 'owner') NOT NULL,
     first_name VARCHAR(50),
     last_name VARCHAR(50),
@@ -20,7 +20,9 @@ CREATE TABLE ProductInfo (
     price DOUBLE NOT NULL,
     stock DOUBLE NOT NULL,
     threshold DOUBLE DEFAULT 5.0,
-    image_data LONGBLOB
+    image_data LONGBLOB,
+    image_hash CHAR(64),
+    row_version BIGINT NOT NULL DEFAULT 0
 );
 
 CREATE TABLE OrderInfo (
@@ -33,6 +35,8 @@ CREATE TABLE OrderInfo (
     total_cost DOUBLE NOT NULL,
     invoice_data LONGTEXT,
     invoice_pdf LONGBLOB,
+    invoice_version INT NOT NULL DEFAULT 0,
+    invoice_pdf_version INT,
     carrier_rating INT CHECK (carrier_rating BETWEEN 1 AND 5),
     FOREIGN KEY (customerID) REFERENCES UserInfo(userID),
     FOREIGN KEY (carrierID) REFERENCES UserInfo(userID)
@@ -76,6 +80,80 @@ CREATE TABLE UserCoupons (
     FOREIGN KEY (couponID) REFERENCES Coupons(couponID)
 );
 
+-- Stock holds for cart contents (kept in sync with db/migration/V5__add_stock_reservations.sql)
+CREATE TABLE StockReservations (
+    reservationID INT AUTO_INCREMENT PRIMARY KEY,
+    userID INT NOT NULL,
+    productID INT NOT NULL,
+    quantity DOUBLE NOT NULL,
+    expires_at DATETIME NOT NULL,
+    UNIQUE (userID, productID),
+    FOREIGN KEY (userID) REFERENCES UserInfo(userID) ON DELETE CASCADE,
+    FOREIGN KEY (productID) REFERENCES ProductInfo(productID) ON DELETE CASCADE
+);
+CREATE INDEX idx_reservations_product_expiry ON StockReservations (productID, expires_at);
+
+-- Checkout follow-up jobs (kept in sync with db/migration/V6__add_checkout_outbox.sql and V9__park_failed_checkout_jobs.sql)
+CREATE TABLE CheckoutOutbox (
+    jobID INT AUTO_INCREMENT PRIMARY KEY,
+    orderID INT NOT NULL,
+    customerID INT NOT NULL,
+    stage VARCHAR(20) NOT NULL,
+    argument VARCHAR(255),
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    locked_until DATETIME,
+    last_error VARCHAR(255),
+    failed_at DATETIME,
+    created_at DATETIME DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (orderID) REFERENCES OrderInfo(orderID) ON DELETE CASCADE
+);
+CREATE INDEX idx_outbox_next_attempt ON CheckoutOutbox (next_attempt_at);
+
+-- Product change feed (kept in sync with db/migration/V8__add_product_change_feed.sql)
+CREATE TABLE CatalogVersion (
+    id INT PRIMARY KEY,
+    version BIGINT NOT NULL
+);
+INSERT INTO CatalogVersion (id, version) VALUES (1, 0);
+
+CREATE TABLE ProductTombstones (
+    productID INT PRIMARY KEY,
+    row_version BIGINT NOT NULL
+);
+CREATE INDEX idx_productinfo_row_version ON ProductInfo (row_version);
+CREATE INDEX idx_tombstones_row_version ON ProductTombstones (row_version);
+
+-- Sales rollups (kept in sync with db/migration/V4__add_sales_rollups.sql)
+CREATE TABLE SalesDaily (
+    sale_date DATE PRIMARY KEY,
+    order_count INT NOT NULL DEFAULT 0,
+    revenue DOUBLE NOT NULL DEFAULT 0
+);
+
+CREATE TABLE SalesByStatus (
+    status VARCHAR(20) PRIMARY KEY,
+    order_count INT NOT NULL DEFAULT 0,
+    revenue DOUBLE NOT NULL DEFAULT 0
+);
+
+CREATE TABLE SalesByProduct (
+    productID INT PRIMARY KEY,
+    quantity DOUBLE NOT NULL DEFAULT 0,
+    revenue DOUBLE NOT NULL DEFAULT 0
+);
+
+-- Query indexes (kept in sync with db/migration/V3__add_query_indexes.sql)
+CREATE INDEX idx_orderinfo_status_carrier_date ON OrderInfo (status, carrierID, order_date);
+CREATE INDEX idx_orderinfo_customer_date ON OrderInfo (customerID, order_date);
+CREATE INDEX idx_orderinfo_date ON OrderInfo (order_date);
+CREATE INDEX idx_orderinfo_carrier_rating ON OrderInfo (carrierID, carrier_rating);
+CREATE INDEX idx_messages_sender_receiver_time ON Messages (senderID, receiverID, sent_time);
+CREATE INDEX idx_messages_receiver_sender_time ON Messages (receiverID, senderID, sent_time);
+CREATE INDEX idx_userinfo_phone ON UserInfo (phone_number);
+CREATE INDEX idx_userinfo_role_username ON UserInfo (role, username);
+CREATE INDEX idx_usercoupons_user_coupon_used ON UserCoupons (userID, couponID, is_used);
+
 INSERT INTO UserInfo (username, password, role, address)
 VALUES
     ('cust','80d26609c5226268981e4a6d4ceddbc339d991841ae580e3180b56c8ade7651d','customer','Istanbul'),
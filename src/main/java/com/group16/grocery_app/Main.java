@@ -1,6 +1,14 @@
 package com.group16.grocery_app;
 
+import com.group16.grocery_app.config.AppConfig;
+import com.group16.grocery_app.db.Database;
+import com.group16.grocery_app.db.service.CatalogFeed;
+import com.group16.grocery_app.db.service.CheckoutPipeline;
+import com.group16.grocery_app.db.service.ReportService;
+import com.group16.grocery_app.db.service.ReservationService;
+import com.group16.grocery_app.db.service.ServiceExecutor;
 import com.group16.grocery_app.utils.ImageLoader;
+import com.group16.grocery_app.utils.ProductCache;
 import io.github.palexdev.materialfx.theming.MaterialFXStylesheets;
 import io.github.palexdev.materialfx.theming.UserAgentBuilder;
 import javafx.application.Application;
@@ -14,6 +22,10 @@ public class Main extends Application {
     @Override
     public void start(Stage stage) throws IOException {
         ImageLoader.loadImagesToDatabase();
+        new ReportService().verifyRollupsAsync(AppConfig.getInstance().getBoolean("reports.rebuildRollups", false));
+        ReservationService.startSweeper();
+        CheckoutPipeline.getInstance().start();
+        CatalogFeed.getInstance().start();
         UserAgentBuilder.builder()
                 .themes(MaterialFXStylesheets.forAssemble(true))
                 .setDeploy(true)
@@ -27,4 +39,13 @@ public class Main extends Application {
         stage.setScene(scene);
         stage.show();
     }
+
+    @Override
+    public void stop() {
+        ProductCache cache = ProductCache.getInstance();
+        System.out.printf("Product cache: %d products, %d hits, %d misses (%.0f%% hit rate), %d evictions%n",
+                cache.size(), cache.getHitCount(), cache.getMissCount(), cache.getHitRate() * 100, cache.getEvictionCount());
+        ServiceExecutor.shutdown();
+        Database.getInstance().shutdown();
+    }
 }
@@ -0,0 +1,172 @@
+package com.group16.grocery_app.config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * Application configuration read from layered sources.
+ * Later sources override earlier ones:
+ * <ol>
+ *     <li>{@code /grocery.properties} on the classpath (shipped defaults)</li>
+ *     <li>the file named by {@code -Dgrocery.config}, or {@code ./grocery.properties} if present</li>
+ *     <li>environment variables, e.g. {@code GROCERY_DB_URL} for {@code db.url}</li>
+ *     <li>system properties, e.g. {@code -Dgrocery.db.url=...}</li>
+ * </ol>
+ * The active profile ({@code grocery.profile}, default {@code mysql}) lets a file define
+ * {@code <profile>.<key>} entries that take precedence over the plain {@code <key>}.
+ *
+ * @author Mert Bölükbaşı
+ */
+public class AppConfig {
+
+    private static final String CLASSPATH_FILE = "/grocery.properties";
+    private static final String LOCAL_FILE = "grocery.properties";
+    private static final String SYSTEM_PREFIX = "grocery.";
+    private static final String ENV_PREFIX = "GROCERY_";
+
+    private static AppConfig instance;
+
+    private final Properties fileProperties = new Properties();
+    private final String profile;
+
+    private AppConfig() {
+        loadClasspathDefaults();
+        loadExternalFile();
+        this.profile = lookup("profile", "mysql").trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Returns the configuration singleton, loading it on first use.
+     *
+     * @return configuration instance
+     * @author Mert Bölükbaşı
+     */
+    public static synchronized AppConfig getInstance() {
+        if (instance == null) {
+            instance = new AppConfig();
+        }
+        return instance;
+    }
+
+    /**
+     * Gets the active profile name (for example {@code mysql} or {@code embedded}).
+     *
+     * @return profile name in lower case
+     * @author Mert Bölükbaşı
+     */
+    public String getProfile() {
+        return profile;
+    }
+
+    /**
+     * Gets a string value, checking the profile-specific key first.
+     *
+     * @param key configuration key such as {@code db.url}
+     * @param defaultValue value returned when the key is not set anywhere
+     * @return configured value or the default
+     * @author Mert Bölükbaşı
+     */
+    public String get(String key, String defaultValue) {
+        String value = lookup(profile + "." + key, null);
+        if (value == null) {
+            value = lookup(key, null);
+        }
+        return value != null ? value.trim() : defaultValue;
+    }
+
+    /**
+     * Gets an integer value.
+     *
+     * @param key configuration key
+     * @param defaultValue value returned when the key is missing or not a number
+     * @return configured value or the default
+     * @author Mert Bölükbaşı
+     */
+    public int getInt(String key, int defaultValue) {
+        String value = get(key, null);
+        if (value == null) return defaultValue;
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid integer for config key " + key + ": " + value);
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Gets a long value.
+     *
+     * @param key configuration key
+     * @param defaultValue value returned when the key is missing or not a number
+     * @return configured value or the default
+     * @author Mert Bölükbaşı
+     */
+    public long getLong(String key, long defaultValue) {
+        String value = get(key, null);
+        if (value == null) return defaultValue;
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid number for config key " + key + ": " + value);
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Gets a boolean value ({@code true}/{@code false}).
+     *
+     * @param key configuration key
+     * @param defaultValue value returned when the key is missing
+     * @return configured value or the default
+     * @author Mert Bölükbaşı
+     */
+    public boolean getBoolean(String key, boolean defaultValue) {
+        String value = get(key, null);
+        return value == null ? defaultValue : Boolean.parseBoolean(value);
+    }
+
+    private String lookup(String key, String defaultValue) {
+        String value = System.getProperty(SYSTEM_PREFIX + key);
+        if (value != null) return value;
+
+        value = System.getenv(ENV_PREFIX + key.toUpperCase(Locale.ROOT).replace('.', '_').replace('-', '_'));
+        if (value != null) return value;
+
+        return fileProperties.getProperty(key, defaultValue);
+    }
+
+    private void loadClasspathDefaults() {
+        try (InputStream in = AppConfig.class.getResourceAsStream(CLASSPATH_FILE)) {
+            if (in != null) {
+                fileProperties.load(new InputStreamReader(in, StandardCharsets.UTF_8));
+            }
+        } catch (IOException e) {
+            System.err.println("Could not read " + CLASSPATH_FILE + ": " + e.getMessage());
+        }
+    }
+
+    private void loadExternalFile() {
+        String explicit = System.getProperty(SYSTEM_PREFIX + "config", System.getenv(ENV_PREFIX + "CONFIG"));
+        Path path = Paths.get(explicit != null ? explicit : LOCAL_FILE);
+        if (!Files.isRegularFile(path)) {
+            if (explicit != null) {
+                System.err.println("Config file not found: " + path.toAbsolutePath());
+            }
+            return;
+        }
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            fileProperties.load(reader);
+            System.out.println("Loaded configuration from " + path.toAbsolutePath());
+        } catch (IOException e) {
+            System.err.println("Could not read config file " + path.toAbsolutePath() + ": " + e.getMessage());
+        }
+    }
+}
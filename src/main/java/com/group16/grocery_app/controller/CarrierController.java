@@ -2,11 +2,11 @@ package com.group16.grocery_app.controller;
 
 import com.group16.grocery_app.model.*;
 import com.group16.grocery_app.db.service.OrderService;
+import com.group16.grocery_app.utils.LoadTracker;
+import com.group16.grocery_app.utils.OrderTablePager;
 import javafx.beans.property.SimpleDoubleProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.property.SimpleStringProperty;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
@@ -47,6 +47,11 @@ public class CarrierController {
     @FXML private TableColumn<Order, String> compDateCol;
     @FXML private TableColumn<Order, Double> compRatingCol;
 
+    private final LoadTracker loads = new LoadTracker();
+    private OrderTablePager availablePager;
+    private OrderTablePager selectedPager;
+    private OrderTablePager completedPager;
+
     @FXML private VBox orderDetailsBox;
     @FXML private Label orderDetailsLabel;
 
@@ -163,35 +168,35 @@ public class CarrierController {
 
     /**
      * Fetches available, selected, and completed orders from the service.
-     * Populates the tables with the retrieved data.
+     * Each table loads its first page in the background and fetches more as the carrier scrolls.
      * @author Oğuzhan Aydın
      */
     private void loadOrders() {
         if (currentUser == null) return;
 
-        try {
-            if (availableOrdersTable != null) {
-                ObservableList<Order> available = orderService.getAvailableOrders();
-                if (available == null) available = FXCollections.observableArrayList();
-                availableOrdersTable.setItems(available);
+        int carrierId = currentUser.getId();
+        if (availableOrdersTable != null) {
+            if (availablePager == null) {
+                availablePager = new OrderTablePager(availableOrdersTable, loads, "available",
+                        orderService::getAvailableOrdersPageAsync);
             }
+            availablePager.reset();
+        }
 
-            if (selectedOrdersTable != null) {
-                ObservableList<Order> selected = orderService.getOrdersByCarrierId(currentUser.getId(), "Selected");
-                if (selected == null) selected = FXCollections.observableArrayList();
-                selectedOrdersTable.setItems(selected);
+        if (selectedOrdersTable != null) {
+            if (selectedPager == null) {
+                selectedPager = new OrderTablePager(selectedOrdersTable, loads, "selected",
+                        (after, pageSize) -> orderService.getOrdersByCarrierIdPageAsync(carrierId, "Selected", after, pageSize));
             }
+            selectedPager.reset();
+        }
 
-            if (completedOrdersTable != null) {
-                ObservableList<Order> completed = orderService.getOrdersByCarrierId(currentUser.getId(), "Delivered");
-                if (completed == null) completed = FXCollections.observableArrayList();
-                completedOrdersTable.setItems(completed);
+        if (completedOrdersTable != null) {
+            if (completedPager == null) {
+                completedPager = new OrderTablePager(completedOrdersTable, loads, "completed",
+                        (after, pageSize) -> orderService.getOrdersByCarrierIdPageAsync(carrierId, "Delivered", after, pageSize));
             }
-        } catch (Exception e) {
-            e.printStackTrace();
-            if (availableOrdersTable != null) availableOrdersTable.setItems(FXCollections.observableArrayList());
-            if (selectedOrdersTable != null) selectedOrdersTable.setItems(FXCollections.observableArrayList());
-            if (completedOrdersTable != null) completedOrdersTable.setItems(FXCollections.observableArrayList());
+            completedPager.reset();
         }
     }
 
@@ -392,6 +397,7 @@ public class CarrierController {
         confirm.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
                 try {
+                    loads.cancelAll();
                     FXMLLoader loader = new FXMLLoader(getClass().getResource("/LoginView.fxml"));
                     Parent root = loader.load();
                     Stage stage = (Stage) carrierUsernameLabel.getScene().getWindow();
@@ -13,6 +13,9 @@ import javafx.scene.control.*;
 import javafx.scene.control.cell.TextFieldTableCell;
 import javafx.util.converter.DoubleStringConverter;
 import com.group16.grocery_app.db.service.OrderService;
+import com.group16.grocery_app.db.service.ReservationService;
+import com.group16.grocery_app.db.service.ServiceExecutor;
+import io.github.palexdev.materialfx.controls.MFXButton;
 import io.github.palexdev.materialfx.controls.MFXTextField;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.HBox;
@@ -75,10 +78,14 @@ public class CartController {
     @FXML
     private ListView<String> availableCouponsList;
 
+    @FXML
+    private MFXButton checkoutButton;
+
     private Cart cart;
     private User currentUser;
 
     private final OrderService orderService = new OrderService();
+    private final ReservationService reservationService = new ReservationService();
     private final com.group16.grocery_app.db.service.UserCouponService userCouponService =
             new com.group16.grocery_app.db.service.UserCouponService();
 
@@ -100,13 +107,31 @@ public class CartController {
     }
 
     /**
-     * Sets the current user and calculates loyalty discounts.
+     * Recalculates the item prices and totals from the current product data,
+     * e.g. after the catalog was updated.
+     *
+     * @author Ege Usug
+     */
+    public void refreshPrices() {
+        if (cart == null) {
+            return;
+        }
+        cart.refreshEffectivePrices();
+        cartTable.refresh();
+        updateTotals();
+    }
+
+    /**
+     * Sets the current user, extends their stock holds and calculates loyalty discounts.
      *
      * @param user The current user
      * @author Ege Usug
      */
     public void setCurrentUser(User user) {
         this.currentUser = user;
+        if (user != null) {
+            reservationService.extendAsync(user.getId());
+        }
         calculateLoyaltyDiscount();
         loadAvailableCoupons();
         updateTotals();
@@ -135,12 +160,25 @@ public class CartController {
                 cartTable.refresh();
                 return;
             }
+            if (currentUser == null) {
+                applyQuantity(item, newValue);
+                return;
+            }
 
-            item.setQuantity(newValue);
-            cart.refreshEffectivePrices();
-            calculateLoyaltyDiscount();
-            cartTable.refresh();
-            updateTotals();
+            reservationService.reserveAsync(currentUser.getId(), item.getProduct().getId(), newValue)
+                    .thenAcceptAsync(available -> {
+                        if (available < 0) {
+                            showAlert(Alert.AlertType.ERROR, "Error", "Could not check the stock. Please try again.");
+                            cartTable.refresh();
+                            return;
+                        }
+                        if (available < newValue) {
+                            showAlert(Alert.AlertType.WARNING, "Insufficient stock", "Available stock: " + available + " kg");
+                            cartTable.refresh();
+                            return;
+                        }
+                        applyQuantity(item, newValue);
+                    }, ServiceExecutor.FX);
         });
 
         nameCol.setCellValueFactory(data -> new SimpleStringProperty(data.getValue().getProduct().getName()));
@@ -152,6 +190,20 @@ public class CartController {
         totalCol.setCellValueFactory(data -> new SimpleDoubleProperty(data.getValue().getTotalPrice()).asObject());
     }
 
+    /**
+     * Sets an item's quantity and refreshes the table and totals.
+     *
+     * @param item The edited item
+     * @param quantity The new quantity
+     * @author Ege Usug
+     */
+    private void applyQuantity(CartItem item, double quantity) {
+        item.setQuantity(quantity);
+        calculateLoyaltyDiscount();
+        cartTable.refresh();
+        updateTotals();
+    }
+
     /**
      * Updates the total labels (subtotal, VAT, grand total, discounts).
      *
@@ -322,6 +374,9 @@ public class CartController {
 
             for (CartItem item : selectedItems) {
                 cart.removeProduct(item.getProduct());
+                if (currentUser != null) {
+                    reservationService.releaseAsync(currentUser.getId(), item.getProduct().getId());
+                }
             }
 
             cartTable.getSelectionModel().clearSelection();
@@ -333,6 +388,8 @@ public class CartController {
     }
     /**
      * Handles the checkout process, including delivery date selection and order placement.
+     * The order is saved in the background; the checkout button is disabled until it is committed.
+     * The invoice, coupon and loyalty points are handled afterwards by the checkout pipeline.
      *
      * @author Ege Usug
      */
@@ -348,6 +405,8 @@ public class CartController {
             return;
         }
 
+        // Prices may have changed since the cart was opened
+        refreshPrices();
         double subtotal = cart.getTotal();
         if (subtotal < MIN_CART_VALUE) {
             showAlert(
@@ -363,29 +422,30 @@ public class CartController {
             return;
         }
 
-        try {
-            Order order = cart.checkout(VAT_RATE, deliveryDateTime);
+        if (currentUser == null) {
+            showAlert(Alert.AlertType.ERROR, "Error", "User information is missing. Please log in again.");
+            return;
+        }
 
-            if (currentUser == null) {
-                showAlert(Alert.AlertType.ERROR, "Error", "User information is missing. Please log in again.");
-                return;
+        Order order = cart.checkout(VAT_RATE, deliveryDateTime);
+        int customerId = currentUser.getId();
+        String appliedCouponCode = cart.getAppliedCouponCode();
+
+        if (checkoutButton != null) {
+            checkoutButton.setDisable(true);
+        }
+        ServiceExecutor.runAsync(() -> {
+            orderService.checkout(order, customerId, deliveryDateTime, appliedCouponCode);
+        }).whenCompleteAsync((ignored, error) -> {
+            if (checkoutButton != null) {
+                checkoutButton.setDisable(false);
             }
-            String customerName = currentUser.getFirstName() + " " + currentUser.getLastName();
-            orderService.placeOrderWithInvoice(order, currentUser.getId(), deliveryDateTime,
-                    customerName, currentUser.getAddress());
-
-            String appliedCouponCode = cart.getAppliedCouponCode();
-            if (appliedCouponCode != null && !appliedCouponCode.trim().isEmpty()) {
-                com.group16.grocery_app.model.Coupon coupon = userCouponService.getCouponByCode(appliedCouponCode);
-                if (coupon != null) {
-                    userCouponService.useCoupon(currentUser.getId(), coupon.getId());
-                }
+            if (error != null) {
+                showAlert(Alert.AlertType.ERROR, "Order Failed", "Something went wrong while placing your order.");
+                error.printStackTrace();
+                return;
             }
 
-            com.group16.grocery_app.db.service.UserService userService =
-                    new com.group16.grocery_app.db.service.UserService();
-            userService.incrementLoyaltyPoints(currentUser.getId(), 1);
-
             cart.clear();
 
             loadAvailableCoupons();
@@ -400,13 +460,7 @@ public class CartController {
             vatLabel.setText("VAT (18%): ₺0.00");
             grandTotalLabel.setText("Total: ₺0.00");
             couponCodeField.clear();
-
-        } catch (Exception e) {
-
-            showAlert(Alert.AlertType.ERROR, "Order Failed", "Something went wrong while placing your order.");
-
-            e.printStackTrace();
-        }
+        }, ServiceExecutor.FX);
     }
 
     /**
@@ -1,23 +1,36 @@
 package com.group16.grocery_app.controller;
 
 import com.group16.grocery_app.model.Cart;
+import com.group16.grocery_app.model.ProductChanges;
 import com.group16.grocery_app.model.User;
 import com.group16.grocery_app.utils.CartManager;
+import com.group16.grocery_app.utils.LoadTracker;
+import com.group16.grocery_app.utils.ProductCache;
+import com.group16.grocery_app.utils.ProductSearchIndex;
 import com.group16.grocery_app.db.service.MessageService;
 import com.group16.grocery_app.model.Message;
+import javafx.animation.PauseTransition;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.control.Accordion;
 import javafx.scene.control.Label;
+import javafx.scene.control.ListView;
+import javafx.scene.control.ProgressIndicator;
 import javafx.scene.control.TitledPane;
-import javafx.scene.layout.HBox;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
 import io.github.palexdev.materialfx.controls.MFXTextField;
 import com.group16.grocery_app.model.Product;
+import com.group16.grocery_app.model.ProductType;
+import com.group16.grocery_app.db.service.CatalogFeed;
 import com.group16.grocery_app.db.service.ProductService;
+import com.group16.grocery_app.db.service.ReservationService;
+import com.group16.grocery_app.db.service.ServiceExecutor;
 import com.group16.grocery_app.db.service.UserService;
+import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.collections.transformation.FilteredList;
+import javafx.collections.transformation.SortedList;
 import javafx.scene.Parent;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Dialog;
@@ -26,22 +39,36 @@ import javafx.scene.control.TextField;
 import javafx.scene.control.TextArea;
 import javafx.scene.control.ScrollPane;
 import javafx.scene.layout.VBox;
+import javafx.util.Duration;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Controller for the customer interface.
  * Handles product browsing, search functionality, and customer interactions.
+ * While the catalog is shown it follows the {@link CatalogFeed} and patches changed products
+ * in place, so stock and prices stay current without reloading the product list.
  *
  * @author Ege Usug
  */
 public class CustomerController {
 
+    /** Pause in typing after which the search runs. */
+    private static final Duration SEARCH_DEBOUNCE = Duration.millis(150);
+
     private Cart cart;
     private final ProductService productService = new ProductService();
     private final MessageService messageService = new MessageService();
     private final UserService userService = new UserService();
+    private final ReservationService reservationService = new ReservationService();
     private User currentUser;
     private final CartManager cartManager = CartManager.getInstance();
 
@@ -51,28 +78,44 @@ public class CustomerController {
     @FXML
     private Accordion productAccordion;
 
+    @FXML
+    private ListView<Product> vegetableList;
+
+    @FXML
+    private ListView<Product> fruitList;
+
     @FXML
     private MFXTextField searchField;
 
-    private ObservableList<Product> allProducts;
+    private ProductSearchIndex searchIndex;
+
+    /** All products; the lists show the in-stock ones matching the search, best first. */
+    private final ObservableList<Product> catalog = FXCollections.observableArrayList();
+    private final FilteredList<Product> matches = new FilteredList<>(catalog, product -> false);
+    private final SortedList<Product> rankedMatches = new SortedList<>(matches);
+
+    private final PauseTransition searchDebounce = new PauseTransition(SEARCH_DEBOUNCE);
+
+    private final LoadTracker loads = new LoadTracker();
+
+    private CatalogFeed.Subscription catalogUpdates;
+
+    /** Controller of the open cart window, or null. */
+    private CartController openCart;
 
     /**
-     * Initializes the controller and loads products from the database.
+     * Initializes the controller and starts loading products from the database.
      *
      * @author Ege Usug
      */
     @FXML
     public void initialize() {
         try {
-            allProducts = productService.getAllProducts();
-            System.out.println("Loaded " + (allProducts != null ? allProducts.size() : 0) + " products");
-            if (allProducts != null && !allProducts.isEmpty()) {
-                showProducts(allProducts);
-            } else {
-                System.out.println("Warning: No products loaded from database");
-            }
+            setupProductLists();
+            loadProducts();
             if (searchField != null) {
-                searchField.textProperty().addListener((obs, oldText, newText) -> {filterProducts(newText);});
+                searchDebounce.setOnFinished(event -> filterProducts(searchField.getText()));
+                searchField.textProperty().addListener((obs, oldText, newText) -> searchDebounce.playFromStart());
             }
         } catch (Exception e) {
             System.err.println("Error in initialize(): " + e.getMessage());
@@ -81,132 +124,184 @@ public class CustomerController {
     }
 
     /**
-     * Sets the username label in the UI.
+     * Connects the vegetable and fruit lists to the search results. Each list recycles a few
+     * product cards while scrolling instead of creating one per product.
      *
-     * @param username The username to display
      * @author Ege Usug
      */
-    public void setUsername(String username) {
-        usernameLabel.setText(username);
+    private void setupProductLists() {
+        if (vegetableList == null || fruitList == null) {
+            return;
+        }
+        vegetableList.setItems(rankedMatches.filtered(product -> product.getType() == ProductType.VEGETABLE));
+        fruitList.setItems(rankedMatches.filtered(product -> product.getType() == ProductType.FRUIT));
+        for (ListView<Product> list : List.of(vegetableList, fruitList)) {
+            list.setCellFactory(view -> new ProductListCell(
+                    () -> cart, () -> currentUser != null ? currentUser.getId() : 0));
+        }
+        productAccordion.setExpandedPane(productAccordion.getPanes().get(0));
     }
 
     /**
-     * Clears all content from the product accordion panes.
+     * Loads the products and builds their search index in the background, showing a
+     * progress indicator in the product lists until they arrive.
      *
      * @author Ege Usug
      */
-    private void clearAccordion() {
-        for (TitledPane pane : productAccordion.getPanes()) {
-            VBox box = (VBox) pane.getContent();
-            if (box != null) {
-                box.getChildren().clear();
-            }
+    private void loadProducts() {
+        if (vegetableList == null || fruitList == null) {
+            return;
         }
+        for (ListView<Product> list : List.of(vegetableList, fruitList)) {
+            ProgressIndicator indicator = new ProgressIndicator();
+            indicator.setMaxSize(40, 40);
+            list.setPlaceholder(indicator);
+        }
+
+        // The version is read first, so changes made while the list loads are delivered again
+        CompletableFuture<Long> version = ServiceExecutor.supplyAsync(productService::getCatalogVersion);
+        CompletableFuture<ProductSearchIndex> index = version
+                .thenCompose(v -> productService.getAllProductsAsync())
+                .thenApply(ProductSearchIndex::new);
+        loads.load("products", index, loaded -> {
+            System.out.println("Loaded " + loaded.size() + " products");
+            if (loaded.size() == 0) {
+                System.out.println("Warning: No products loaded from database");
+            }
+            showCatalog(loaded);
+            stopCatalogUpdates();
+            catalogUpdates = CatalogFeed.getInstance().subscribe(version.join(), this::applyCatalogChanges);
+        });
     }
 
     /**
-     * Filters products based on the search keyword.
+     * Shows the products of a search index and runs the current search on them.
      *
-     * @param keyword The search keyword to filter products by name
+     * @param index index of all products
      * @author Ege Usug
      */
-    private void filterProducts(String keyword) {
+    private void showCatalog(ProductSearchIndex index) {
+        searchIndex = index;
+        vegetableList.setPlaceholder(new Label("No vegetables found."));
+        fruitList.setPlaceholder(new Label("No fruits found."));
+        catalog.setAll(searchIndex.search(null));
+        String keyword = searchField != null ? searchField.getText() : null;
+        filterProducts(keyword);
+    }
 
-        if (keyword == null || keyword.isBlank()) {
-            showProducts(allProducts);
+    /**
+     * Patches the shown products with changes from the catalog feed. Products keep their
+     * identity, so open cards and cart lines see the new stock and price. The search index is
+     * only rebuilt, in the background, if products were added or removed or a name or type changed.
+     *
+     * @param changes products changed since the last patch
+     * @author Ege Usug
+     */
+    private void applyCatalogChanges(ProductChanges changes) {
+        if (searchIndex == null) {
             return;
         }
+        Map<Integer, Product> byId = new HashMap<>(catalog.size() * 2);
+        for (Product product : catalog) {
+            byId.put(product.getId(), product);
+        }
 
-        String lower = keyword.toLowerCase();
+        boolean reindex = false;
+        for (Product changed : changes.getChanged()) {
+            Product current = byId.get(changed.getId());
+            if (current == null) {
+                byId.put(changed.getId(), ProductCache.getInstance().intern(changed));
+                reindex = true;
+            } else {
+                reindex |= !searchIndex.isIndexedAs(changed);
+                current.updateFrom(changed);
+            }
+        }
+        for (int removedId : changes.getRemovedIds()) {
+            reindex |= byId.remove(removedId) != null;
+        }
 
-        ObservableList<Product> filtered = allProducts.filtered(
-                p -> p.getName().toLowerCase().contains(lower)
-        );
+        // Cart lines price the same product instances
+        if (openCart != null) {
+            openCart.refreshPrices();
+        } else if (cart != null) {
+            cart.refreshEffectivePrices();
+        }
 
-        showProducts(filtered);
+        if (reindex) {
+            List<Product> products = new ArrayList<>(byId.values());
+            products.sort(Comparator.comparing(Product::getName, String.CASE_INSENSITIVE_ORDER));
+            loads.load("products", ServiceExecutor.supplyAsync(() -> new ProductSearchIndex(products)), this::showCatalog);
+        } else {
+            // Stock may have run out or come back, which changes what the lists show
+            filterProducts(searchField != null ? searchField.getText() : null);
+            vegetableList.refresh();
+            fruitList.refresh();
+        }
     }
 
     /**
-     * Displays the given list of products in the accordion.
+     * Stops following the catalog feed, e.g. when leaving the catalog.
      *
-     * @param products The list of products to display
      * @author Ege Usug
      */
-    private void showProducts(ObservableList<Product> products) {
-        try {
-            if (productAccordion == null) {
-                System.err.println("Error: productAccordion is null");
-                return;
-            }
-
-            clearAccordion();
-            System.out.println("Showing " + products.size() + " products");
-
-            int addedCount = 0;
-            for (Product product : products) {
-                if (product.getStock() <= 0) {
-                    System.out.println("Skipping " + product.getName() + " - stock is 0");
-                    continue;
-                }
-
-                addProductToAccordion(product);
-                addedCount++;
-            }
-            System.out.println("Added " + addedCount + " products to accordion");
-        } catch (Exception e) {
-            System.err.println("Error in showProducts(): " + e.getMessage());
-            e.printStackTrace();
+    private void stopCatalogUpdates() {
+        if (catalogUpdates != null) {
+            catalogUpdates.cancel();
+            catalogUpdates = null;
         }
     }
 
     /**
-     * Adds a product to the appropriate accordion pane based on its type.
+     * Sets the username label in the UI.
      *
-     * @param product The product to add to the accordion
-     * @throws IOException If there is an error loading the product item FXML
+     * @param username The username to display
      * @author Ege Usug
      */
-    private void addProductToAccordion(Product product) throws IOException {
-        try {
-            FXMLLoader loader = new FXMLLoader(
-                    getClass().getResource("/productItem.fxml")
-            );
-
-            HBox productItem = loader.load();
-
-            ProductItemController controller = loader.getController();
-            controller.setProduct(product);
-            controller.setCart(cart);
-
-            String productTypeName = product.getType().name();
-            boolean found = false;
+    public void setUsername(String username) {
+        usernameLabel.setText(username);
+    }
 
-            for (TitledPane pane : productAccordion.getPanes()) {
-                String paneText = pane.getText().toUpperCase();
+    /**
+     * Filters products based on the search keyword, best matches first.
+     * Matches product names and types by prefix, substring or with a typo. Only the lists'
+     * contents change; the product cards on screen are reused.
+     *
+     * @param keyword The search keyword to filter products by
+     * @author Ege Usug
+     */
+    private void filterProducts(String keyword) {
 
-                if ((paneText.equals("VEGETABLES") && productTypeName.equals("VEGETABLE")) ||
-                        (paneText.equals("FRUITS") && productTypeName.equals("FRUIT"))) {
+        if (searchIndex == null) {
+            return;
+        }
 
-                    VBox box = (VBox) pane.getContent();
+        List<Product> results = searchIndex.search(keyword);
+        Map<Product, Integer> ranks = new IdentityHashMap<>(results.size() * 2);
+        for (int i = 0; i < results.size(); i++) {
+            ranks.put(results.get(i), i);
+        }
 
-                    if (box != null) {
-                        box.getChildren().add(productItem);
-                        pane.setExpanded(true);
-                        found = true;
-                        System.out.println("Added " + product.getName() + " (" + productTypeName + ") to " + pane.getText());
-                        break;
-                    } else {
-                        System.err.println("Error: VBox content is null for pane: " + pane.getText());
-                    }
-                }
-            }
+        rankedMatches.setComparator(Comparator.comparingInt(product -> ranks.getOrDefault(product, Integer.MAX_VALUE)));
+        matches.setPredicate(product -> product.getStock() > 0 && ranks.containsKey(product));
+        showPaneWithResults();
+    }
 
-            if (!found) {
-                System.err.println("Warning: Could not find matching pane for product: " + product.getName() + " type: " + productTypeName);
+    /**
+     * Opens another product pane if the open one has no results but another one has.
+     *
+     * @author Ege Usug
+     */
+    private void showPaneWithResults() {
+        TitledPane expanded = productAccordion.getExpandedPane();
+        if (expanded != null && expanded.getContent() instanceof ListView<?> list && !list.getItems().isEmpty()) {
+            return;
+        }
+        for (TitledPane pane : productAccordion.getPanes()) {
+            if (pane.getContent() instanceof ListView<?> list && !list.getItems().isEmpty()) {
+                productAccordion.setExpandedPane(pane);
+                return;
             }
-        } catch (Exception e) {
-            System.err.println("Error adding product " + product.getName() + " to accordion: " + e.getMessage());
-            e.printStackTrace();
         }
     }
 
@@ -221,10 +316,13 @@ public class CustomerController {
         if (user != null) {
             this.cart = cartManager.getCart(user.getId());
         }
-        if (productAccordion != null && (allProducts == null || allProducts.isEmpty())) {
-            // Only reload products if they haven't been loaded yet
-            allProducts = productService.getAllProducts();
-            showProducts(allProducts);
+        if (searchIndex != null && searchIndex.size() == 0) {
+            // Retry if the first load came back empty
+            loadProducts();
+        } else if (vegetableList != null && fruitList != null) {
+            // Cards created before the user was known have no cart yet
+            vegetableList.refresh();
+            fruitList.refresh();
         }
     }
 
@@ -252,6 +350,12 @@ public class CustomerController {
             Stage stage = new Stage();
             stage.setTitle("Cart");
             stage.setScene(scene);
+            openCart = controller;
+            stage.setOnHidden(event -> {
+                if (openCart == controller) {
+                    openCart = null;
+                }
+            });
             stage.show();
 
         } catch (Exception e) {
@@ -277,8 +381,11 @@ public class CustomerController {
         confirm.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
                 try {
+                    loads.cancelAll();
+                    stopCatalogUpdates();
                     if (currentUser != null) {
                         cartManager.clearCart(currentUser.getId());
+                        reservationService.releaseAllAsync(currentUser.getId());
                     }
                     FXMLLoader loader = new FXMLLoader(getClass().getResource("/LoginView.fxml"));
                     Parent root = loader.load();
@@ -329,6 +436,8 @@ public class CustomerController {
             }
             
             controller.setCurrentUser(currentUser);
+            loads.cancelAll();
+            stopCatalogUpdates();
 
             Stage stage = (Stage) usernameLabel.getScene().getWindow();
             Scene scene = new Scene(root, 800, 600);
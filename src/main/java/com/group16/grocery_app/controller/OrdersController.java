@@ -1,9 +1,13 @@
 package com.group16.grocery_app.controller;
 
 import com.group16.grocery_app.db.service.OrderService;
+import com.group16.grocery_app.db.service.ServiceExecutor;
 import com.group16.grocery_app.model.Order;
 import com.group16.grocery_app.model.OrderItem;
 import com.group16.grocery_app.model.User;
+import com.group16.grocery_app.utils.InvoiceStore;
+import com.group16.grocery_app.utils.LoadTracker;
+import com.group16.grocery_app.utils.OrderTablePager;
 import javafx.beans.property.SimpleDoubleProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.property.SimpleStringProperty;
@@ -20,6 +24,7 @@ import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 
@@ -32,8 +37,9 @@ public class OrdersController {
 
     private User currentUser;
     private OrderService orderService;
-    private com.group16.grocery_app.db.service.UserService userService =
-            new com.group16.grocery_app.db.service.UserService();
+
+    private final LoadTracker loads = new LoadTracker();
+    private OrderTablePager ordersPager;
 
     @FXML
     private TableView<Order> ordersTable;
@@ -280,7 +286,7 @@ public class OrdersController {
     }
 
     /**
-     * Loads all orders for the current customer from the database.
+     * Loads the orders of the current customer in the background, newest first, one page at a time.
      * @author Oğuzhan Aydın
      */
     private void loadOrders() {
@@ -288,8 +294,12 @@ public class OrdersController {
             return;
         }
 
-        ObservableList<Order> orders = orderService.getOrdersByCustomerId(currentUser.getId());
-        ordersTable.setItems(orders);
+        if (ordersPager == null) {
+            int customerId = currentUser.getId();
+            ordersPager = new OrderTablePager(ordersTable, loads, "orders",
+                    (after, pageSize) -> orderService.getOrdersByCustomerIdPageAsync(customerId, after, pageSize));
+        }
+        ordersPager.reset();
     }
 
     /**
@@ -304,7 +314,8 @@ public class OrdersController {
     }
 
     /**
-     * Generates and opens a PDF invoice for the selected order.
+     * Opens the PDF invoice of the selected order.
+     * The invoice is fetched from the {@link InvoiceStore} in the background and written to a temporary file.
      * @author Oğuzhan Aydın
      */
     @FXML
@@ -315,33 +326,39 @@ public class OrdersController {
             return;
         }
 
-        try {
-            User customer = userService.findById(selected.getCustomerId());
-            String customerName = customer != null ?
-                    (customer.getFirstName() + " " + customer.getLastName()) : "Unknown Customer";
-            String customerAddress = customer != null ? customer.getAddress() : "";
-
-            byte[] pdfBytes = com.group16.grocery_app.utils.InvoiceGenerator.generateInvoicePDF(
-                    selected, customerName, customerAddress);
-
-            java.io.File tempFile = java.io.File.createTempFile("invoice_" + selected.getId() + "_", ".pdf");
-            tempFile.deleteOnExit();
-            java.nio.file.Files.write(tempFile.toPath(), pdfBytes);
-
-            if (java.awt.Desktop.isDesktopSupported()) {
-                java.awt.Desktop.getDesktop().open(tempFile);
-            } else {
-                showAlert(Alert.AlertType.INFORMATION, "PDF Generated",
-                        "PDF invoice saved to: " + tempFile.getAbsolutePath());
+        int orderId = selected.getId();
+        ServiceExecutor.supplyAsync(() -> {
+            try {
+                java.io.File tempFile = java.io.File.createTempFile("invoice_" + orderId + "_", ".pdf");
+                tempFile.deleteOnExit();
+                InvoiceStore.getInstance().copyTo(orderId, tempFile.toPath());
+                return tempFile;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
             }
-        } catch (Exception e) {
-            e.printStackTrace();
-            showAlert(Alert.AlertType.ERROR, "Error", "Failed to generate PDF invoice: " + e.getMessage());
-        }
+        }).whenCompleteAsync((tempFile, error) -> {
+            if (error != null) {
+                error.printStackTrace();
+                showAlert(Alert.AlertType.ERROR, "Error", "Failed to generate PDF invoice: " + rootMessage(error));
+                return;
+            }
+            try {
+                if (java.awt.Desktop.isDesktopSupported()) {
+                    java.awt.Desktop.getDesktop().open(tempFile);
+                } else {
+                    showAlert(Alert.AlertType.INFORMATION, "PDF Generated",
+                            "PDF invoice saved to: " + tempFile.getAbsolutePath());
+                }
+            } catch (Exception e) {
+                e.printStackTrace();
+                showAlert(Alert.AlertType.ERROR, "Error", "Failed to open PDF invoice: " + e.getMessage());
+            }
+        }, ServiceExecutor.FX);
     }
 
     /**
-     * Generates and downloads a PDF invoice for the selected order.
+     * Saves the PDF invoice of the selected order to a file chosen by the user.
+     * The invoice is streamed from the {@link InvoiceStore} to the file in the background.
      * @author Oğuzhan Aydın
      */
     @FXML
@@ -352,31 +369,47 @@ public class OrdersController {
             return;
         }
 
-        try {
-            User customer = userService.findById(selected.getCustomerId());
-            String customerName = customer != null ?
-                    (customer.getFirstName() + " " + customer.getLastName()) : "Unknown Customer";
-            String customerAddress = customer != null ? customer.getAddress() : "";
-
-            byte[] pdfBytes = com.group16.grocery_app.utils.InvoiceGenerator.generateInvoicePDF(
-                    selected, customerName, customerAddress);
-
-            javafx.stage.FileChooser fileChooser = new javafx.stage.FileChooser();
-            fileChooser.setTitle("Save Invoice");
-            fileChooser.setInitialFileName("invoice_" + selected.getId() + ".pdf");
-            fileChooser.getExtensionFilters().add(
-                    new javafx.stage.FileChooser.ExtensionFilter("PDF Files", "*.pdf"));
-
-            java.io.File file = fileChooser.showSaveDialog(ordersTable.getScene().getWindow());
-            if (file != null) {
-                java.nio.file.Files.write(file.toPath(), pdfBytes);
-                showAlert(Alert.AlertType.INFORMATION, "Success", 
-                        "Invoice downloaded successfully to: " + file.getAbsolutePath());
+        javafx.stage.FileChooser fileChooser = new javafx.stage.FileChooser();
+        fileChooser.setTitle("Save Invoice");
+        fileChooser.setInitialFileName("invoice_" + selected.getId() + ".pdf");
+        fileChooser.getExtensionFilters().add(
+                new javafx.stage.FileChooser.ExtensionFilter("PDF Files", "*.pdf"));
+
+        java.io.File file = fileChooser.showSaveDialog(ordersTable.getScene().getWindow());
+        if (file == null) {
+            return;
+        }
+
+        int orderId = selected.getId();
+        ServiceExecutor.runAsync(() -> {
+            try {
+                InvoiceStore.getInstance().copyTo(orderId, file.toPath());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
             }
-        } catch (Exception e) {
-            e.printStackTrace();
-            showAlert(Alert.AlertType.ERROR, "Error", "Failed to download PDF invoice: " + e.getMessage());
+        }).whenCompleteAsync((ignored, error) -> {
+            if (error != null) {
+                error.printStackTrace();
+                showAlert(Alert.AlertType.ERROR, "Error", "Failed to download PDF invoice: " + rootMessage(error));
+                return;
+            }
+            showAlert(Alert.AlertType.INFORMATION, "Success",
+                    "Invoice downloaded successfully to: " + file.getAbsolutePath());
+        }, ServiceExecutor.FX);
+    }
+
+    /**
+     * Gets the message of the underlying cause of a failed background task.
+     * @param error The error the task completed with.
+     * @return The message of the innermost cause.
+     * @author Oğuzhan Aydın
+     */
+    private static String rootMessage(Throwable error) {
+        Throwable cause = error;
+        while (cause.getCause() != null) {
+            cause = cause.getCause();
         }
+        return cause.getMessage();
     }
 
     /**
@@ -425,6 +458,7 @@ public class OrdersController {
     @FXML
     private void handleBack() {
         try {
+            loads.cancelAll();
             FXMLLoader loader = new FXMLLoader(getClass().getResource("/customer.fxml"));
             Parent root = loader.load();
             CustomerController controller = loader.getController();
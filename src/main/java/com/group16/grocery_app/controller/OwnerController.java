@@ -2,6 +2,10 @@ package com.group16.grocery_app.controller;
 
 import com.group16.grocery_app.model.*;
 import com.group16.grocery_app.db.service.*;
+import com.group16.grocery_app.utils.InvoiceExporter;
+import com.group16.grocery_app.utils.LoadTracker;
+import com.group16.grocery_app.utils.OrderTablePager;
+import com.group16.grocery_app.utils.ProductImageLoader;
 import javafx.beans.property.SimpleDoubleProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.property.SimpleStringProperty;
@@ -29,6 +33,7 @@ import java.time.LocalDate;
 import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Map;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.stage.FileChooser;
@@ -47,6 +52,7 @@ public class OwnerController {
     private UserService userService = new UserService();
     private MessageService messageService = new MessageService();
     private CouponService couponService = new CouponService();
+    private ReportService reportService = new ReportService();
 
     private List<ConversationUser> conversationUsers = new java.util.ArrayList<>();
 
@@ -59,6 +65,9 @@ public class OwnerController {
     @FXML private TableColumn<Product, Double> productThresholdCol;
     @FXML private Label ownerUsernameLabel;
 
+    private final LoadTracker loads = new LoadTracker();
+    private OrderTablePager ordersPager;
+
     @FXML private TableView<Order> ordersTable;
     @FXML private TableColumn<Order, Integer> orderIdCol;
     @FXML private TableColumn<Order, String> customerCol;
@@ -195,11 +204,8 @@ public class OwnerController {
         carrierNameCol.setCellValueFactory(data ->
                 new SimpleStringProperty(data.getValue().getFirstName() + " " + data.getValue().getLastName()));
 
-        carrierRatingCol.setCellValueFactory(data -> {
-            int carrierId = data.getValue().getId();
-            double avgRating = orderService.getAverageCarrierRating(carrierId);
-            return new SimpleDoubleProperty(avgRating).asObject();
-        });
+        carrierRatingCol.setCellValueFactory(data ->
+                new SimpleDoubleProperty(data.getValue().getAverageRating()).asObject());
 
         carrierRatingCol.setCellFactory(column -> new TableCell<User, Double>() {
             @Override
@@ -283,150 +289,99 @@ public class OwnerController {
     }
 
     /**
-     * Loads all coupons and populates the coupons table.
+     * Loads all coupons into the coupons table in the background.
      * Sets an empty list if an error occurs.
      *
      * @author Yiğit Emre Ünlüçerçi
      */
     private void loadCoupons() {
         if (couponsTable != null) {
-            try {
-                ObservableList<Coupon> coupons = couponService.getAllCoupons();
-                if (coupons == null) coupons = FXCollections.observableArrayList();
-                couponsTable.setItems(coupons);
-            } catch (Exception e) {
-                e.printStackTrace();
-                couponsTable.setItems(FXCollections.observableArrayList());
-            }
+            loads.loadInto("coupons", couponsTable, couponService.getAllCouponsAsync());
         }
     }
 
     /**
-     * Loads all products and populates the products table.
+     * Loads all products into the products table in the background.
      * Sets an empty list if an error occurs.
      *
      * @author Yiğit Emre Ünlüçerçi
      */
     private void loadProducts() {
         if (productsTable != null) {
-            try {
-                ObservableList<Product> products = productService.getAllProducts();
-                if (products == null) products = FXCollections.observableArrayList();
-                productsTable.setItems(products);
-            } catch (Exception e) {
-                e.printStackTrace();
-                productsTable.setItems(FXCollections.observableArrayList());
-            }
+            loads.loadInto("products", productsTable, productService.getAllProductsAsync());
         }
     }
 
     /**
-     * Loads all orders and populates the orders table.
-     * Sets an empty list if an error occurs.
+     * Loads all orders into the orders table, newest first, one page at a time.
      *
      * @author Yiğit Emre Ünlüçerçi
      */
     private void loadOrders() {
         if (ordersTable != null) {
-            try {
-                ObservableList<Order> orders = orderService.getAllOrders();
-                if (orders == null) orders = FXCollections.observableArrayList();
-                ordersTable.setItems(orders);
-            } catch (Exception e) {
-                e.printStackTrace();
-                ordersTable.setItems(FXCollections.observableArrayList());
+            if (ordersPager == null) {
+                ordersPager = new OrderTablePager(ordersTable, loads, "orders", orderService::getAllOrdersPageAsync);
             }
+            ordersPager.reset();
         }
     }
 
     /**
-     * Loads all carriers and populates the carriers table.
+     * Loads all carriers and their average ratings into the carriers table in the background.
      * Sets an empty list if an error occurs.
      *
      * @author Yiğit Emre Ünlüçerçi
      */
     private void loadCarriers() {
         if (carriersTable != null) {
-            try {
-                ObservableList<User> carriers = userService.getCarriers();
-                if (carriers == null) carriers = FXCollections.observableArrayList();
-                carriersTable.setItems(carriers);
-            } catch (Exception e) {
-                e.printStackTrace();
-                carriersTable.setItems(FXCollections.observableArrayList());
-            }
+            loads.loadInto("carriers", carriersTable, userService.getCarriersWithRatingsAsync());
         }
     }
 
     /**
-     * Loads report summary metrics and updates charts.
-     * Calculates total revenue, order counts, active carriers, and chart data.
+     * Loads report summary metrics in the background and updates the labels and charts.
+     * The figures are aggregated by the database, see {@link ReportService}.
      *
      * @author Yiğit Emre Ünlüçerçi
      */
     private void loadReports() {
-        try {
-            ObservableList<Order> allOrders = orderService.getAllOrders();
-            ObservableList<User> carriers = userService.getCarriers();
-
-            if (allOrders == null) allOrders = FXCollections.observableArrayList();
-            if (carriers == null) carriers = FXCollections.observableArrayList();
-
-            double totalRevenue = allOrders.stream()
-                    .mapToDouble(Order::getTotal)
-                    .sum();
-
-            int totalOrders = allOrders.size();
-            int activeCarriers = carriers.size();
-
-            if (totalRevenueLabel != null) {
-                totalRevenueLabel.setText(String.format("₺%.2f", totalRevenue));
-            }
-            if (totalOrdersLabel != null) {
-                totalOrdersLabel.setText(String.valueOf(totalOrders));
-            }
-            if (activeCarriersLabel != null) {
-                activeCarriersLabel.setText(String.valueOf(activeCarriers));
-            }
+        loads.load("reports", reportService.getSalesReportAsync(), this::showReports);
+    }
 
-            updateOrdersByStatusChart(allOrders);
-            updateMonthlyRevenueChart(allOrders);
-        } catch (Exception e) {
-            e.printStackTrace();
-            if (totalRevenueLabel != null) totalRevenueLabel.setText("₺0.00");
-            if (totalOrdersLabel != null) totalOrdersLabel.setText("0");
-            if (activeCarriersLabel != null) activeCarriersLabel.setText("0");
+    /**
+     * Shows the report figures in the summary labels and charts.
+     *
+     * @param report report figures
+     * @author Yiğit Emre Ünlüçerçi
+     */
+    private void showReports(SalesReport report) {
+        if (totalRevenueLabel != null) {
+            totalRevenueLabel.setText(String.format("₺%.2f", report.getTotalRevenue()));
         }
+        if (totalOrdersLabel != null) {
+            totalOrdersLabel.setText(String.valueOf(report.getTotalOrders()));
+        }
+        if (activeCarriersLabel != null) {
+            activeCarriersLabel.setText(String.valueOf(report.getActiveCarriers()));
+        }
+
+        updateOrdersByStatusChart(report.getOrdersByStatus());
+        updateMonthlyRevenueChart(report.getMonthlyRevenue());
     }
 
     /**
-     * Updates the "Orders by Status" pie chart using the given orders.
+     * Updates the "Orders by Status" pie chart using the given order counts.
      *
-     * @param orders the list of orders to analyze
+     * @param statusCounts number of orders per status name
      * @author Yiğit Emre Ünlüçerçi
      */
-    private void updateOrdersByStatusChart(ObservableList<Order> orders) {
+    private void updateOrdersByStatusChart(Map<String, Integer> statusCounts) {
         if (ordersByStatusChart == null) return;
 
-        int pendingCount = 0;
-        int selectedCount = 0;
-        int deliveredCount = 0;
-        int cancelledCount = 0;
-
-        for (Order order : orders) {
-            String status = order.getStatus();
-            if (status != null) {
-                if ("Pending".equals(status)) {
-                    pendingCount++;
-                } else if ("Selected".equals(status)) {
-                    selectedCount++;
-                } else if ("Delivered".equals(status)) {
-                    deliveredCount++;
-                } else if ("Cancelled".equals(status)) {
-                    cancelledCount++;
-                }
-            }
-        }
+        int pendingCount = statusCounts.getOrDefault("Pending", 0);
+        int selectedCount = statusCounts.getOrDefault("Selected", 0);
+        int deliveredCount = statusCounts.getOrDefault("Delivered", 0);
+        int cancelledCount = statusCounts.getOrDefault("Cancelled", 0);
 
         ObservableList<PieChart.Data> pieChartData = FXCollections.observableArrayList();
         final PieChart.Data[] pendingData = {null};
@@ -473,66 +428,25 @@ public class OwnerController {
     }
 
     /**
-     * Updates the monthly revenue bar chart using the given orders.
-     * Groups order totals by year-month and displays them in ascending time order.
+     * Updates the monthly revenue bar chart using the given totals.
+     * Months are displayed in ascending time order.
      *
-     * @param orders the list of orders to analyze
+     * @param monthlyRevenue revenue per month, sorted by month
      * @author Yiğit Emre Ünlüçerçi
      */
-    private void updateMonthlyRevenueChart(ObservableList<Order> orders) {
+    private void updateMonthlyRevenueChart(Map<YearMonth, Double> monthlyRevenue) {
         if (monthlyRevenueChart == null) return;
 
-        List<String> months = new ArrayList<>();
-        List<Double> revenues = new ArrayList<>();
-        DateTimeFormatter monthFormatter = DateTimeFormatter.ofPattern("yyyy-MM");
         DateTimeFormatter displayFormatter = DateTimeFormatter.ofPattern("MMM yyyy");
 
-        for (Order order : orders) {
-            if (order.getCreatedAt() != null) {
-                String month = order.getCreatedAt().format(monthFormatter);
-                boolean found = false;
-                for (int i = 0; i < months.size(); i++) {
-                    if (months.get(i).equals(month)) {
-                        revenues.set(i, revenues.get(i) + order.getTotal());
-                        found = true;
-                        break;
-                    }
-                }
-                if (!found) {
-                    months.add(month);
-                    revenues.add(order.getTotal());
-                }
-            }
-        }
-
         monthlyRevenueChart.setTitle("Monthly Revenue");
         monthlyRevenueChart.setLegendVisible(false);
 
         XYChart.Series<String, Number> series = new XYChart.Series<>();
         series.setName("Revenue");
 
-        for (int i = 0; i < months.size() - 1; i++) {
-            for (int j = 0; j < months.size() - i - 1; j++) {
-                if (months.get(j).compareTo(months.get(j + 1)) > 0) {
-                    String tempMonth = months.get(j);
-                    months.set(j, months.get(j + 1));
-                    months.set(j + 1, tempMonth);
-                    Double tempRev = revenues.get(j);
-                    revenues.set(j, revenues.get(j + 1));
-                    revenues.set(j + 1, tempRev);
-                }
-            }
-        }
-
-        for (int i = 0; i < months.size(); i++) {
-            try {
-                YearMonth yearMonth = YearMonth.parse(months.get(i), monthFormatter);
-                String displayMonth = yearMonth.format(displayFormatter);
-                XYChart.Data<String, Number> data = new XYChart.Data<>(displayMonth, revenues.get(i));
-                series.getData().add(data);
-            } catch (Exception e) {
-                series.getData().add(new XYChart.Data<>(months.get(i), revenues.get(i)));
-            }
+        for (Map.Entry<YearMonth, Double> entry : monthlyRevenue.entrySet()) {
+            series.getData().add(new XYChart.Data<>(entry.getKey().format(displayFormatter), entry.getValue()));
         }
 
         monthlyRevenueChart.getData().clear();
@@ -678,13 +592,18 @@ public class OwnerController {
         imagePreview.setPreserveRatio(true);
         imagePreview.setStyle("-fx-border-color: #CCCCCC; -fx-border-width: 1px;");
 
-        if (product != null && product.getImage() != null) {
-            imagePreview.setImage(product.getImage());
-            imagePathLabel.setText("Current product image");
-        }
-
         final File[] selectedImageFile = {null};
 
+        if (product != null && product.hasImage()) {
+            imagePathLabel.setText("Loading current product image...");
+            ProductImageLoader.getInstance().loadPreview(product, preview -> {
+                if (selectedImageFile[0] == null) {
+                    imagePreview.setImage(preview);
+                    imagePathLabel.setText("Current product image");
+                }
+            });
+        }
+
         selectImageButton.setOnAction(e -> {
             FileChooser fileChooser = new FileChooser();
             fileChooser.setTitle("Select Product Image");
@@ -778,6 +697,102 @@ public class OwnerController {
         dialog.showAndWait();
     }
 
+    /**
+     * Exports the invoices of all orders placed in a chosen date range to a ZIP file.
+     * The export runs in the background while a dialog shows its progress and throughput
+     * and lets the owner cancel it.
+     *
+     * @author Yiğit Emre Ünlüçerçi
+     */
+    @FXML
+    private void handleExportInvoices() {
+        Dialog<ButtonType> rangeDialog = new Dialog<>();
+        rangeDialog.setTitle("Export Invoices");
+
+        DatePicker fromPicker = new DatePicker(LocalDate.now().withDayOfMonth(1));
+        DatePicker toPicker = new DatePicker(LocalDate.now());
+
+        VBox rangeContent = new VBox(10);
+        rangeContent.getChildren().addAll(
+                new Label("From:"), fromPicker,
+                new Label("To:"), toPicker
+        );
+        rangeContent.setPadding(new javafx.geometry.Insets(20));
+
+        rangeDialog.getDialogPane().setContent(rangeContent);
+        rangeDialog.getDialogPane().getButtonTypes().addAll(ButtonType.OK, ButtonType.CANCEL);
+
+        javafx.scene.control.Button okButton = (javafx.scene.control.Button) rangeDialog.getDialogPane().lookupButton(ButtonType.OK);
+        okButton.addEventFilter(javafx.event.ActionEvent.ACTION, event -> {
+            if (fromPicker.getValue() == null || toPicker.getValue() == null) {
+                showAlert(Alert.AlertType.ERROR, "Invalid Input", "Please select both dates.");
+                event.consume();
+            } else if (fromPicker.getValue().isAfter(toPicker.getValue())) {
+                showAlert(Alert.AlertType.ERROR, "Invalid Input", "The start date must not be after the end date.");
+                event.consume();
+            }
+        });
+
+        if (rangeDialog.showAndWait().orElse(ButtonType.CANCEL) != ButtonType.OK) {
+            return;
+        }
+        LocalDate from = fromPicker.getValue();
+        LocalDate to = toPicker.getValue();
+
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Save Invoices");
+        fileChooser.setInitialFileName("invoices_" + from + "_" + to + ".zip");
+        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("ZIP Files", "*.zip"));
+        File file = fileChooser.showSaveDialog(ordersTable.getScene().getWindow());
+        if (file == null) {
+            return;
+        }
+
+        InvoiceExporter exporter = new InvoiceExporter(from, to);
+
+        ProgressBar progressBar = new ProgressBar(ProgressBar.INDETERMINATE_PROGRESS);
+        progressBar.setPrefWidth(300);
+        Label progressLabel = new Label("Preparing export...");
+        VBox progressContent = new VBox(10, progressLabel, progressBar);
+        progressContent.setPadding(new javafx.geometry.Insets(20));
+
+        Dialog<ButtonType> progressDialog = new Dialog<>();
+        progressDialog.setTitle("Exporting Invoices");
+        progressDialog.getDialogPane().setContent(progressContent);
+        progressDialog.getDialogPane().getButtonTypes().add(ButtonType.CANCEL);
+        progressDialog.setOnHidden(event -> exporter.cancel());
+
+        long startedAt = System.nanoTime();
+        ServiceExecutor.supplyAsync(() -> {
+            try {
+                return exporter.exportZip(file.toPath(), (done, total, rate) -> ServiceExecutor.FX.execute(() -> {
+                    progressBar.setProgress(total > 0 ? (double) done / total : 1);
+                    progressLabel.setText(String.format("%d of %d invoices (%.1f/s)", done, total, rate));
+                }));
+            } catch (IOException e) {
+                throw new java.io.UncheckedIOException(e);
+            }
+        }).whenCompleteAsync((count, error) -> {
+            progressDialog.close();
+            if (error != null) {
+                Throwable cause = error.getCause() != null ? error.getCause() : error;
+                if (cause instanceof java.util.concurrent.CancellationException) {
+                    return;
+                }
+                cause.printStackTrace();
+                showAlert(Alert.AlertType.ERROR, "Error", "Failed to export invoices: " +
+                        (cause.getCause() != null ? cause.getCause().getMessage() : cause.getMessage()));
+                return;
+            }
+            double seconds = (System.nanoTime() - startedAt) / 1e9;
+            showAlert(Alert.AlertType.INFORMATION, "Success", String.format(
+                    "Exported %d invoices in %.1f s (%.1f/s) to: %s",
+                    count, seconds, seconds > 0 ? count / seconds : 0, file.getAbsolutePath()));
+        }, ServiceExecutor.FX);
+
+        progressDialog.show();
+    }
+
     /**
      * Opens the dialog to add a new carrier.
      *
@@ -1146,6 +1161,7 @@ public class OwnerController {
         confirm.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
                 try {
+                    loads.cancelAll();
                     FXMLLoader loader = new FXMLLoader(getClass().getResource("/LoginView.fxml"));
                     Parent root = loader.load();
                     Stage stage = (Stage) (ownerUsernameLabel != null ? ownerUsernameLabel.getScene().getWindow() :
@@ -1,6 +1,10 @@
 package com.group16.grocery_app.controller;
 
+import com.group16.grocery_app.db.service.ProductService;
+import com.group16.grocery_app.db.service.ReservationService;
+import com.group16.grocery_app.db.service.ServiceExecutor;
 import com.group16.grocery_app.model.Cart;
+import com.group16.grocery_app.utils.ProductImageLoader;
 import javafx.fxml.FXML;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Label;
@@ -36,18 +40,25 @@ public class ProductItemController {
 
     /**
      * Sets the product to display and updates the UI.
+     * The card may be reused for another product, e.g. by a list cell; the quantity typed for
+     * the previous product is then cleared. The product's image is loaded right away, since
+     * cards only exist for visible products.
      *
      * @param product The product to set
      * @author Ege Usug
      */
     public void setProduct(Product product) {
+        if (this.product != product && quantityField != null) {
+            quantityField.clear();
+        }
         this.product = product;
         if (nameLabel != null) {
             nameLabel.setText(product.getName());
         }
         updatePriceDisplay();
-        if (product.getImage() != null && productImageView != null) {
-            productImageView.setImage(product.getImage());
+        if (productImageView != null) {
+            productImageView.imageProperty().bind(product.imageProperty());
+            ProductImageLoader.getInstance().load(product);
         }
     }
 
@@ -65,6 +76,9 @@ public class ProductItemController {
     }
 
     private Cart cart;
+    private int customerId;
+    private final ReservationService reservationService = new ReservationService();
+    private final ProductService productService = new ProductService();
 
     /**
      * Sets the cart for price calculation purposes.
@@ -76,8 +90,20 @@ public class ProductItemController {
         this.cart = cart;
     }
 
+    /**
+     * Sets the customer whose cart this item adds to; stock is held in their name.
+     *
+     * @param customerId The customer's user ID
+     * @author Ege Usug
+     */
+    public void setCustomerId(int customerId) {
+        this.customerId = customerId;
+    }
+
     /**
      * Handles adding the product to the cart with the specified quantity.
+     * The new cart quantity is held in the database first; the product is only added if the
+     * stock not held by other customers covers it.
      *
      * @author Ege Usug
      */
@@ -98,21 +124,36 @@ public class ProductItemController {
             return;
         }
 
+        // The card may show another product by the time the hold is placed
+        Product product = this.product;
+        Cart cart = this.cart;
         double alreadyInCart = cart.getQuantityOfProduct(product);
         double totalRequested = alreadyInCart + quantity;
 
-        if (totalRequested > product.getStock()) {
-            showInfo("Insufficient stock", "Available stock: " + product.getStock() + " kg\n" + "Already in cart: " + alreadyInCart + " kg");
-            return;
-        }
-
-        cart.addProduct(product, quantity);
-
-        updatePriceDisplay();
-
-        showInfo("Added to cart", product.getName() + " (" + quantity + " kg) added to cart.");
-
-        quantityField.clear();
+        // Hold the new cart quantity so other customers cannot buy it while it is in the cart
+        addToCartButton.setDisable(true);
+        reservationService.reserveAsync(customerId, product.getId(), totalRequested)
+                .thenAcceptBothAsync(productService.getProductAsync(product.getId()), (available, shared) -> {
+                    addToCartButton.setDisable(false);
+                    if (available < 0) {
+                        showInfo("Error", "Could not check the stock. Please try again.");
+                        return;
+                    }
+                    if (available < totalRequested) {
+                        showInfo("Insufficient stock", "Available stock: " + available + " kg\n" + "Already in cart: " + alreadyInCart + " kg");
+                        return;
+                    }
+
+                    // The cart keeps the cached instance, so catalog patches reach its line
+                    cart.addProduct(shared != null ? shared : product, quantity);
+
+                    if (this.product == product) {
+                        updatePriceDisplay();
+                        quantityField.clear();
+                    }
+
+                    showInfo("Added to cart", product.getName() + " (" + quantity + " kg) added to cart.");
+                }, ServiceExecutor.FX);
     }
 
     /**
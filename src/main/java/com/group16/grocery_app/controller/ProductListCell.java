@@ -0,0 +1,61 @@
+package com.group16.grocery_app.controller;
+
+import com.group16.grocery_app.model.Cart;
+import com.group16.grocery_app.model.Product;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.control.ContentDisplay;
+import javafx.scene.control.ListCell;
+import javafx.scene.layout.HBox;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+/**
+ * List cell showing a product card from {@code productItem.fxml}.
+ * The card is loaded once per cell; the list view reuses its cells while scrolling and
+ * filtering, so only the visible products have cards.
+ *
+ * @author Ege Usug
+ */
+class ProductListCell extends ListCell<Product> {
+
+    private final HBox card;
+    private final ProductItemController controller;
+    private final Supplier<Cart> cart;
+    private final IntSupplier customerId;
+
+    /**
+     * Creates a cell and loads its product card.
+     *
+     * @param cart supplies the current customer's cart
+     * @param customerId supplies the current customer's user ID
+     * @author Ege Usug
+     */
+    ProductListCell(Supplier<Cart> cart, IntSupplier customerId) {
+        this.cart = cart;
+        this.customerId = customerId;
+        FXMLLoader loader = new FXMLLoader(getClass().getResource("/productItem.fxml"));
+        try {
+            card = loader.load();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load product card", e);
+        }
+        controller = loader.getController();
+        setContentDisplay(ContentDisplay.GRAPHIC_ONLY);
+    }
+
+    @Override
+    protected void updateItem(Product product, boolean empty) {
+        super.updateItem(product, empty);
+        if (empty || product == null) {
+            setGraphic(null);
+            return;
+        }
+        controller.setCart(cart.get());
+        controller.setCustomerId(customerId.getAsInt());
+        controller.setProduct(product);
+        setGraphic(card);
+    }
+}
@@ -0,0 +1,414 @@
+package com.group16.grocery_app.db;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded JDBC connection pool used by {@link Database}.
+ * Connections are validated on borrow, idle connections above the minimum are evicted
+ * after a timeout, and connections held longer than the leak threshold are reported.
+ * Callers must close the borrowed connection, which returns it to the pool.
+ *
+ * @author Mert Bölükbaşı
+ */
+public class ConnectionPool {
+
+    private static final long VALIDATION_BYPASS_MILLIS = 500;
+    private static final long IDLE_POLL_MILLIS = 50;
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int minIdle;
+    private final int maxSize;
+    private final long borrowTimeoutMillis;
+    private final long idleTimeoutMillis;
+    private final long leakThresholdMillis;
+    private final int validationTimeoutSeconds;
+
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final Set<PooledConnection> borrowed = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger totalConnections = new AtomicInteger();
+    private final Semaphore permits;
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean closed;
+
+    /**
+     * Creates a pool and starts its housekeeping thread.
+     * Physical connections are opened lazily; call {@link #fillToMinimum()} to warm up.
+     *
+     * @param url JDBC URL
+     * @param user database user
+     * @param password database password
+     * @param minIdle number of idle connections kept open
+     * @param maxSize upper bound on open connections
+     * @param borrowTimeoutMillis how long a borrower waits for a free connection
+     * @param idleTimeoutMillis idle time after which surplus connections are closed
+     * @param leakThresholdMillis borrow duration after which a leak warning is printed (0 disables)
+     * @param validationTimeoutSeconds timeout passed to {@link Connection#isValid(int)}
+     * @author Mert Bölükbaşı
+     */
+    public ConnectionPool(String url, String user, String password, int minIdle, int maxSize,
+                          long borrowTimeoutMillis, long idleTimeoutMillis, long leakThresholdMillis,
+                          int validationTimeoutSeconds) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Pool size must be at least 1");
+        }
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.maxSize = maxSize;
+        this.minIdle = Math.max(0, Math.min(minIdle, maxSize));
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.leakThresholdMillis = leakThresholdMillis;
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+        this.permits = new Semaphore(maxSize, true);
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "db-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1000, Math.min(idleTimeoutMillis, 30_000) / 2);
+        housekeeper.scheduleWithFixedDelay(this::housekeep, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrows a connection, blocking up to the borrow timeout when the pool is exhausted.
+     *
+     * @return a connection whose {@code close()} returns it to the pool
+     * @throws SQLException if the pool is closed, exhausted, or a new connection cannot be opened
+     * @author Mert Bölükbaşı
+     */
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed.");
+        }
+        long deadline = System.currentTimeMillis() + borrowTimeoutMillis;
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLException("Timed out after " + borrowTimeoutMillis + " ms waiting for a database connection ("
+                        + borrowed.size() + "/" + maxSize + " in use).");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection.", e);
+        }
+
+        try {
+            PooledConnection pooled;
+            while (true) {
+                pooled = idle.pollFirst();
+                if (pooled == null) {
+                    if (reserveSlot()) {
+                        pooled = openReserved();
+                        break;
+                    }
+                    // Every slot is open; the ones not borrowed are on their way into the idle queue
+                    pooled = pollIdle(deadline);
+                    if (pooled == null) {
+                        continue;
+                    }
+                }
+                if (isUsable(pooled)) {
+                    break;
+                }
+                closePhysical(pooled);
+            }
+            pooled.borrowedAt = System.currentTimeMillis();
+            pooled.borrowTrace = leakThresholdMillis > 0 ? new Throwable("Connection borrowed here") : null;
+            pooled.leakReported = false;
+            borrowed.add(pooled);
+            return pooled.newHandle();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Opens connections until the minimum idle count is reached.
+     *
+     * @throws SQLException if a connection cannot be opened
+     * @author Mert Bölükbaşı
+     */
+    public void fillToMinimum() throws SQLException {
+        while (!closed && idle.size() < minIdle && reserveSlot()) {
+            idle.offerLast(openReserved());
+        }
+    }
+
+    /**
+     * Closes all idle connections and stops housekeeping.
+     * Borrowed connections are closed when their borrowers return them.
+     *
+     * @author Mert Bölükbaşı
+     */
+    public void shutdown() {
+        closed = true;
+        housekeeper.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            closePhysical(pooled);
+        }
+    }
+
+    /**
+     * Gets the number of connections currently borrowed.
+     *
+     * @return borrowed connection count
+     * @author Mert Bölükbaşı
+     */
+    public int getActiveCount() {
+        return borrowed.size();
+    }
+
+    /**
+     * Gets the number of idle connections waiting in the pool.
+     *
+     * @return idle connection count
+     * @author Mert Bölükbaşı
+     */
+    public int getIdleCount() {
+        return idle.size();
+    }
+
+    /**
+     * Gets the maximum number of connections the pool will open.
+     *
+     * @return pool size limit
+     * @author Mert Bölükbaşı
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Counts a connection about to be opened, unless the pool is already at its limit. The slot
+     * is taken before opening, so borrowers and housekeeping never open more than {@code maxSize}.
+     */
+    private boolean reserveSlot() {
+        int current;
+        do {
+            current = totalConnections.get();
+            if (current >= maxSize) {
+                return false;
+            }
+        } while (!totalConnections.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    /**
+     * Opens a connection for a slot taken with {@link #reserveSlot()}, giving the slot back on failure.
+     */
+    private PooledConnection openReserved() throws SQLException {
+        try {
+            return new PooledConnection(DriverManager.getConnection(url, user, password));
+        } catch (SQLException | RuntimeException e) {
+            totalConnections.decrementAndGet();
+            throw e;
+        }
+    }
+
+    /**
+     * Waits briefly for a connection to be returned. Returns null after the wait so the caller
+     * can check again for a free slot, e.g. one freed by discarding a broken connection.
+     */
+    private PooledConnection pollIdle(long deadline) throws SQLException {
+        long remaining = deadline - System.currentTimeMillis();
+        if (remaining <= 0) {
+            throw new SQLException("Timed out after " + borrowTimeoutMillis + " ms waiting for a database connection ("
+                    + borrowed.size() + "/" + maxSize + " in use).");
+        }
+        try {
+            return idle.pollFirst(Math.min(remaining, IDLE_POLL_MILLIS), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection.", e);
+        }
+    }
+
+    private void closePhysical(PooledConnection pooled) {
+        totalConnections.decrementAndGet();
+        try {
+            pooled.physical.close();
+        } catch (SQLException ignored) {
+        }
+    }
+
+    private boolean isUsable(PooledConnection pooled) {
+        if (System.currentTimeMillis() - pooled.lastReturnedAt < VALIDATION_BYPASS_MILLIS) {
+            return true;
+        }
+        try {
+            return pooled.physical.isValid(validationTimeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns a connection to the pool after resetting per-session state.
+     * Broken connections are discarded instead of being reused.
+     */
+    private void release(PooledConnection pooled) {
+        borrowed.remove(pooled);
+        pooled.borrowTrace = null;
+        boolean reusable = !closed;
+        try {
+            pooled.closeOpenStatements();
+            if (!pooled.physical.getAutoCommit()) {
+                pooled.physical.rollback();
+                pooled.physical.setAutoCommit(true);
+            }
+            if (pooled.physical.isReadOnly()) {
+                pooled.physical.setReadOnly(false);
+            }
+            if (pooled.physical.getTransactionIsolation() != pooled.defaultIsolation) {
+                pooled.physical.setTransactionIsolation(pooled.defaultIsolation);
+            }
+        } catch (SQLException e) {
+            reusable = false;
+        }
+
+        if (reusable) {
+            pooled.lastReturnedAt = System.currentTimeMillis();
+            idle.offerFirst(pooled);
+        } else {
+            closePhysical(pooled);
+        }
+        permits.release();
+    }
+
+    private void housekeep() {
+        long now = System.currentTimeMillis();
+
+        if (leakThresholdMillis > 0) {
+            for (PooledConnection pooled : borrowed) {
+                Throwable trace = pooled.borrowTrace;
+                if (!pooled.leakReported && trace != null && now - pooled.borrowedAt > leakThresholdMillis) {
+                    pooled.leakReported = true;
+                    System.err.println("Possible connection leak: connection held for "
+                            + (now - pooled.borrowedAt) + " ms");
+                    trace.printStackTrace();
+                }
+            }
+        }
+
+        Iterator<PooledConnection> oldestFirst = idle.descendingIterator();
+        while (oldestFirst.hasNext() && idle.size() > minIdle) {
+            PooledConnection pooled = oldestFirst.next();
+            if (now - pooled.lastReturnedAt > idleTimeoutMillis && idle.remove(pooled)) {
+                closePhysical(pooled);
+            }
+        }
+
+        try {
+            fillToMinimum();
+        } catch (SQLException e) {
+            System.err.println("Connection pool could not refill idle connections: " + e.getMessage());
+        }
+    }
+
+    /**
+     * A physical connection owned by the pool. Each borrow hands out a fresh proxy,
+     * so a stale handle that is closed twice cannot return the connection again.
+     */
+    private final class PooledConnection {
+        private final Connection physical;
+        private final int defaultIsolation;
+        private final List<Statement> openStatements = new ArrayList<>();
+        private volatile long borrowedAt;
+        private volatile long lastReturnedAt = System.currentTimeMillis();
+        private volatile Throwable borrowTrace;
+        private volatile boolean leakReported;
+
+        private PooledConnection(Connection physical) throws SQLException {
+            this.physical = physical;
+            this.defaultIsolation = physical.getTransactionIsolation();
+        }
+
+        private Connection newHandle() {
+            return (Connection) Proxy.newProxyInstance(
+                    ConnectionPool.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    new Handle(this));
+        }
+
+        private synchronized void track(Statement statement) {
+            openStatements.add(statement);
+        }
+
+        private synchronized void closeOpenStatements() {
+            for (Statement statement : openStatements) {
+                try {
+                    statement.close();
+                } catch (SQLException ignored) {
+                }
+            }
+            openStatements.clear();
+        }
+    }
+
+    private final class Handle implements InvocationHandler {
+        private final PooledConnection pooled;
+        private boolean returned;
+
+        private Handle(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "close":
+                    if (!returned) {
+                        returned = true;
+                        release(pooled);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned || pooled.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + pooled.physical + "]";
+                default:
+                    break;
+            }
+            if (returned) {
+                throw new SQLException("Connection has already been returned to the pool.");
+            }
+            try {
+                Object result = method.invoke(pooled.physical, args);
+                if (result instanceof Statement statement) {
+                    pooled.track(statement);
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
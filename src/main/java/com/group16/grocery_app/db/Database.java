@@ -1,47 +1,103 @@
 package com.group16.grocery_app.db;
 
+import java.io.IOException;
 import java.sql.*;
 
 public class Database {
 
-    private final String DB_URL = "jdbc:mysql://localhost:3306/Group16";
-
-    private final String DB_USER = "myuser";
-
-    private final String DB_PASSWORD = "1234";
-
     private static Database instance;
 
-    private Connection connection;
+    private final DatabaseConfig config;
+
+    private final ConnectionPool pool;
 
     private Database() {
+        this.config = DatabaseConfig.load();
+
         try {
-            Class.forName("com.mysql.cj.jdbc.Driver");
-            this.connection = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
-            System.out.println("Database connection is successful!");
-            
-            // Verify connection is valid
-            if (this.connection != null && !this.connection.isClosed()) {
-                System.out.println("Database connection verified and active.");
-            } else {
-                System.err.println("Warning: Database connection is null or closed!");
-            }
+            Class.forName(config.getDriverClass());
         } catch (ClassNotFoundException e) {
-            System.err.println("MySQL JDBC Driver not found!");
-            System.err.println("Please ensure MySQL JDBC driver is in the classpath.");
+            System.err.println("JDBC Driver not found: " + config.getDriverClass());
+            System.err.println("Please ensure the JDBC driver is in the classpath.");
             e.printStackTrace();
+        }
+
+        this.pool = new ConnectionPool(
+                config.getUrl(), config.getUser(), config.getPassword(),
+                config.getPoolMinIdle(),
+                config.getPoolMaxSize(),
+                config.getPoolBorrowTimeoutMillis(),
+                config.getPoolIdleTimeoutMillis(),
+                config.getPoolLeakThresholdMillis(),
+                config.getPoolValidationTimeoutSeconds()
+        );
+
+        try {
+            if (!config.getSeedScript().isEmpty()) {
+                seedIfEmpty();
+            }
+            if (config.isMigrate()) {
+                migrate();
+            }
+            pool.fillToMinimum();
+            System.out.println("Database connection is successful!");
+            System.out.println("Connection pool ready (max " + pool.getMaxSize() + " connections"
+                    + (config.isEmbedded() ? ", embedded database" : "") + ").");
         } catch (SQLException e) {
             System.err.println("Database connection failed!");
-            System.err.println("URL: " + DB_URL);
-            System.err.println("User: " + DB_USER);
+            System.err.println("URL: " + config.getUrl());
+            System.err.println("User: " + config.getUser());
             System.err.println("Error: " + e.getMessage());
             System.err.println("Please ensure:");
             System.err.println("1. MySQL server is running");
             System.err.println("2. Database 'Group16' exists");
             System.err.println("3. User credentials are correct");
             System.err.println("4. Run the Group16.sql script to set up the database");
+            System.err.println("Or start with -Dgrocery.profile=embedded to use the in-memory database.");
             e.printStackTrace();
-            this.connection = null;
+        }
+    }
+
+    /**
+     * Runs the configured seed script when the schema has not been created yet.
+     * Used by the embedded profile, which starts from an empty in-memory database.
+     *
+     * @throws SQLException if the script cannot be loaded or a statement fails
+     * @author Mert Bölükbaşı
+     */
+    private void seedIfEmpty() throws SQLException {
+        try (Connection connection = pool.getConnection()) {
+            try (Statement stmt = connection.createStatement()) {
+                stmt.executeQuery("SELECT 1 FROM UserInfo WHERE 1 = 0").close();
+                return;
+            } catch (SQLException e) {
+                // schema missing, seed below
+            }
+
+            SqlScript script;
+            try {
+                script = SqlScript.load(config.getSeedScript());
+            } catch (IOException e) {
+                throw new SQLException("Could not read seed script " + config.getSeedScript(), e);
+            }
+            script.execute(connection, true);
+            System.out.println("Seeded database from " + config.getSeedScript()
+                    + " (" + script.getStatements().size() + " statements).");
+        }
+    }
+
+    /**
+     * Applies pending schema migrations, see {@link MigrationRunner}.
+     *
+     * @throws SQLException if a migration fails
+     * @author Mert Bölükbaşı
+     */
+    private void migrate() throws SQLException {
+        try (Connection connection = pool.getConnection()) {
+            int applied = new MigrationRunner(connection).migrate();
+            if (applied > 0) {
+                System.out.println("Database schema is up to date (" + applied + " migrations applied).");
+            }
         }
     }
 
@@ -51,18 +107,41 @@ public class Database {
      * @return Database object instance.
      * @author Mert Bölükbaşı
      */
-    public static Database getInstance() {
+    public static synchronized Database getInstance() {
         if (instance == null) {
             instance = new Database();
         }
         return instance;
     }
 
-    public Connection getConnection() {
-        if (connection == null) {
-            System.err.println("Warning: getConnection() called but connection is null!");
-            System.err.println("Database may not have been initialized properly.");
-        }
-        return connection;
+    /**
+     * Borrows a connection from the pool.
+     * The caller must close it (preferably with try-with-resources) to return it to the pool.
+     *
+     * @return pooled connection
+     * @throws SQLException if no connection could be obtained
+     * @author Mert Bölükbaşı
+     */
+    public Connection getConnection() throws SQLException {
+        return pool.getConnection();
+    }
+
+    /**
+     * Closes idle pooled connections. Called when the application exits.
+     *
+     * @author Mert Bölükbaşı
+     */
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Gets the settings the database was started with.
+     *
+     * @return database settings
+     * @author Mert Bölükbaşı
+     */
+    public DatabaseConfig getConfig() {
+        return config;
     }
 }
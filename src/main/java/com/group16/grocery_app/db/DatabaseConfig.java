@@ -0,0 +1,158 @@
+package com.group16.grocery_app.db;
+
+import com.group16.grocery_app.config.AppConfig;
+
+/**
+ * Database settings resolved from {@link AppConfig}.
+ * <p>
+ * The {@code mysql} profile (default) connects to the configured MySQL server and appends the
+ * driver options from {@code db.driverOptions} to the URL. The {@code embedded} profile starts an
+ * in-memory H2 database in MySQL compatibility mode and seeds it from {@code Group16.sql}, so the
+ * application can run on a machine without MySQL.
+ *
+ * @author Mert Bölükbaşı
+ */
+public class DatabaseConfig {
+
+    public static final String EMBEDDED_PROFILE = "embedded";
+
+    private static final String DEFAULT_MYSQL_URL = "jdbc:mysql://localhost:3306/Group16";
+    private static final String DEFAULT_EMBEDDED_URL = "jdbc:h2:mem:Group16;MODE=MySQL;DB_CLOSE_DELAY=-1";
+
+    /**
+     * Connector/J options enabled by default: server-side prepared statements with a client-side
+     * statement cache, multi-row rewriting of batched inserts, and cursor based fetching when a
+     * fetch size is set on a statement.
+     */
+    private static final String DEFAULT_MYSQL_OPTIONS = "useServerPrepStmts=true&cachePrepStmts=true"
+            + "&prepStmtCacheSize=250&prepStmtCacheSqlLimit=2048&rewriteBatchedStatements=true"
+            + "&useCursorFetch=true&characterEncoding=UTF-8";
+
+    private final boolean embedded;
+    private final String url;
+    private final String user;
+    private final String password;
+    private final String driverClass;
+    private final String seedScript;
+    private final boolean migrate;
+
+    private final int poolMinIdle;
+    private final int poolMaxSize;
+    private final long poolBorrowTimeoutMillis;
+    private final long poolIdleTimeoutMillis;
+    private final long poolLeakThresholdMillis;
+    private final int poolValidationTimeoutSeconds;
+
+    private DatabaseConfig(AppConfig config) {
+        this.embedded = EMBEDDED_PROFILE.equals(config.getProfile());
+
+        if (embedded) {
+            this.url = config.get("db.url", DEFAULT_EMBEDDED_URL);
+            this.user = config.get("db.user", "sa");
+            this.password = config.get("db.password", "");
+            this.driverClass = config.get("db.driver", "org.h2.Driver");
+        } else {
+            this.url = withOptions(config.get("db.url", DEFAULT_MYSQL_URL),
+                    config.get("db.driverOptions", DEFAULT_MYSQL_OPTIONS));
+            this.user = config.get("db.user", "myuser");
+            this.password = config.get("db.password", "1234");
+            this.driverClass = config.get("db.driver", "com.mysql.cj.jdbc.Driver");
+        }
+        this.seedScript = config.get("db.seedScript", embedded ? "classpath:/Group16.sql" : "");
+        this.migrate = config.getBoolean("db.migrate", true);
+
+        this.poolMinIdle = config.getInt("db.pool.minIdle", 2);
+        this.poolMaxSize = config.getInt("db.pool.maxSize", 10);
+        this.poolBorrowTimeoutMillis = config.getLong("db.pool.borrowTimeoutMs", 10_000L);
+        this.poolIdleTimeoutMillis = config.getLong("db.pool.idleTimeoutMs", 300_000L);
+        this.poolLeakThresholdMillis = config.getLong("db.pool.leakThresholdMs", 30_000L);
+        this.poolValidationTimeoutSeconds = config.getInt("db.pool.validationTimeoutSec", 2);
+    }
+
+    /**
+     * Resolves the database settings from the application configuration.
+     *
+     * @return database settings
+     * @author Mert Bölükbaşı
+     */
+    public static DatabaseConfig load() {
+        return new DatabaseConfig(AppConfig.getInstance());
+    }
+
+    private static String withOptions(String url, String options) {
+        if (options == null || options.isBlank()) {
+            return url;
+        }
+        return url + (url.contains("?") ? "&" : "?") + options;
+    }
+
+    /**
+     * Checks whether the embedded in-memory database is used.
+     *
+     * @return true for the embedded profile
+     * @author Mert Bölükbaşı
+     */
+    public boolean isEmbedded() {
+        return embedded;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public String getUser() {
+        return user;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public String getDriverClass() {
+        return driverClass;
+    }
+
+    /**
+     * Gets the script used to seed an empty database, or an empty string if none.
+     *
+     * @return {@code classpath:} or file location of the seed script
+     * @author Mert Bölükbaşı
+     */
+    public String getSeedScript() {
+        return seedScript;
+    }
+
+    /**
+     * Checks whether pending schema migrations are applied at startup.
+     *
+     * @return true unless {@code db.migrate} is set to false
+     * @author Mert Bölükbaşı
+     */
+    public boolean isMigrate() {
+        return migrate;
+    }
+
+    public int getPoolMinIdle() {
+        return poolMinIdle;
+    }
+
+    public int getPoolMaxSize() {
+        return poolMaxSize;
+    }
+
+    public long getPoolBorrowTimeoutMillis() {
+        return poolBorrowTimeoutMillis;
+    }
+
+    public long getPoolIdleTimeoutMillis() {
+        return poolIdleTimeoutMillis;
+    }
+
+    public long getPoolLeakThresholdMillis() {
+        return poolLeakThresholdMillis;
+    }
+
+    public int getPoolValidationTimeoutSeconds() {
+        return poolValidationTimeoutSeconds;
+    }
+}
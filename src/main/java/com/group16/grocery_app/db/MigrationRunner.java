@@ -0,0 +1,251 @@
+package com.group16.grocery_app.db;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Applies versioned schema migrations at startup.
+ * <p>
+ * Migrations are SQL scripts on the classpath under {@code /db/migration}, named
+ * {@code V<version>__<description>.sql} and listed in {@code /db/migration/migrations.txt}.
+ * Each applied version is recorded in the {@code schema_version} table together with the
+ * SHA-256 checksum of its script; a script that was edited after being applied stops the
+ * startup instead of silently leaving databases out of sync.
+ * <p>
+ * {@code Group16.sql} always creates the latest schema, so migrations must also work on a
+ * fresh database. {@code ALTER TABLE ... ADD COLUMN} and {@code CREATE INDEX} statements whose
+ * column or index already exists are therefore skipped.
+ *
+ * @author Mert Bölükbaşı
+ */
+public class MigrationRunner {
+
+    private static final String LOCATION = "/db/migration/";
+    private static final String INDEX = LOCATION + "migrations.txt";
+
+    private static final Pattern FILE_NAME = Pattern.compile("V(\\d+)__(\\w+)\\.sql");
+    private static final Pattern ADD_COLUMN = Pattern.compile(
+            "ALTER\\s+TABLE\\s+`?(\\w+)`?\\s+ADD\\s+(?:COLUMN\\s+)?`?(\\w+)`?.*",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private static final Pattern CREATE_INDEX = Pattern.compile(
+            "CREATE\\s+(?:UNIQUE\\s+)?INDEX\\s+`?(\\w+)`?\\s+ON\\s+`?(\\w+)`?.*",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+
+    private static final String CREATE_VERSION_TABLE = "CREATE TABLE IF NOT EXISTS schema_version (" +
+            "version INT PRIMARY KEY, " +
+            "description VARCHAR(200) NOT NULL, " +
+            "checksum CHAR(64) NOT NULL, " +
+            "installed_on DATETIME DEFAULT CURRENT_TIMESTAMP, " +
+            "execution_ms BIGINT NOT NULL)";
+
+    /**
+     * A migration script found on the classpath.
+     */
+    private record Migration(int version, String description, String resource, String sql, String checksum) {
+    }
+
+    private final Connection connection;
+
+    /**
+     * Creates a runner that migrates the database behind the given connection.
+     *
+     * @param connection connection to migrate with
+     * @author Mert Bölükbaşı
+     */
+    public MigrationRunner(Connection connection) {
+        this.connection = connection;
+    }
+
+    /**
+     * Applies every migration that has not been applied yet, in version order.
+     *
+     * @return number of migrations applied
+     * @throws SQLException if a migration fails or an applied script has been changed
+     * @author Mert Bölükbaşı
+     */
+    public int migrate() throws SQLException {
+        List<Migration> migrations;
+        try {
+            migrations = loadMigrations();
+        } catch (IOException e) {
+            throw new SQLException("Could not read schema migrations", e);
+        }
+
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute(CREATE_VERSION_TABLE);
+        }
+        Map<Integer, String> applied = loadAppliedChecksums();
+
+        int count = 0;
+        for (Migration migration : migrations) {
+            String checksum = applied.get(migration.version());
+            if (checksum != null) {
+                if (!checksum.equalsIgnoreCase(migration.checksum())) {
+                    throw new SQLException("Schema migration " + migration.resource()
+                            + " was changed after it was applied (checksum mismatch)");
+                }
+                continue;
+            }
+            apply(migration);
+            count++;
+        }
+        return count;
+    }
+
+    private void apply(Migration migration) throws SQLException {
+        long start = System.currentTimeMillis();
+        List<String> pending = new ArrayList<>();
+        for (String sql : SqlScript.parse(migration.sql()).getStatements()) {
+            if (!alreadyPresent(sql)) {
+                pending.add(sql);
+            }
+        }
+
+        try (Statement stmt = connection.createStatement()) {
+            for (String sql : pending) {
+                try {
+                    stmt.execute(sql);
+                } catch (SQLException e) {
+                    throw new SQLException("Schema migration " + migration.resource() + " failed: "
+                            + e.getMessage(), e);
+                }
+            }
+        }
+
+        String insert = "INSERT INTO schema_version (version, description, checksum, execution_ms) VALUES (?, ?, ?, ?)";
+        try (PreparedStatement stmt = connection.prepareStatement(insert)) {
+            stmt.setInt(1, migration.version());
+            stmt.setString(2, migration.description());
+            stmt.setString(3, migration.checksum());
+            stmt.setLong(4, System.currentTimeMillis() - start);
+            stmt.executeUpdate();
+        }
+        System.out.println("Applied schema migration " + migration.resource());
+    }
+
+    private Map<Integer, String> loadAppliedChecksums() throws SQLException {
+        Map<Integer, String> applied = new HashMap<>();
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT version, checksum FROM schema_version")) {
+            while (rs.next()) {
+                applied.put(rs.getInt("version"), rs.getString("checksum"));
+            }
+        }
+        return applied;
+    }
+
+    private static List<Migration> loadMigrations() throws IOException {
+        List<Migration> migrations = new ArrayList<>();
+        for (String line : readResource(INDEX).split("\\R")) {
+            String name = line.trim();
+            if (name.isEmpty() || name.startsWith("#")) {
+                continue;
+            }
+            Matcher matcher = FILE_NAME.matcher(name);
+            if (!matcher.matches()) {
+                throw new IOException("Invalid migration name: " + name);
+            }
+            int version = Integer.parseInt(matcher.group(1));
+            if (!migrations.isEmpty() && migrations.get(migrations.size() - 1).version() >= version) {
+                throw new IOException("Migrations must be listed in increasing version order: " + name);
+            }
+            String sql = readResource(LOCATION + name);
+            migrations.add(new Migration(version, matcher.group(2).replace('_', ' '), name, sql, checksum(sql)));
+        }
+        return migrations;
+    }
+
+    private static String readResource(String resource) throws IOException {
+        try (InputStream in = MigrationRunner.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IOException("Resource not found on classpath: " + resource);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Checksums the script with normalized line endings, so a checkout with CRLF line
+     * endings does not look like an edited migration.
+     */
+    private static String checksum(String sql) {
+        try {
+            byte[] normalized = sql.replace("\r\n", "\n").getBytes(StandardCharsets.UTF_8);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(normalized));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Checks whether a statement adds a column or index that is already there.
+     */
+    private boolean alreadyPresent(String sql) throws SQLException {
+        Matcher column = ADD_COLUMN.matcher(sql);
+        if (column.matches()) {
+            String table = findTable(column.group(1));
+            return table != null && hasColumn(table, column.group(2));
+        }
+        Matcher index = CREATE_INDEX.matcher(sql);
+        if (index.matches()) {
+            String table = findTable(index.group(2));
+            return table != null && hasIndex(table, index.group(1));
+        }
+        return false;
+    }
+
+    /**
+     * Finds the table name as stored by the database, which may differ in case from the script.
+     */
+    private String findTable(String name) throws SQLException {
+        DatabaseMetaData meta = connection.getMetaData();
+        try (ResultSet rs = meta.getTables(connection.getCatalog(), null, "%", new String[]{"TABLE"})) {
+            while (rs.next()) {
+                String table = rs.getString("TABLE_NAME");
+                if (table.equalsIgnoreCase(name)) {
+                    return table;
+                }
+            }
+        }
+        return null;
+    }
+
+    private boolean hasColumn(String table, String column) throws SQLException {
+        try (ResultSet rs = connection.getMetaData().getColumns(connection.getCatalog(), null, table, "%")) {
+            while (rs.next()) {
+                if (rs.getString("COLUMN_NAME").equalsIgnoreCase(column)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean hasIndex(String table, String indexName) throws SQLException {
+        try (ResultSet rs = connection.getMetaData().getIndexInfo(connection.getCatalog(), null, table, false, true)) {
+            while (rs.next()) {
+                String name = rs.getString("INDEX_NAME");
+                if (name != null && name.equalsIgnoreCase(indexName)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
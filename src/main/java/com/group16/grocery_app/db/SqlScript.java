@@ -0,0 +1,146 @@
+package com.group16.grocery_app.db;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Splits and runs plain SQL scripts such as {@code Group16.sql}.
+ * Statements are separated by semicolons outside of quoted strings, and {@code --} comments are dropped.
+ *
+ * @author Mert Bölükbaşı
+ */
+public class SqlScript {
+
+    private final List<String> statements;
+
+    private SqlScript(List<String> statements) {
+        this.statements = statements;
+    }
+
+    /**
+     * Parses script text into statements.
+     *
+     * @param sql script contents
+     * @return parsed script
+     * @author Mert Bölükbaşı
+     */
+    public static SqlScript parse(String sql) {
+        List<String> statements = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        char quote = 0;
+
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+
+            if (quote != 0) {
+                current.append(c);
+                if (c == quote) {
+                    if (i + 1 < sql.length() && sql.charAt(i + 1) == quote) {
+                        current.append(sql.charAt(++i));
+                    } else {
+                        quote = 0;
+                    }
+                } else if (c == '\\' && i + 1 < sql.length()) {
+                    current.append(sql.charAt(++i));
+                }
+            } else if (c == '\'' || c == '"' || c == '`') {
+                quote = c;
+                current.append(c);
+            } else if (c == '-' && i + 1 < sql.length() && sql.charAt(i + 1) == '-') {
+                while (i < sql.length() && sql.charAt(i) != '\n') {
+                    i++;
+                }
+                current.append('\n');
+            } else if (c == ';') {
+                addStatement(statements, current);
+            } else {
+                current.append(c);
+            }
+        }
+        addStatement(statements, current);
+        return new SqlScript(statements);
+    }
+
+    /**
+     * Loads a script either from the classpath ({@code classpath:/name.sql}) or from a file path.
+     *
+     * @param location classpath or file location
+     * @return parsed script
+     * @throws IOException if the script cannot be found or read
+     * @author Mert Bölükbaşı
+     */
+    public static SqlScript load(String location) throws IOException {
+        if (location.startsWith("classpath:")) {
+            String resource = location.substring("classpath:".length());
+            try (InputStream in = SqlScript.class.getResourceAsStream(resource)) {
+                if (in == null) {
+                    throw new IOException("SQL script not found on classpath: " + resource);
+                }
+                return parse(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+        return parse(Files.readString(Paths.get(location), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Gets the parsed statements in script order.
+     *
+     * @return statements without trailing semicolons
+     * @author Mert Bölükbaşı
+     */
+    public List<String> getStatements() {
+        return statements;
+    }
+
+    /**
+     * Runs every statement on the given connection.
+     * {@code CREATE DATABASE} and {@code USE} statements are skipped when {@code skipDatabaseSelection}
+     * is set, since the target schema is already chosen by the connection URL.
+     *
+     * @param connection connection to run the script on
+     * @param skipDatabaseSelection whether to skip database creation/selection statements
+     * @throws SQLException if a statement fails
+     * @author Mert Bölükbaşı
+     */
+    public void execute(Connection connection, boolean skipDatabaseSelection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            for (String sql : statements) {
+                if (skipDatabaseSelection && selectsDatabase(sql)) {
+                    continue;
+                }
+                try {
+                    stmt.execute(sql);
+                } catch (SQLException e) {
+                    throw new SQLException("Failed to run statement: " + firstLine(sql) + " (" + e.getMessage() + ")", e);
+                }
+            }
+        }
+    }
+
+    private static void addStatement(List<String> statements, StringBuilder current) {
+        String sql = current.toString().trim();
+        if (!sql.isEmpty()) {
+            statements.add(sql);
+        }
+        current.setLength(0);
+    }
+
+    private static boolean selectsDatabase(String sql) {
+        String upper = sql.toUpperCase(Locale.ROOT);
+        return upper.startsWith("CREATE DATABASE") || upper.startsWith("USE ");
+    }
+
+    private static String firstLine(String sql) {
+        int newline = sql.indexOf('\n');
+        return newline < 0 ? sql : sql.substring(0, newline) + " ...";
+    }
+}
@@ -0,0 +1,81 @@
+package com.group16.grocery_app.db.repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Hands out catalog versions for the product change feed.
+ * <p>
+ * Every transaction that writes a product takes a version as its last step before committing,
+ * after its product writes have succeeded, and stamps the rows it wrote with it
+ * ({@link #stamp(Connection, int...)}). The counter row stays locked until that transaction
+ * ends, so versions are committed in increasing order and a reader that has seen version
+ * {@code n} committed has seen every change up to {@code n}. Because it is taken last, the
+ * counter is only held for the few statements before the commit, and every writer locks
+ * product rows before the counter, never the other way round.
+ *
+ * @author Ege Usug
+ */
+class CatalogVersion {
+
+    private CatalogVersion() {
+    }
+
+    /**
+     * Allocates the next catalog version and stamps the given products with it. Call it as the
+     * last step of the transaction, right before committing.
+     *
+     * @param connection connection of the transaction that wrote the products
+     * @param productIds IDs of the products written
+     * @return the new version
+     * @throws SQLException if a database access error occurs
+     * @author Ege Usug
+     */
+    static long stamp(Connection connection, int... productIds) throws SQLException {
+        long version = next(connection);
+        try (PreparedStatement stmt = connection.prepareStatement(
+                "UPDATE ProductInfo SET row_version = ? WHERE productID = ?")) {
+            for (int productId : productIds) {
+                stmt.setLong(1, version);
+                stmt.setInt(2, productId);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+        return version;
+    }
+
+    /**
+     * Allocates the next catalog version. Must be called inside a transaction, as its last
+     * step before committing.
+     *
+     * @param connection connection of the transaction writing the products
+     * @return the new version
+     * @throws SQLException if a database access error occurs
+     * @author Ege Usug
+     */
+    static long next(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.executeUpdate("UPDATE CatalogVersion SET version = version + 1 WHERE id = 1");
+        }
+        return current(connection);
+    }
+
+    /**
+     * Reads the latest committed catalog version (or the caller's own, inside its transaction).
+     *
+     * @param connection connection to use
+     * @return the version, 0 if nothing has been versioned yet
+     * @throws SQLException if a database access error occurs
+     * @author Ege Usug
+     */
+    static long current(Connection connection) throws SQLException {
+        try (PreparedStatement stmt = connection.prepareStatement("SELECT version FROM CatalogVersion WHERE id = 1");
+             ResultSet rs = stmt.executeQuery()) {
+            return rs.next() ? rs.getLong("version") : 0;
+        }
+    }
+}
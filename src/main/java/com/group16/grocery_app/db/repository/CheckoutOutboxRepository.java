@@ -0,0 +1,254 @@
+package com.group16.grocery_app.db.repository;
+
+import com.group16.grocery_app.db.Database;
+import com.group16.grocery_app.model.CheckoutJob;
+import com.group16.grocery_app.model.CheckoutStage;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Repository for the checkout outbox: follow-up jobs written together with an order.
+ * A job is claimed for a lease period before it runs, and its effect is committed in the
+ * same transaction that deletes it, so every job takes effect exactly once even if the
+ * application stops halfway. Jobs that retrying cannot fix are parked with {@code failed_at}
+ * and their error, and are no longer picked up.
+ * @author Oğuzhan Aydın
+ */
+public class CheckoutOutboxRepository {
+
+    private final Database database;
+
+    /**
+     * Initializes the repository with the shared connection pool.
+     * @author Oğuzhan Aydın
+     */
+    public CheckoutOutboxRepository() {
+        this.database = Database.getInstance();
+    }
+
+    /**
+     * Adds a job to the outbox on the given connection, e.g. inside the checkout transaction.
+     * @param connection The connection to use.
+     * @param orderId The ID of the order.
+     * @param customerId The ID of the customer who placed the order.
+     * @param stage The work to do.
+     * @param argument Stage specific data; may be null.
+     * @throws SQLException If a database error occurs.
+     * @author Oğuzhan Aydın
+     */
+    static void enqueue(Connection connection, int orderId, int customerId, CheckoutStage stage, String argument)
+            throws SQLException {
+        String query = "INSERT INTO CheckoutOutbox (orderID, customerID, stage, argument, next_attempt_at) " +
+                "VALUES (?, ?, ?, ?, NOW())";
+        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+            stmt.setInt(1, orderId);
+            stmt.setInt(2, customerId);
+            stmt.setString(3, stage.name());
+            stmt.setString(4, argument);
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Retrieves jobs that are due, not parked and not claimed by a running worker, oldest first.
+     * @param limit The maximum number of jobs to return.
+     * @return The due jobs.
+     * @throws SQLException If a database error occurs.
+     * @author Oğuzhan Aydın
+     */
+    public List<CheckoutJob> findDue(int limit) throws SQLException {
+        String query = "SELECT jobID, orderID, customerID, stage, argument, attempts FROM CheckoutOutbox " +
+                "WHERE failed_at IS NULL AND next_attempt_at <= NOW() AND (locked_until IS NULL OR locked_until < NOW()) " +
+                "ORDER BY jobID LIMIT ?";
+        List<CheckoutJob> jobs = new ArrayList<>();
+        try (Connection connection = database.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
+            stmt.setInt(1, limit);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    jobs.add(new CheckoutJob(
+                            rs.getInt("jobID"),
+                            rs.getInt("orderID"),
+                            rs.getInt("customerID"),
+                            CheckoutStage.valueOf(rs.getString("stage")),
+                            rs.getString("argument"),
+                            rs.getInt("attempts")));
+                }
+            }
+        }
+        return jobs;
+    }
+
+    /**
+     * Claims a job for a worker. A claim expires after the lease, so a job whose worker died
+     * is picked up again.
+     * @param jobId The ID of the job.
+     * @param leaseSeconds How long the claim lasts.
+     * @return True if this caller now owns the job, false if another worker has it or it is done or parked.
+     * @throws SQLException If a database error occurs.
+     * @author Oğuzhan Aydın
+     */
+    public boolean claim(int jobId, int leaseSeconds) throws SQLException {
+        String query = "UPDATE CheckoutOutbox SET locked_until = TIMESTAMPADD(SECOND, ?, NOW()) " +
+                "WHERE jobID = ? AND failed_at IS NULL AND (locked_until IS NULL OR locked_until < NOW())";
+        try (Connection connection = database.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
+            stmt.setInt(1, leaseSeconds);
+            stmt.setInt(2, jobId);
+            return stmt.executeUpdate() > 0;
+        }
+    }
+
+    /**
+     * Stores the rendered invoice of a job's order and removes the job.
+     * @param job The INVOICE job.
+     * @param invoiceText The invoice text.
+     * @throws SQLException If a database error occurs.
+     * @author Oğuzhan Aydın
+     */
+    public void completeInvoice(CheckoutJob job, String invoiceText) throws SQLException {
+        complete(job, connection -> {
+            try (PreparedStatement stmt = connection.prepareStatement(
+                    "UPDATE OrderInfo SET invoice_data = ? WHERE orderID = ?")) {
+                stmt.setString(1, invoiceText);
+                stmt.setInt(2, job.getOrderId());
+                stmt.executeUpdate();
+            }
+        });
+    }
+
+    /**
+     * Marks the job's coupon (its argument is the coupon code) as used by the customer and
+     * removes the job. Checkouts now use the coupon in their own transaction; this only
+     * finishes COUPON jobs queued before that. If the coupon is no longer unused, retrying
+     * cannot help, so the job is parked with the error instead: its order got a discount it
+     * should not have, which the owner has to settle.
+     * @param job The COUPON job.
+     * @return True if the coupon was marked used, false if the job was parked.
+     * @throws SQLException If a database error occurs.
+     * @author Oğuzhan Aydın
+     */
+    public boolean completeCoupon(CheckoutJob job) throws SQLException {
+        try (Connection connection = database.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                boolean used = UserCouponRepository.useCouponByCode(connection, job.getCustomerId(), job.getArgument());
+                if (used) {
+                    try (PreparedStatement stmt = connection.prepareStatement(
+                            "DELETE FROM CheckoutOutbox WHERE jobID = ?")) {
+                        stmt.setInt(1, job.getId());
+                        if (stmt.executeUpdate() == 0) {
+                            // Finished by another worker in the meantime
+                            connection.rollback();
+                            return true;
+                        }
+                    }
+                } else {
+                    park(connection, job.getId(), "Coupon " + job.getArgument() + " was already used; order "
+                            + job.getOrderId() + " was placed with its discount.");
+                }
+                connection.commit();
+                return used;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Adds loyalty points to the job's customer and removes the job.
+     * @param job The LOYALTY job.
+     * @param points The points to add.
+     * @throws SQLException If a database error occurs.
+     * @author Oğuzhan Aydın
+     */
+    public void completeLoyalty(CheckoutJob job, int points) throws SQLException {
+        complete(job, connection -> {
+            try (PreparedStatement stmt = connection.prepareStatement(
+                    "UPDATE UserInfo SET loyalty_points = loyalty_points + ? WHERE userID = ?")) {
+                stmt.setInt(1, points);
+                stmt.setInt(2, job.getCustomerId());
+                stmt.executeUpdate();
+            }
+        });
+    }
+
+    /**
+     * Records a failed attempt, releases the claim and schedules the next attempt.
+     * @param jobId The ID of the job.
+     * @param error A description of the failure.
+     * @param retryDelaySeconds Seconds until the next attempt.
+     * @throws SQLException If a database error occurs.
+     * @author Oğuzhan Aydın
+     */
+    public void fail(int jobId, String error, int retryDelaySeconds) throws SQLException {
+        String query = "UPDATE CheckoutOutbox SET attempts = attempts + 1, locked_until = NULL, last_error = ?, " +
+                "next_attempt_at = TIMESTAMPADD(SECOND, ?, NOW()) WHERE jobID = ?";
+        try (Connection connection = database.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
+            stmt.setString(1, error != null && error.length() > 255 ? error.substring(0, 255) : error);
+            stmt.setInt(2, retryDelaySeconds);
+            stmt.setInt(3, jobId);
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Parks a job that retrying cannot fix: it keeps its error and is no longer picked up.
+     * @param connection The connection to use.
+     * @param jobId The ID of the job.
+     * @param error A description of the failure.
+     * @throws SQLException If a database error occurs.
+     * @author Oğuzhan Aydın
+     */
+    private static void park(Connection connection, int jobId, String error) throws SQLException {
+        String query = "UPDATE CheckoutOutbox SET attempts = attempts + 1, locked_until = NULL, last_error = ?, " +
+                "failed_at = NOW() WHERE jobID = ?";
+        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+            stmt.setString(1, error.length() > 255 ? error.substring(0, 255) : error);
+            stmt.setInt(2, jobId);
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Runs a job's database work and deletes the job in one transaction.
+     * Nothing is written if the job has already been deleted by another worker.
+     * @param job The job.
+     * @param work The job's database work.
+     * @throws SQLException If a database error occurs.
+     * @author Oğuzhan Aydın
+     */
+    private void complete(CheckoutJob job, JobWork work) throws SQLException {
+        try (Connection connection = database.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                int deleted;
+                try (PreparedStatement stmt = connection.prepareStatement(
+                        "DELETE FROM CheckoutOutbox WHERE jobID = ?")) {
+                    stmt.setInt(1, job.getId());
+                    deleted = stmt.executeUpdate();
+                }
+                if (deleted > 0) {
+                    work.run(connection);
+                }
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Database work of a job, run inside the transaction that completes it.
+     * @author Oğuzhan Aydın
+     */
+    @FunctionalInterface
+    private interface JobWork {
+        void run(Connection connection) throws SQLException;
+    }
+}
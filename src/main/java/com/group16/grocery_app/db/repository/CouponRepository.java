@@ -17,7 +17,7 @@ import java.util.List;
  * @author Yiğit Emre Ünlüçerçi
  */
 public class CouponRepository {
-    private final Connection connection;
+    private final Database database;
 
     /**
      * Creates a new CouponRepository instance and initializes the database connection.
@@ -25,7 +25,7 @@ public class CouponRepository {
      * @author Yiğit Emre Ünlüçerçi
      */
     public CouponRepository() {
-        this.connection = Database.getInstance().getConnection();
+        this.database = Database.getInstance();
     }
 
     /**
@@ -39,7 +39,8 @@ public class CouponRepository {
         List<Coupon> coupons = new ArrayList<>();
         String query = "SELECT * FROM Coupons ORDER BY code";
 
-        try (Statement stmt = connection.createStatement();
+        try (Connection connection = database.getConnection();
+             Statement stmt = connection.createStatement();
              ResultSet rs = stmt.executeQuery(query)) {
 
             while (rs.next()) {
@@ -72,7 +73,8 @@ public class CouponRepository {
      */
     public boolean addCoupon(String code, double discountAmount, LocalDate expiryDate) throws SQLException {
         String query = "INSERT INTO Coupons (code, discount_amount, expired_date, is_active) VALUES (?, ?, ?, TRUE)";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = database.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setString(1, code);
             stmt.setDouble(2, discountAmount);
             stmt.setDate(3, java.sql.Date.valueOf(expiryDate));
@@ -95,7 +97,8 @@ public class CouponRepository {
      */
     public boolean updateCoupon(int couponId, String code, double discountAmount, LocalDate expiryDate, boolean isActive) throws SQLException {
         String query = "UPDATE Coupons SET code = ?, discount_amount = ?, expired_date = ?, is_active = ? WHERE couponID = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = database.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setString(1, code);
             stmt.setDouble(2, discountAmount);
             stmt.setDate(3, java.sql.Date.valueOf(expiryDate));
@@ -118,7 +121,8 @@ public class CouponRepository {
         List<Coupon> coupons = new ArrayList<>();
         String query = "SELECT * FROM Coupons WHERE is_active = TRUE AND expired_date >= CURDATE() ORDER BY code";
 
-        try (Statement stmt = connection.createStatement();
+        try (Connection connection = database.getConnection();
+             Statement stmt = connection.createStatement();
              ResultSet rs = stmt.executeQuery(query)) {
 
             while (rs.next()) {
@@ -148,7 +152,8 @@ public class CouponRepository {
      */
     public boolean deleteCoupon(int couponId) throws SQLException {
         String query = "DELETE FROM Coupons WHERE couponID = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = database.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setInt(1, couponId);
             int rowsAffected = stmt.executeUpdate();
             return rowsAffected > 0;
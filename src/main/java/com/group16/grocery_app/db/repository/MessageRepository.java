@@ -18,7 +18,7 @@ import com.group16.grocery_app.model.ConversationUser;
  * @author Yiğit Emre Ünlüçerçi
  */
 public class MessageRepository {
-    private final Connection connection;
+    private final Database database;
 
     /**
      * Creates a new MessageRepository instance and initializes the database connection.
@@ -26,7 +26,7 @@ public class MessageRepository {
      * @author Yiğit Emre Ünlüçerçi
      */
     public MessageRepository() {
-        this.connection = Database.getInstance().getConnection();
+        this.database = Database.getInstance();
     }
 
     /**
@@ -41,7 +41,8 @@ public class MessageRepository {
      */
     public boolean sendMessage(int senderId, int receiverId, String content) throws SQLException {
         String query = "INSERT INTO Messages (senderID, receiverID, content, sent_time) VALUES (?, ?, ?, NOW())";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = database.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setInt(1, senderId);
             stmt.setInt(2, receiverId);
             stmt.setString(3, content);
@@ -63,7 +64,8 @@ public class MessageRepository {
         List<Message> messages = new ArrayList<>();
         String query = "SELECT * FROM Messages WHERE (senderID = ? AND receiverID = ?) OR (senderID = ? AND receiverID = ?) ORDER BY sent_time ASC";
 
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = database.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setInt(1, userId1);
             stmt.setInt(2, userId2);
             stmt.setInt(3, userId2);
@@ -103,7 +105,8 @@ public class MessageRepository {
                 "WHERE (m.senderID = ? OR m.receiverID = ?) AND u.userID != ? " +
                 "ORDER BY u.username";
 
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = database.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setInt(1, userId);
             stmt.setInt(2, userId);
             stmt.setInt(3, userId);
@@ -132,7 +135,8 @@ public class MessageRepository {
                 "INNER JOIN Messages m ON (u.userID = m.senderID OR u.userID = m.receiverID) " +
                 "WHERE (m.senderID = ? OR m.receiverID = ?) AND u.userID != ?";
 
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = database.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setInt(1, userId);
             stmt.setInt(2, userId);
             stmt.setInt(3, userId);
@@ -0,0 +1,146 @@
+package com.group16.grocery_app.db.repository;
+
+import com.group16.grocery_app.model.Order;
+import com.group16.grocery_app.model.OrderItem;
+import com.group16.grocery_app.model.Product;
+import com.group16.grocery_app.utils.ProductCache;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Fills loaded orders with their items.
+ * Orders are indexed by ID so each item row finds its parent in constant time. The products
+ * of a chunk are resolved together through the {@link ProductCache}: cached ones are not read
+ * again, the rest are loaded with one query, and all lines that reference a product share the
+ * same {@link Product} as the catalog and the cart.
+ * <p>
+ * Order IDs are sent in chunks of a few fixed sizes (the last chunk is padded by repeating
+ * an ID), so only a handful of distinct statements are ever prepared and the driver's
+ * statement cache can reuse them. Rows are read with a bounded fetch size.
+ * Product images are not part of the join; they are loaded separately when displayed.
+ *
+ * @author Oğuzhan Aydın
+ */
+class OrderItemHydrator {
+
+    private static final String ITEMS_QUERY_PREFIX = "SELECT orderID, productID, amount, unit_price " +
+            "FROM OrderItems WHERE orderID IN (";
+
+    /** Allowed IN-list sizes, ascending. */
+    private static final int[] CHUNK_SIZES = {1, 8, 32, 128, 512};
+
+    private static final String[] CHUNK_QUERIES = new String[CHUNK_SIZES.length];
+
+    static final int FETCH_SIZE = 500;
+
+    static {
+        for (int i = 0; i < CHUNK_SIZES.length; i++) {
+            StringBuilder query = new StringBuilder(ITEMS_QUERY_PREFIX);
+            for (int j = 0; j < CHUNK_SIZES[i]; j++) {
+                query.append(j == 0 ? "?" : ",?");
+            }
+            CHUNK_QUERIES[i] = query.append(')').toString();
+        }
+    }
+
+    private final Map<Integer, Product> productsById = new HashMap<>();
+
+    /**
+     * Loads the items of the given orders and appends them to each order's item list.
+     *
+     * @param connection connection to read with
+     * @param orders orders to fill
+     * @throws SQLException If a database error occurs
+     * @author Oğuzhan Aydın
+     */
+    void hydrate(Connection connection, List<Order> orders) throws SQLException {
+        if (orders.isEmpty()) return;
+
+        Map<Integer, Order> ordersById = new HashMap<>(Math.max(16, orders.size() * 4 / 3 + 1));
+        for (Order order : orders) {
+            ordersById.put(order.getId(), order);
+        }
+        int[] orderIds = new int[ordersById.size()];
+        int count = 0;
+        for (Integer orderId : ordersById.keySet()) {
+            orderIds[count++] = orderId;
+        }
+
+        int offset = 0;
+        while (offset < orderIds.length) {
+            int shape = shapeFor(orderIds.length - offset);
+            int size = CHUNK_SIZES[shape];
+            try (PreparedStatement itemsStmt = connection.prepareStatement(CHUNK_QUERIES[shape])) {
+                itemsStmt.setFetchSize(FETCH_SIZE);
+                int last = Math.min(offset + size, orderIds.length) - 1;
+                for (int i = 0; i < size; i++) {
+                    itemsStmt.setInt(i + 1, orderIds[Math.min(offset + i, last)]);
+                }
+                List<ItemRow> rows = new ArrayList<>();
+                try (ResultSet itemsRs = itemsStmt.executeQuery()) {
+                    while (itemsRs.next()) {
+                        rows.add(new ItemRow(itemsRs.getInt("orderID"), itemsRs.getInt("productID"),
+                                itemsRs.getDouble("amount"), itemsRs.getDouble("unit_price")));
+                    }
+                }
+                addRows(connection, ordersById, rows);
+            }
+            offset += size;
+        }
+    }
+
+    /**
+     * Gets the chunk size used for the given number of remaining IDs.
+     *
+     * @param remaining IDs still to send
+     * @return number of placeholders in the next statement
+     */
+    static int chunkSize(int remaining) {
+        return CHUNK_SIZES[shapeFor(remaining)];
+    }
+
+    /**
+     * Picks the smallest chunk size that holds the remaining IDs, or the largest one.
+     */
+    private static int shapeFor(int remaining) {
+        for (int i = 0; i < CHUNK_SIZES.length; i++) {
+            if (CHUNK_SIZES[i] >= remaining) {
+                return i;
+            }
+        }
+        return CHUNK_SIZES.length - 1;
+    }
+
+    private void addRows(Connection connection, Map<Integer, Order> ordersById, List<ItemRow> rows) throws SQLException {
+        Set<Integer> missing = new LinkedHashSet<>();
+        for (ItemRow row : rows) {
+            if (!productsById.containsKey(row.productId())) {
+                missing.add(row.productId());
+            }
+        }
+        if (!missing.isEmpty()) {
+            productsById.putAll(ProductCache.getInstance().getAll(missing,
+                    productIds -> ProductRepository.findByIds(connection, productIds)));
+        }
+
+        for (ItemRow row : rows) {
+            Order order = ordersById.get(row.orderId());
+            Product product = productsById.get(row.productId());
+            if (order != null && product != null) {
+                order.getItems().add(new OrderItem(product, row.amount(), row.unitPrice()));
+            }
+        }
+    }
+
+    private record ItemRow(int orderId, int productId, double amount, double unitPrice) {
+    }
+}
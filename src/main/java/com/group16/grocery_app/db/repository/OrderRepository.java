@@ -1,19 +1,23 @@
 package com.group16.grocery_app.db.repository;
 
 import com.group16.grocery_app.db.Database;
+import com.group16.grocery_app.model.CheckoutStage;
 import com.group16.grocery_app.model.Order;
+import com.group16.grocery_app.model.OrderCursor;
+import com.group16.grocery_app.model.OrderPage;
 import com.group16.grocery_app.model.OrderItem;
 import com.group16.grocery_app.model.Product;
-import com.group16.grocery_app.model.ProductType;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
-import javafx.scene.image.Image;
 
-import java.io.InputStream;
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
 
 /**
  * Handles all database operations related to orders.
@@ -21,14 +25,20 @@ import java.util.List;
  * @author Oğuzhan Aydın
  */
 public class OrderRepository {
-    private final Connection connection;
+    private static final String ORDER_COLUMNS =
+            "orderID, customerID, carrierID, order_date, delivery_date, status, total_cost, carrier_rating";
+
+    /** Number of streamed orders whose items are loaded together. */
+    private static final int STREAM_BATCH_SIZE = 512;
+
+    private final Database database;
 
     /**
-     * Initializes the repository with a database connection.
+     * Initializes the repository with the shared connection pool.
      * @author Oğuzhan Aydın
      */
     public OrderRepository() {
-        this.connection = Database.getInstance().getConnection();
+        this.database = Database.getInstance();
     }
 
     /**
@@ -44,7 +54,12 @@ public class OrderRepository {
 
     /**
      * Saves a new order to the database with transaction support.
-     * Updates product stock levels and inserts order items.
+     * Lines for the same product are merged and processed in productID order, so concurrent
+     * checkouts lock the same product rows in the same order and cannot deadlock each other.
+     * Stock decrements, item inserts and the rollup updates each go to the database as one batch.
+     * Stock held for other customers' carts is not sold; the customer's own holds are consumed.
+     * The rows every checkout shares, the sales rollups and the catalog version, are written
+     * last, so concurrent checkouts of different products only wait for each other's commit.
      * @param order The order to be saved.
      * @param customerId The ID of the customer.
      * @param deliveryDate Optional scheduled delivery date.
@@ -52,72 +67,170 @@ public class OrderRepository {
      * @author Oğuzhan Aydın
      */
     public void saveOrder(Order order, int customerId, java.time.LocalDateTime deliveryDate) throws SQLException {
-        try {
-            connection.setAutoCommit(false);
+        saveOrder(order, customerId, deliveryDate, false, null);
+    }
 
-            String orderSql;
-            PreparedStatement orderStmt;
-
-            if (deliveryDate != null) {
-                orderSql = "INSERT INTO OrderInfo (customerID, order_date, status, total_cost, delivery_date) " +
-                        "VALUES (?, NOW(), ?, ?, ?)";
-                orderStmt = connection.prepareStatement(orderSql, Statement.RETURN_GENERATED_KEYS);
-                orderStmt.setInt(1, customerId);
-                orderStmt.setString(2, "Pending");
-                orderStmt.setDouble(3, order.getTotal());
-                orderStmt.setTimestamp(4, java.sql.Timestamp.valueOf(deliveryDate));
-            } else {
-                orderSql = "INSERT INTO OrderInfo (customerID, order_date, status, total_cost) " +
-                        "VALUES (?, NOW(), ?, ?)";
-                orderStmt = connection.prepareStatement(orderSql, Statement.RETURN_GENERATED_KEYS);
-                orderStmt.setInt(1, customerId);
-                orderStmt.setString(2, "Pending");
-                orderStmt.setDouble(3, order.getTotal());
-            }
+    /**
+     * Saves a checkout: the order as in {@link #saveOrder(Order, int, LocalDateTime)} plus the
+     * follow-up jobs for its invoice and loyalty points. The jobs are written to the checkout
+     * outbox in the same transaction, so they exist exactly when the order does. A given coupon
+     * is marked used in that transaction too; if it has been used in the meantime, nothing is saved.
+     * @param order The order to be saved.
+     * @param customerId The ID of the customer.
+     * @param deliveryDate Optional scheduled delivery date.
+     * @param couponCode The code of the coupon applied to the order, or null.
+     * @throws SQLException If saving fails, stock is insufficient or the coupon is no longer available.
+     * @author Oğuzhan Aydın
+     */
+    public void saveCheckout(Order order, int customerId, LocalDateTime deliveryDate, String couponCode) throws SQLException {
+        saveOrder(order, customerId, deliveryDate, true, couponCode);
+    }
 
-            orderStmt.executeUpdate();
+    private void saveOrder(Order order, int customerId, LocalDateTime deliveryDate,
+                           boolean withFollowUps, String couponCode) throws SQLException {
+        List<OrderItem> lines = mergeLines(order.getItems());
 
-            ResultSet rs = orderStmt.getGeneratedKeys();
-            if (!rs.next()) {
-                throw new SQLException("Failed to retrieve order ID.");
-            }
+        try (Connection connection = database.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                decrementStock(connection, customerId, lines);
+                if (couponCode != null && !couponCode.trim().isEmpty()
+                        && !UserCouponRepository.useCouponByCode(connection, customerId, couponCode.trim())) {
+                    throw new SQLException("Coupon " + couponCode.trim() + " is no longer available.");
+                }
 
-            int orderId = rs.getInt(1);
-            order.setId(orderId);
+                String orderSql;
+                if (deliveryDate != null) {
+                    orderSql = "INSERT INTO OrderInfo (customerID, order_date, status, total_cost, delivery_date) " +
+                            "VALUES (?, NOW(), ?, ?, ?)";
+                } else {
+                    orderSql = "INSERT INTO OrderInfo (customerID, order_date, status, total_cost) " +
+                            "VALUES (?, NOW(), ?, ?)";
+                }
 
-            String itemSql = "INSERT INTO OrderItems (orderID, productID, amount, unit_price) " +
-                    "VALUES (?,?,?,?)";
+                int orderId;
+                try (PreparedStatement orderStmt = connection.prepareStatement(orderSql, Statement.RETURN_GENERATED_KEYS)) {
+                    orderStmt.setInt(1, customerId);
+                    orderStmt.setString(2, "Pending");
+                    orderStmt.setDouble(3, order.getTotal());
+                    if (deliveryDate != null) {
+                        orderStmt.setTimestamp(4, java.sql.Timestamp.valueOf(deliveryDate));
+                    }
+                    orderStmt.executeUpdate();
 
-            String stockSql = "UPDATE ProductInfo SET stock = stock - ? " +
-                    "WHERE productID = ? AND stock >= ?";
+                    try (ResultSet rs = orderStmt.getGeneratedKeys()) {
+                        if (!rs.next()) {
+                            throw new SQLException("Failed to retrieve order ID.");
+                        }
+                        orderId = rs.getInt(1);
+                    }
+                }
+                order.setId(orderId);
+
+                String itemSql = "INSERT INTO OrderItems (orderID, productID, amount, unit_price) " +
+                        "VALUES (?,?,?,?)";
+                try (PreparedStatement itemStmt = connection.prepareStatement(itemSql)) {
+                    for (OrderItem line : lines) {
+                        itemStmt.setInt(1, orderId);
+                        itemStmt.setInt(2, line.getProduct().getId());
+                        itemStmt.setDouble(3, line.getQuantity());
+                        itemStmt.setDouble(4, line.getUnitPrice());
+                        itemStmt.addBatch();
+                    }
+                    itemStmt.executeBatch();
+                }
+
+                ReservationRepository.releaseAll(connection, customerId);
+                if (withFollowUps) {
+                    CheckoutOutboxRepository.enqueue(connection, orderId, customerId, CheckoutStage.INVOICE, null);
+                    CheckoutOutboxRepository.enqueue(connection, orderId, customerId, CheckoutStage.LOYALTY, null);
+                }
+                // Shared rows last: every checkout updates the same sales rows and the global
+                // version counter, so they are only locked for the last statements and the commit
+                SalesRollup.recordItems(connection, lines);
+                SalesRollup.recordOrder(connection, orderId, "Pending", order.getTotal());
+                CatalogVersion.stamp(connection, lines.stream().mapToInt(line -> line.getProduct().getId()).toArray());
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+        }
+    }
 
-            try (PreparedStatement itemStmt = connection.prepareStatement(itemSql);
-                 PreparedStatement stockStmt = connection.prepareStatement(stockSql)) {
+    /**
+     * Merges cart lines for the same product and sorts them by productID.
+     * Lines keep the unit price the cart charged, so the stored line prices add up to the order total.
+     * @param items The cart lines.
+     * @return One line per product, in ascending productID order.
+     * @author Oğuzhan Aydın
+     */
+    private List<OrderItem> mergeLines(List<OrderItem> items) {
+        Map<Integer, OrderItem> merged = new TreeMap<>();
+        for (OrderItem item : items) {
+            Product product = item.getProduct();
+            merged.merge(product.getId(),
+                    new OrderItem(product, item.getQuantity(), item.getUnitPrice()),
+                    (a, b) -> new OrderItem(product, a.getQuantity() + b.getQuantity(), a.getUnitPrice()));
+        }
+        return new ArrayList<>(merged.values());
+    }
 
-                for (OrderItem item : order.getItems()) {
-                    itemStmt.setInt(1, orderId);
-                    itemStmt.setInt(2, item.getProduct().getId());
-                    itemStmt.setDouble(3, item.getQuantity());
-                    itemStmt.setDouble(4, item.getProduct().getEffectivePrice());
-                    itemStmt.executeUpdate();
+    /**
+     * Decrements the stock of every ordered product in one batch, in productID order.
+     * Each decrement only applies if enough stock is left after other customers' active holds,
+     * and every row count is checked.
+     * @param connection The connection of the checkout transaction.
+     * @param customerId The ID of the customer, whose own holds do not count against the order.
+     * @param lines The merged order lines, sorted by productID.
+     * @throws SQLException If a product has insufficient stock or the update fails.
+     * @author Oğuzhan Aydın
+     */
+    private void decrementStock(Connection connection, int customerId, List<OrderItem> lines) throws SQLException {
+        String stockSql = "UPDATE ProductInfo SET stock = stock - ? " +
+                "WHERE productID = ? AND stock - (" + ReservationRepository.HELD_BY_OTHERS + ") >= ?";
+        try (PreparedStatement stockStmt = connection.prepareStatement(stockSql)) {
+            for (OrderItem line : lines) {
+                stockStmt.setDouble(1, line.getQuantity());
+                stockStmt.setInt(2, line.getProduct().getId());
+                stockStmt.setInt(3, line.getProduct().getId());
+                stockStmt.setInt(4, customerId);
+                stockStmt.setDouble(5, line.getQuantity());
+                stockStmt.addBatch();
+            }
 
-                    stockStmt.setDouble(1, item.getQuantity());
-                    stockStmt.setInt(2, item.getProduct().getId());
-                    stockStmt.setDouble(3, item.getQuantity());
+            int[] affected = stockStmt.executeBatch();
+            for (int i = 0; i < affected.length; i++) {
+                if (affected[i] == 0 || affected[i] == Statement.EXECUTE_FAILED) {
+                    throw new SQLException("Insufficient stock for product: " + lines.get(i).getProduct().getName());
+                }
+            }
+        }
+    }
 
-                    int affected = stockStmt.executeUpdate();
-                    if (affected == 0) {
-                        throw new SQLException("Insufficient stock for product: " + item.getProduct().getName());
-                    }
+    /**
+     * Retrieves a single order with its items.
+     * @param orderId The ID of the order.
+     * @return The order, or null if it does not exist.
+     * @throws SQLException If a database error occurs.
+     * @author Oğuzhan Aydın
+     */
+    public Order getOrderById(int orderId) throws SQLException {
+        String orderQuery = "SELECT " + ORDER_COLUMNS + " FROM OrderInfo WHERE orderID = ?";
+
+        try (Connection connection = database.getConnection();
+             PreparedStatement orderStmt = connection.prepareStatement(orderQuery)) {
+            orderStmt.setInt(1, orderId);
+            Order order;
+            try (ResultSet orderRs = orderStmt.executeQuery()) {
+                if (!orderRs.next()) {
+                    return null;
                 }
+                order = mapOrder(orderRs);
             }
 
-            connection.commit();
-        } catch (SQLException e) {
-            connection.rollback();
-            throw e;
-        } finally {
-            connection.setAutoCommit(true);
+            loadOrderItems(connection, List.of(order));
+            return order;
         }
     }
 
@@ -131,33 +244,19 @@ public class OrderRepository {
     public ObservableList<Order> getOrdersByCustomerId(int customerId) throws SQLException {
         List<Order> orders = new ArrayList<>();
 
-        String orderQuery = "SELECT orderID, order_date, delivery_date, status, total_cost, carrier_rating " +
-                "FROM OrderInfo WHERE customerID = ? ORDER BY order_date DESC";
+        String orderQuery = "SELECT " + ORDER_COLUMNS + " FROM OrderInfo WHERE customerID = ? ORDER BY order_date DESC";
 
-        try (PreparedStatement orderStmt = connection.prepareStatement(orderQuery)) {
+        try (Connection connection = database.getConnection();
+             PreparedStatement orderStmt = connection.prepareStatement(orderQuery)) {
             orderStmt.setInt(1, customerId);
-            ResultSet orderRs = orderStmt.executeQuery();
-
-            while (orderRs.next()) {
-                int orderId = orderRs.getInt("orderID");
-                Timestamp orderDate = orderRs.getTimestamp("order_date");
-                Timestamp deliveryDate = orderRs.getTimestamp("delivery_date");
-                String status = orderRs.getString("status");
-                double total = orderRs.getDouble("total_cost");
-                Integer carrierRating = orderRs.getObject("carrier_rating") != null ? orderRs.getInt("carrier_rating") : null;
-
-                LocalDateTime createdAt = orderDate != null ? orderDate.toLocalDateTime() : null;
-                LocalDateTime delDate = deliveryDate != null ? deliveryDate.toLocalDateTime() : null;
-
-                Order order = new Order(orderId, new ArrayList<>(), total, createdAt, delDate, status);
-                order.setCustomerId(customerId);
-                order.setCarrierRating(carrierRating);
-                orders.add(order);
+            orderStmt.setFetchSize(OrderItemHydrator.FETCH_SIZE);
+            try (ResultSet orderRs = orderStmt.executeQuery()) {
+                while (orderRs.next()) {
+                    orders.add(mapOrder(orderRs));
+                }
             }
 
-            if (!orders.isEmpty()) {
-                loadOrderItems(orders);
-            }
+            loadOrderItems(connection, orders);
         }
 
         return FXCollections.observableArrayList(orders);
@@ -194,53 +293,116 @@ public class OrderRepository {
      */
     public ObservableList<Order> getOrdersByStatus(String status, boolean includeOnlyUnassigned) throws SQLException {
         List<Order> orders = new ArrayList<>();
+        forEachOrder(status, includeOnlyUnassigned, true, orders::add);
+        return FXCollections.observableArrayList(orders);
+    }
 
-        String orderQuery;
-        PreparedStatement orderStmt;
+    /**
+     * Streams orders to a consumer instead of collecting them into a list.
+     * Orders are read with a cursor and handed over in batches, so memory use stays bounded
+     * no matter how many orders match. The consumer must not keep a database connection busy.
+     * @param status The status to filter by, or null for all orders.
+     * @param includeOnlyUnassigned If true, only orders not yet assigned to a carrier are streamed.
+     * @param withItems If true, each order's items are loaded before it is passed on.
+     * @param consumer Receives each order, newest first.
+     * @throws SQLException If a database error occurs.
+     * @author Oğuzhan Aydın
+     */
+    public void forEachOrder(String status, boolean includeOnlyUnassigned, boolean withItems, Consumer<Order> consumer) throws SQLException {
+        boolean filterByStatus = status != null && !status.isEmpty();
 
-        if (status == null || status.isEmpty()) {
-            orderQuery = "SELECT orderID, customerID, carrierID, order_date, delivery_date, status, total_cost, carrier_rating " +
-                    "FROM OrderInfo ORDER BY order_date DESC";
-            orderStmt = connection.prepareStatement(orderQuery);
+        String orderQuery;
+        if (!filterByStatus) {
+            orderQuery = "SELECT " + ORDER_COLUMNS + " FROM OrderInfo ORDER BY order_date DESC";
+        } else if (includeOnlyUnassigned) {
+            orderQuery = "SELECT " + ORDER_COLUMNS + " FROM OrderInfo " +
+                    "WHERE status = ? AND (carrierID IS NULL OR carrierID = 0) ORDER BY order_date DESC";
         } else {
-            if (includeOnlyUnassigned) {
-                orderQuery = "SELECT orderID, customerID, carrierID, order_date, delivery_date, status, total_cost, carrier_rating " +
-                        "FROM OrderInfo WHERE status = ? AND (carrierID IS NULL OR carrierID = 0) ORDER BY order_date DESC";
-            } else {
-                orderQuery = "SELECT orderID, customerID, carrierID, order_date, delivery_date, status, total_cost, carrier_rating " +
-                        "FROM OrderInfo WHERE status = ? ORDER BY order_date DESC";
-            }
-            orderStmt = connection.prepareStatement(orderQuery);
-            orderStmt.setString(1, status);
+            orderQuery = "SELECT " + ORDER_COLUMNS + " FROM OrderInfo WHERE status = ? ORDER BY order_date DESC";
         }
 
-        try (ResultSet orderRs = orderStmt.executeQuery()) {
-            while (orderRs.next()) {
-                int orderId = orderRs.getInt("orderID");
-                int customerId = orderRs.getInt("customerID");
-                Integer carrierId = orderRs.getObject("carrierID") != null ? orderRs.getInt("carrierID") : null;
-                Timestamp orderDate = orderRs.getTimestamp("order_date");
-                Timestamp deliveryDate = orderRs.getTimestamp("delivery_date");
-                String orderStatus = orderRs.getString("status");
-                double total = orderRs.getDouble("total_cost");
-                Integer carrierRating = orderRs.getObject("carrier_rating") != null ? orderRs.getInt("carrier_rating") : null;
-
-                LocalDateTime createdAt = orderDate != null ? orderDate.toLocalDateTime() : null;
-                LocalDateTime delDate = deliveryDate != null ? deliveryDate.toLocalDateTime() : null;
-
-                Order order = new Order(orderId, new ArrayList<>(), total, createdAt, delDate, orderStatus);
-                order.setCustomerId(customerId);
-                order.setCarrierId(carrierId);
-                order.setCarrierRating(carrierRating);
-                orders.add(order);
+        try (Connection connection = database.getConnection();
+             PreparedStatement orderStmt = connection.prepareStatement(orderQuery)) {
+            if (filterByStatus) {
+                orderStmt.setString(1, status);
             }
+            orderStmt.setFetchSize(OrderItemHydrator.FETCH_SIZE);
+
+            OrderItemHydrator hydrator = new OrderItemHydrator();
+            List<Order> batch = new ArrayList<>(STREAM_BATCH_SIZE);
+            try (ResultSet orderRs = orderStmt.executeQuery()) {
+                while (orderRs.next()) {
+                    batch.add(mapOrder(orderRs));
+                    if (batch.size() == STREAM_BATCH_SIZE) {
+                        flush(connection, hydrator, batch, withItems, consumer);
+                    }
+                }
+            }
+            flush(connection, hydrator, batch, withItems, consumer);
+        }
+    }
 
-            if (!orders.isEmpty()) {
-                loadOrderItems(orders);
+    /**
+     * Counts the orders placed in a date range.
+     * @param from Start of the range (inclusive).
+     * @param to End of the range (exclusive).
+     * @return The number of orders.
+     * @throws SQLException If a database error occurs.
+     * @author Oğuzhan Aydın
+     */
+    public int countOrdersBetween(LocalDateTime from, LocalDateTime to) throws SQLException {
+        String query = "SELECT COUNT(*) FROM OrderInfo WHERE order_date >= ? AND order_date < ?";
+        try (Connection connection = database.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
+            stmt.setTimestamp(1, Timestamp.valueOf(from));
+            stmt.setTimestamp(2, Timestamp.valueOf(to));
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
             }
         }
+    }
 
-        return FXCollections.observableArrayList(orders);
+    /**
+     * Streams the orders placed in a date range, with their items, to a consumer.
+     * Orders are read in batches keyed by order ID, and the connection is returned to the pool
+     * before each batch is handed over, so the consumer may block (e.g. to wait for slower
+     * work downstream) without holding a connection.
+     * @param from Start of the range (inclusive).
+     * @param to End of the range (exclusive).
+     * @param consumer Receives each order, oldest ID first.
+     * @throws SQLException If a database error occurs.
+     * @author Oğuzhan Aydın
+     */
+    public void forEachOrderBetween(LocalDateTime from, LocalDateTime to, Consumer<Order> consumer) throws SQLException {
+        String orderQuery = "SELECT " + ORDER_COLUMNS + " FROM OrderInfo " +
+                "WHERE order_date >= ? AND order_date < ? AND orderID > ? ORDER BY orderID LIMIT ?";
+
+        OrderItemHydrator hydrator = new OrderItemHydrator();
+        List<Order> batch = new ArrayList<>(STREAM_BATCH_SIZE);
+        int lastId = 0;
+        do {
+            batch.clear();
+            try (Connection connection = database.getConnection();
+                 PreparedStatement orderStmt = connection.prepareStatement(orderQuery)) {
+                orderStmt.setTimestamp(1, Timestamp.valueOf(from));
+                orderStmt.setTimestamp(2, Timestamp.valueOf(to));
+                orderStmt.setInt(3, lastId);
+                orderStmt.setInt(4, STREAM_BATCH_SIZE);
+                try (ResultSet orderRs = orderStmt.executeQuery()) {
+                    while (orderRs.next()) {
+                        batch.add(mapOrder(orderRs));
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    hydrator.hydrate(connection, batch);
+                }
+            }
+
+            for (Order order : batch) {
+                lastId = order.getId();
+                consumer.accept(order);
+            }
+        } while (batch.size() == STREAM_BATCH_SIZE);
     }
 
     /**
@@ -253,116 +415,193 @@ public class OrderRepository {
      */
     public ObservableList<Order> getOrdersByCarrierId(int carrierId, String status) throws SQLException {
         List<Order> orders = new ArrayList<>();
-        String orderQuery = "SELECT orderID, customerID, carrierID, order_date, delivery_date, status, total_cost, carrier_rating " +
-                "FROM OrderInfo WHERE carrierID = ?" +
+        String orderQuery = "SELECT " + ORDER_COLUMNS + " FROM OrderInfo WHERE carrierID = ?" +
                 (status != null ? " AND status = ?" : "") +
                 " ORDER BY order_date DESC";
 
-        try (PreparedStatement orderStmt = connection.prepareStatement(orderQuery)) {
+        try (Connection connection = database.getConnection();
+             PreparedStatement orderStmt = connection.prepareStatement(orderQuery)) {
             orderStmt.setInt(1, carrierId);
             if (status != null) {
                 orderStmt.setString(2, status);
             }
-            ResultSet orderRs = orderStmt.executeQuery();
-
-            while (orderRs.next()) {
-                int orderId = orderRs.getInt("orderID");
-                int customerId = orderRs.getInt("customerID");
-                Integer orderCarrierId = orderRs.getObject("carrierID") != null ? orderRs.getInt("carrierID") : null;
-                Timestamp orderDate = orderRs.getTimestamp("order_date");
-                Timestamp deliveryDate = orderRs.getTimestamp("delivery_date");
-                String orderStatus = orderRs.getString("status");
-                double total = orderRs.getDouble("total_cost");
-                Integer carrierRating = orderRs.getObject("carrier_rating") != null ? orderRs.getInt("carrier_rating") : null;
-
-                LocalDateTime createdAt = orderDate != null ? orderDate.toLocalDateTime() : null;
-                LocalDateTime delDate = deliveryDate != null ? deliveryDate.toLocalDateTime() : null;
-
-                Order order = new Order(orderId, new ArrayList<>(), total, createdAt, delDate, orderStatus);
-                order.setCustomerId(customerId);
-                order.setCarrierId(orderCarrierId);
-                order.setCarrierRating(carrierRating);
-                orders.add(order);
+            orderStmt.setFetchSize(OrderItemHydrator.FETCH_SIZE);
+            try (ResultSet orderRs = orderStmt.executeQuery()) {
+                while (orderRs.next()) {
+                    orders.add(mapOrder(orderRs));
+                }
             }
 
-            if (!orders.isEmpty()) {
-                loadOrderItems(orders);
-            }
+            loadOrderItems(connection, orders);
         }
 
         return FXCollections.observableArrayList(orders);
     }
 
     /**
-     * Loads product details for a list of orders.
-     * Populates the order objects with their respective items.
-     * @param orders The list of orders to populate.
+     * Retrieves one page of a customer's orders, newest first.
+     * @param customerId The ID of the customer.
+     * @param after The cursor returned with the previous page, or null for the first page.
+     * @param pageSize The maximum number of orders to return.
+     * @return The page and the cursor for the next one.
      * @throws SQLException If a database error occurs.
      * @author Oğuzhan Aydın
      */
-    private void loadOrderItems(List<Order> orders) throws SQLException {
-        if (orders.isEmpty()) return;
+    public OrderPage getOrdersByCustomerIdPage(int customerId, OrderCursor after, int pageSize) throws SQLException {
+        return findOrderPage("customerID = ?", List.of(customerId), after, pageSize);
+    }
 
-        List<Integer> orderIds = new ArrayList<>();
-        for (Order order : orders) {
-            orderIds.add(order.getId());
+    /**
+     * Retrieves one page of orders with the given status, newest first.
+     * @param status The status to filter by, or null for all orders.
+     * @param includeOnlyUnassigned If true, returns only orders not yet assigned to a carrier.
+     * @param after The cursor returned with the previous page, or null for the first page.
+     * @param pageSize The maximum number of orders to return.
+     * @return The page and the cursor for the next one.
+     * @throws SQLException If a database error occurs.
+     * @author Oğuzhan Aydın
+     */
+    public OrderPage getOrdersByStatusPage(String status, boolean includeOnlyUnassigned, OrderCursor after, int pageSize) throws SQLException {
+        if (status == null || status.isEmpty()) {
+            return findOrderPage(null, List.of(), after, pageSize);
         }
+        String filter = includeOnlyUnassigned ? "status = ? AND (carrierID IS NULL OR carrierID = 0)" : "status = ?";
+        return findOrderPage(filter, List.of(status), after, pageSize);
+    }
 
-        String placeholders = "";
-        for (int i = 0; i < orderIds.size(); i++) {
-            if (i > 0) placeholders += ",";
-            placeholders += "?";
+    /**
+     * Retrieves one page of the orders assigned to a carrier, newest first.
+     * @param carrierId The ID of the carrier.
+     * @param status Optional status filter (e.g., "Delivered").
+     * @param after The cursor returned with the previous page, or null for the first page.
+     * @param pageSize The maximum number of orders to return.
+     * @return The page and the cursor for the next one.
+     * @throws SQLException If a database error occurs.
+     * @author Oğuzhan Aydın
+     */
+    public OrderPage getOrdersByCarrierIdPage(int carrierId, String status, OrderCursor after, int pageSize) throws SQLException {
+        if (status == null) {
+            return findOrderPage("carrierID = ?", List.of(carrierId), after, pageSize);
         }
+        return findOrderPage("carrierID = ? AND status = ?", List.of(carrierId, status), after, pageSize);
+    }
 
-        String itemsQuery = "SELECT oi.orderID, oi.productID, oi.amount, oi.unit_price, " +
-                "p.name, p.type, p.price, p.stock, p.threshold, p.image_data " +
-                "FROM OrderItems oi " +
-                "JOIN ProductInfo p ON oi.productID = p.productID " +
-                "WHERE oi.orderID IN (" + placeholders + ")";
+    /**
+     * Runs a keyset-paginated order query.
+     * Instead of an OFFSET, the page starts right after the cursor's (order_date, orderID),
+     * so every page costs the same no matter how deep the listing goes. One extra row is
+     * fetched to find out whether another page follows. Orders without an order_date (the
+     * column defaults to the insert time) sort last and end the listing.
+     * @param filter The WHERE condition without the cursor part, or null.
+     * @param params The parameters of the filter, in order.
+     * @param after The cursor to continue from, or null for the first page.
+     * @param pageSize The maximum number of orders to return.
+     * @return The page with its items loaded.
+     * @throws SQLException If a database error occurs.
+     * @author Oğuzhan Aydın
+     */
+    private OrderPage findOrderPage(String filter, List<Object> params, OrderCursor after, int pageSize) throws SQLException {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1");
+        }
+        boolean useCursor = after != null && after.getOrderDate() != null;
 
-        try (PreparedStatement itemsStmt = connection.prepareStatement(itemsQuery)) {
-            for (int i = 0; i < orderIds.size(); i++) {
-                itemsStmt.setInt(i + 1, orderIds.get(i));
+        StringBuilder query = new StringBuilder("SELECT ").append(ORDER_COLUMNS).append(" FROM OrderInfo");
+        if (filter != null || useCursor) {
+            query.append(" WHERE ");
+            if (filter != null) {
+                query.append(filter);
+            }
+            if (useCursor) {
+                query.append(filter != null ? " AND " : "")
+                        .append("(order_date < ? OR (order_date = ? AND orderID < ?))");
+            }
+        }
+        query.append(" ORDER BY order_date DESC, orderID DESC LIMIT ?");
+
+        List<Order> orders = new ArrayList<>(pageSize + 1);
+        try (Connection connection = database.getConnection();
+             PreparedStatement orderStmt = connection.prepareStatement(query.toString())) {
+            int index = 1;
+            for (Object param : params) {
+                orderStmt.setObject(index++, param);
+            }
+            if (useCursor) {
+                Timestamp cursorDate = Timestamp.valueOf(after.getOrderDate());
+                orderStmt.setTimestamp(index++, cursorDate);
+                orderStmt.setTimestamp(index++, cursorDate);
+                orderStmt.setInt(index++, after.getOrderId());
             }
+            orderStmt.setInt(index, pageSize + 1);
 
-            try (ResultSet itemsRs = itemsStmt.executeQuery()) {
-                while (itemsRs.next()) {
-                    int orderId = itemsRs.getInt("orderID");
-                    Order order = null;
-                    for (Order o : orders) {
-                        if (o.getId() == orderId) {
-                            order = o;
-                            break;
-                        }
-                    }
+            try (ResultSet orderRs = orderStmt.executeQuery()) {
+                while (orderRs.next()) {
+                    orders.add(mapOrder(orderRs));
+                }
+            }
 
-                    if (order != null) {
-                        int productId = itemsRs.getInt("productID");
-                        double quantity = itemsRs.getDouble("amount");
-                        double unitPrice = itemsRs.getDouble("unit_price");
-
-                        String productName = itemsRs.getString("name");
-                        ProductType productType = ProductType.valueOf(itemsRs.getString("type").toUpperCase());
-                        double productPrice = itemsRs.getDouble("price");
-                        double productStock = itemsRs.getDouble("stock");
-                        double productThreshold = itemsRs.getDouble("threshold");
-
-                        Blob imageBlob = itemsRs.getBlob("image_data");
-                        Image productImage = null;
-                        if (imageBlob != null) {
-                            InputStream inputStream = imageBlob.getBinaryStream();
-                            productImage = new Image(inputStream);
-                        }
+            boolean hasMore = orders.size() > pageSize;
+            if (hasMore) {
+                orders.remove(orders.size() - 1);
+            }
+            loadOrderItems(connection, orders);
 
-                        Product product = new Product(productId, productName, productType, productPrice,
-                                productStock, productThreshold, productImage);
+            Order last = orders.isEmpty() ? null : orders.get(orders.size() - 1);
+            OrderCursor next = hasMore && last.getCreatedAt() != null ? OrderCursor.after(last) : null;
+            return new OrderPage(orders, next);
+        }
+    }
 
-                        OrderItem orderItem = new OrderItem(product, quantity, unitPrice);
-                        order.getItems().add(orderItem);
-                    }
-                }
-            }
+    /**
+     * Builds an order (without items) from a row selected with {@link #ORDER_COLUMNS}.
+     * @param orderRs The result set positioned on an order row.
+     * @return The order.
+     * @throws SQLException If a column cannot be read.
+     * @author Oğuzhan Aydın
+     */
+    private Order mapOrder(ResultSet orderRs) throws SQLException {
+        int orderId = orderRs.getInt("orderID");
+        int customerId = orderRs.getInt("customerID");
+        Integer carrierId = orderRs.getObject("carrierID") != null ? orderRs.getInt("carrierID") : null;
+        Timestamp orderDate = orderRs.getTimestamp("order_date");
+        Timestamp deliveryDate = orderRs.getTimestamp("delivery_date");
+        String orderStatus = orderRs.getString("status");
+        double total = orderRs.getDouble("total_cost");
+        Integer carrierRating = orderRs.getObject("carrier_rating") != null ? orderRs.getInt("carrier_rating") : null;
+
+        LocalDateTime createdAt = orderDate != null ? orderDate.toLocalDateTime() : null;
+        LocalDateTime delDate = deliveryDate != null ? deliveryDate.toLocalDateTime() : null;
+
+        Order order = new Order(orderId, new ArrayList<>(), total, createdAt, delDate, orderStatus);
+        order.setCustomerId(customerId);
+        order.setCarrierId(carrierId);
+        order.setCarrierRating(carrierRating);
+        return order;
+    }
+
+    private void flush(Connection connection, OrderItemHydrator hydrator, List<Order> batch,
+                       boolean withItems, Consumer<Order> consumer) throws SQLException {
+        if (batch.isEmpty()) return;
+        if (withItems) {
+            hydrator.hydrate(connection, batch);
         }
+        for (Order order : batch) {
+            consumer.accept(order);
+        }
+        batch.clear();
+    }
+
+    /**
+     * Loads product details for a list of orders.
+     * Populates the order objects with their respective items.
+     * @param connection The connection the orders were read with.
+     * @param orders The list of orders to populate.
+     * @throws SQLException If a database error occurs.
+     * @author Oğuzhan Aydın
+     */
+    private void loadOrderItems(Connection connection, List<Order> orders) throws SQLException {
+        if (orders.isEmpty()) return;
+        new OrderItemHydrator().hydrate(connection, orders);
     }
 
     /**
@@ -374,13 +613,11 @@ public class OrderRepository {
      * @author Oğuzhan Aydın
      */
     public boolean selectOrder(int orderId, int carrierId) throws SQLException {
-        String query = "UPDATE OrderInfo SET carrierID = ?, status = 'Selected' WHERE orderID = ? AND status = 'Pending'";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        String query = "UPDATE OrderInfo SET carrierID = ?, status = 'Selected', invoice_version = invoice_version + 1 WHERE orderID = ? AND status = 'Pending'";
+        return updateStatus(orderId, "Selected", query, stmt -> {
             stmt.setInt(1, carrierId);
             stmt.setInt(2, orderId);
-            int rowsAffected = stmt.executeUpdate();
-            return rowsAffected > 0;
-        }
+        });
     }
 
     /**
@@ -392,13 +629,11 @@ public class OrderRepository {
      * @author Oğuzhan Aydın
      */
     public boolean unselectOrder(int orderId, int carrierId) throws SQLException {
-        String query = "UPDATE OrderInfo SET carrierID = NULL, status = 'Pending' WHERE orderID = ? AND carrierID = ? AND status = 'Selected'";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        String query = "UPDATE OrderInfo SET carrierID = NULL, status = 'Pending', invoice_version = invoice_version + 1 WHERE orderID = ? AND carrierID = ? AND status = 'Selected'";
+        return updateStatus(orderId, "Pending", query, stmt -> {
             stmt.setInt(1, orderId);
             stmt.setInt(2, carrierId);
-            int rowsAffected = stmt.executeUpdate();
-            return rowsAffected > 0;
-        }
+        });
     }
 
     /**
@@ -410,13 +645,11 @@ public class OrderRepository {
      * @author Oğuzhan Aydın
      */
     public boolean completeDelivery(int orderId, LocalDateTime deliveryDateTime) throws SQLException {
-        String query = "UPDATE OrderInfo SET status = 'Delivered', delivery_date = ? WHERE orderID = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        String query = "UPDATE OrderInfo SET status = 'Delivered', delivery_date = ?, invoice_version = invoice_version + 1 WHERE orderID = ?";
+        return updateStatus(orderId, "Delivered", query, stmt -> {
             stmt.setTimestamp(1, java.sql.Timestamp.valueOf(deliveryDateTime));
             stmt.setInt(2, orderId);
-            int rowsAffected = stmt.executeUpdate();
-            return rowsAffected > 0;
-        }
+        });
     }
 
     /**
@@ -432,7 +665,8 @@ public class OrderRepository {
             return false;
         }
         String query = "UPDATE OrderInfo SET carrier_rating = ? WHERE orderID = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = database.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setInt(1, rating);
             stmt.setInt(2, orderId);
             int rowsAffected = stmt.executeUpdate();
@@ -450,7 +684,8 @@ public class OrderRepository {
      */
     public boolean saveInvoice(int orderId, String invoiceText) throws SQLException {
         String query = "UPDATE OrderInfo SET invoice_data = ? WHERE orderID = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = database.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setString(1, invoiceText);
             stmt.setInt(2, orderId);
             int rowsAffected = stmt.executeUpdate();
@@ -467,7 +702,8 @@ public class OrderRepository {
      */
     public String getInvoice(int orderId) throws SQLException {
         String query = "SELECT invoice_data FROM OrderInfo WHERE orderID = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = database.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setInt(1, orderId);
             ResultSet rs = stmt.executeQuery();
             if (rs.next()) {
@@ -477,6 +713,68 @@ public class OrderRepository {
         return null;
     }
 
+    /**
+     * Retrieves the current invoice version of an order. The version changes whenever the
+     * order changes in a way its invoice shows.
+     * @param orderId The ID of the order.
+     * @return The invoice version, or -1 if the order does not exist.
+     * @throws SQLException If a database error occurs.
+     * @author Oğuzhan Aydın
+     */
+    public int getInvoiceVersion(int orderId) throws SQLException {
+        String query = "SELECT invoice_version FROM OrderInfo WHERE orderID = ?";
+        try (Connection connection = database.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
+            stmt.setInt(1, orderId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getInt("invoice_version") : -1;
+            }
+        }
+    }
+
+    /**
+     * Retrieves the stored compressed PDF invoice of an order, if it was rendered for the given version.
+     * @param orderId The ID of the order.
+     * @param version The invoice version the PDF must have been rendered for.
+     * @return The gzip-compressed PDF, or null if none is stored for that version.
+     * @throws SQLException If a database error occurs.
+     * @author Oğuzhan Aydın
+     */
+    public byte[] getInvoicePdf(int orderId, int version) throws SQLException {
+        String query = "SELECT invoice_pdf FROM OrderInfo WHERE orderID = ? AND invoice_pdf_version = ?";
+        try (Connection connection = database.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
+            stmt.setInt(1, orderId);
+            stmt.setInt(2, version);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getBytes("invoice_pdf") : null;
+            }
+        }
+    }
+
+    /**
+     * Stores a compressed PDF invoice rendered for the given version. Nothing is stored if the
+     * order has changed since, so an outdated PDF never replaces the current version.
+     * @param orderId The ID of the order.
+     * @param version The invoice version the PDF was rendered for.
+     * @param compressedPdf The gzip-compressed PDF.
+     * @return True if the PDF was stored.
+     * @throws SQLException If a database error occurs.
+     * @author Oğuzhan Aydın
+     */
+    public boolean saveInvoicePdf(int orderId, int version, byte[] compressedPdf) throws SQLException {
+        String query = "UPDATE OrderInfo SET invoice_pdf = ?, invoice_pdf_version = ? " +
+                "WHERE orderID = ? AND invoice_version = ?";
+        try (Connection connection = database.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
+            stmt.setBytes(1, compressedPdf);
+            stmt.setInt(2, version);
+            stmt.setInt(3, orderId);
+            stmt.setInt(4, version);
+            return stmt.executeUpdate() > 0;
+        }
+    }
+
     /**
      * Counts the total number of completed orders for a customer.
      * @param customerId The ID of the customer.
@@ -486,7 +784,8 @@ public class OrderRepository {
      */
     public int getCompletedOrdersCount(int customerId) throws SQLException {
         String query = "SELECT COUNT(*) FROM OrderInfo WHERE customerID = ? AND status = 'Delivered'";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = database.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setInt(1, customerId);
             ResultSet rs = stmt.executeQuery();
             if (rs.next()) {
@@ -505,7 +804,8 @@ public class OrderRepository {
      */
     public double getAverageCarrierRating(int carrierId) throws SQLException {
         String query = "SELECT AVG(carrier_rating) FROM OrderInfo WHERE carrierID = ? AND carrier_rating IS NOT NULL";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = database.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setInt(1, carrierId);
             ResultSet rs = stmt.executeQuery();
             if (rs.next()) {
@@ -520,6 +820,26 @@ public class OrderRepository {
         return -1.0;
     }
 
+    /**
+     * Calculates the average rating of every carrier that has been rated, in one query.
+     * @return Map from carrier ID to average rating; carriers without ratings are absent.
+     * @throws SQLException If a database error occurs.
+     * @author Oğuzhan Aydın
+     */
+    public Map<Integer, Double> getAverageCarrierRatings() throws SQLException {
+        String query = "SELECT carrierID, AVG(carrier_rating) AS avg_rating FROM OrderInfo " +
+                "WHERE carrierID IS NOT NULL AND carrier_rating IS NOT NULL GROUP BY carrierID";
+        Map<Integer, Double> ratings = new HashMap<>();
+        try (Connection connection = database.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                ratings.put(rs.getInt("carrierID"), rs.getDouble("avg_rating"));
+            }
+        }
+        return ratings;
+    }
+
     /**
      * Cancels a pending order for a customer.
      * @param orderId The ID of the order.
@@ -529,12 +849,68 @@ public class OrderRepository {
      * @author Oğuzhan Aydın
      */
     public boolean cancelOrder(int orderId, int customerId) throws SQLException {
-        String query = "UPDATE OrderInfo SET status = 'Cancelled' WHERE orderID = ? AND customerID = ? AND status = 'Pending'";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        String query = "UPDATE OrderInfo SET status = 'Cancelled', invoice_version = invoice_version + 1 WHERE orderID = ? AND customerID = ? AND status = 'Pending'";
+        return updateStatus(orderId, "Cancelled", query, stmt -> {
             stmt.setInt(1, orderId);
             stmt.setInt(2, customerId);
-            int rowsAffected = stmt.executeUpdate();
-            return rowsAffected > 0;
+        });
+    }
+
+    /**
+     * Runs a status update and moves the order between the rollup status counters in one
+     * transaction. The order row is locked first so the status it is moved from is the one
+     * the update replaced.
+     * @param orderId The ID of the order.
+     * @param newStatus The status the update sets.
+     * @param query The UPDATE statement.
+     * @param binder Sets the statement parameters.
+     * @return True if the update changed the order, false otherwise.
+     * @throws SQLException If a database error occurs.
+     * @author Oğuzhan Aydın
+     */
+    private boolean updateStatus(int orderId, String newStatus, String query, StatementBinder binder) throws SQLException {
+        try (Connection connection = database.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                String oldStatus;
+                double total;
+                try (PreparedStatement lockStmt = connection.prepareStatement(
+                        "SELECT status, total_cost FROM OrderInfo WHERE orderID = ? FOR UPDATE")) {
+                    lockStmt.setInt(1, orderId);
+                    try (ResultSet rs = lockStmt.executeQuery()) {
+                        if (!rs.next()) {
+                            connection.rollback();
+                            return false;
+                        }
+                        oldStatus = rs.getString("status");
+                        total = rs.getDouble("total_cost");
+                    }
+                }
+
+                int rowsAffected;
+                try (PreparedStatement stmt = connection.prepareStatement(query)) {
+                    binder.bind(stmt);
+                    rowsAffected = stmt.executeUpdate();
+                }
+                if (rowsAffected > 0) {
+                    SalesRollup.changeStatus(connection, oldStatus, newStatus, total);
+                }
+
+                connection.commit();
+                return rowsAffected > 0;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
         }
     }
+
+    /**
+     * Sets the parameters of a prepared statement.
+     * @author Oğuzhan Aydın
+     */
+    @FunctionalInterface
+    private interface StatementBinder {
+        void bind(PreparedStatement stmt) throws SQLException;
+    }
 }
\ No newline at end of file
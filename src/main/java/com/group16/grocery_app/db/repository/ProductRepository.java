@@ -2,26 +2,36 @@ package com.group16.grocery_app.db.repository;
 
 import com.group16.grocery_app.db.Database;
 import com.group16.grocery_app.model.Product;
+import com.group16.grocery_app.model.ProductChanges;
 import com.group16.grocery_app.model.ProductType;
+import com.group16.grocery_app.utils.ImageCache;
+import com.group16.grocery_app.utils.ProductCache;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
-import javafx.scene.image.Image;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStream;
+import java.nio.file.Files;
 import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 
 /**
  * Repository class for product database operations.
  * Handles CRUD operations for products, including image storage and retrieval.
+ * Every write stamps the product with a new catalog version (see {@link CatalogVersion}) and
+ * removals leave a tombstone, so clients can fetch only what changed with
+ * {@link #findChangedSince(long)} instead of reloading the whole catalog.
  *
  * @author Ege Usug
  */
 public class ProductRepository {
 
-    private Connection connection;
+    private static final String PRODUCT_COLUMNS = "productID, name, type, price, stock, threshold, " +
+            "image_hash, (image_data IS NOT NULL) AS has_image, row_version";
+
+    private final Database database;
 
     /**
      * Initializes the repository with a database connection.
@@ -29,11 +39,13 @@ public class ProductRepository {
      * @author Ege Usug
      */
     public ProductRepository() {
-        this.connection = Database.getInstance().getConnection();
+        this.database = Database.getInstance();
     }
 
     /**
      * Retrieves all products from the database.
+     * Image data is not loaded here; use {@link #findImageData(int)} for the products that are shown.
+     * Products are shared through the {@link ProductCache}.
      *
      * @return ObservableList of all products
      * @throws SQLException If a database error occurs
@@ -41,28 +53,15 @@ public class ProductRepository {
      */
     public ObservableList<Product> findAll() throws SQLException {
         ObservableList<Product> products = FXCollections.observableArrayList();
-        String query = "SELECT * FROM ProductInfo ORDER BY name ASC";
+        String query = "SELECT " + PRODUCT_COLUMNS + " FROM ProductInfo ORDER BY name ASC";
 
-        try (Statement stmt = connection.createStatement();
+        try (Connection connection = database.getConnection();
+             Statement stmt = connection.createStatement();
              ResultSet rs = stmt.executeQuery(query)) {
 
+            ProductCache cache = ProductCache.getInstance();
             while (rs.next()) {
-                Blob blob = rs.getBlob("image_data");
-                Image image = null;
-                if (blob != null) {
-                    InputStream inputStream = blob.getBinaryStream();
-                    image = new Image(inputStream);
-                }
-
-                products.add(new Product(
-                        rs.getInt("productID"),
-                        rs.getString("name"),
-                        ProductType.valueOf(rs.getString("type").toUpperCase()),
-                        rs.getDouble("price"),
-                        rs.getDouble("stock"),
-                        rs.getDouble("threshold"),
-                        image
-                ));
+                products.add(cache.intern(mapProduct(rs)));
             }
         } catch (SQLException e) {
             throw new SQLException("Product could not find.", e.getMessage());
@@ -70,6 +69,194 @@ public class ProductRepository {
         return products;
     }
 
+    /**
+     * Retrieves a single product from the database, bypassing the {@link ProductCache}.
+     * Image data is not loaded.
+     *
+     * @param productId The ID of the product
+     * @return the product, or null if it does not exist
+     * @throws SQLException If a database error occurs
+     * @author Ege Usug
+     */
+    public Product findById(int productId) throws SQLException {
+        try (Connection connection = database.getConnection()) {
+            List<Product> found = findByIds(connection, List.of(productId));
+            return found.isEmpty() ? null : found.get(0);
+        }
+    }
+
+    /**
+     * Retrieves several products, bypassing the {@link ProductCache}; used to load cache misses.
+     * IDs are sent in the same padded chunk sizes as order items, so only a few distinct
+     * statements are prepared. Image data is not loaded.
+     *
+     * @param connection connection to read with
+     * @param productIds IDs of the products, without duplicates
+     * @return the products that exist
+     * @throws SQLException If a database error occurs
+     * @author Ege Usug
+     */
+    static List<Product> findByIds(Connection connection, Collection<Integer> productIds) throws SQLException {
+        int[] ids = productIds.stream().mapToInt(Integer::intValue).toArray();
+        List<Product> products = new ArrayList<>(ids.length);
+        int offset = 0;
+        while (offset < ids.length) {
+            int size = OrderItemHydrator.chunkSize(ids.length - offset);
+            StringBuilder query = new StringBuilder("SELECT " + PRODUCT_COLUMNS + " FROM ProductInfo WHERE productID IN (");
+            for (int i = 0; i < size; i++) {
+                query.append(i == 0 ? "?" : ",?");
+            }
+            try (PreparedStatement stmt = connection.prepareStatement(query.append(')').toString())) {
+                int last = Math.min(offset + size, ids.length) - 1;
+                for (int i = 0; i < size; i++) {
+                    stmt.setInt(i + 1, ids[Math.min(offset + i, last)]);
+                }
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        products.add(mapProduct(rs));
+                    }
+                }
+            }
+            offset += size;
+        }
+        return products;
+    }
+
+    /**
+     * Retrieves the current catalog version. Read it before {@link #findAll()} and pass it to
+     * {@link #findChangedSince(long)} later; changes made in between are returned again,
+     * which is harmless since applying them is idempotent.
+     *
+     * @return the latest committed catalog version
+     * @throws SQLException If a database error occurs
+     * @author Ege Usug
+     */
+    public long currentVersion() throws SQLException {
+        try (Connection connection = database.getConnection()) {
+            return CatalogVersion.current(connection);
+        }
+    }
+
+    /**
+     * Retrieves the products added, updated or removed after a catalog version.
+     * Only changes up to the version read at the start are returned, so none of them
+     * can still be uncommitted; later changes are picked up by the next call.
+     * Like {@link #findAll()}, image data is not loaded. The changed products are new
+     * instances, not shared through the {@link ProductCache}, so they can be compared with
+     * and copied onto the instances already shown.
+     *
+     * @param version catalog version the caller is up to date with
+     * @return the changes and the version they lead up to
+     * @throws SQLException If a database error occurs
+     * @author Ege Usug
+     */
+    public ProductChanges findChangedSince(long version) throws SQLException {
+        String changedQuery = "SELECT " + PRODUCT_COLUMNS + " FROM ProductInfo " +
+                "WHERE row_version > ? AND row_version <= ? ORDER BY name ASC";
+        String removedQuery = "SELECT productID FROM ProductTombstones WHERE row_version > ? AND row_version <= ?";
+
+        try (Connection connection = database.getConnection()) {
+            long current = CatalogVersion.current(connection);
+            if (current <= version) {
+                return new ProductChanges(List.of(), List.of(), version);
+            }
+
+            List<Product> changed = new ArrayList<>();
+            try (PreparedStatement stmt = connection.prepareStatement(changedQuery)) {
+                stmt.setLong(1, version);
+                stmt.setLong(2, current);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        changed.add(mapProduct(rs));
+                    }
+                }
+            }
+
+            List<Integer> removedIds = new ArrayList<>();
+            try (PreparedStatement stmt = connection.prepareStatement(removedQuery)) {
+                stmt.setLong(1, version);
+                stmt.setLong(2, current);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        removedIds.add(rs.getInt("productID"));
+                    }
+                }
+            }
+            return new ProductChanges(changed, removedIds, current);
+        }
+    }
+
+    private static Product mapProduct(ResultSet rs) throws SQLException {
+        Product product = new Product(
+                rs.getInt("productID"),
+                rs.getString("name"),
+                ProductType.valueOf(rs.getString("type").toUpperCase()),
+                rs.getDouble("price"),
+                rs.getDouble("stock"),
+                rs.getDouble("threshold"),
+                rs.getBoolean("has_image")
+        );
+        product.setImageHash(rs.getString("image_hash"));
+        product.setVersion(rs.getLong("row_version"));
+        return product;
+    }
+
+    /**
+     * Retrieves the stored image bytes of a single product.
+     *
+     * @param productId The ID of the product
+     * @return encoded image bytes, or null if the product has no image
+     * @throws SQLException If a database error occurs
+     * @author Ege Usug
+     */
+    public byte[] findImageData(int productId) throws SQLException {
+        String query = "SELECT image_data FROM ProductInfo WHERE productID = ?";
+        try (Connection connection = database.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
+            stmt.setInt(1, productId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getBytes("image_data") : null;
+            }
+        }
+    }
+
+    /**
+     * Retrieves the content hash of a product's image.
+     *
+     * @param productId The ID of the product
+     * @return SHA-256 hex of the image bytes, or null if there is no image or it has not been hashed yet
+     * @throws SQLException If a database error occurs
+     * @author Ege Usug
+     */
+    public String findImageHash(int productId) throws SQLException {
+        String query = "SELECT image_hash FROM ProductInfo WHERE productID = ?";
+        try (Connection connection = database.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
+            stmt.setInt(1, productId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getString("image_hash") : null;
+            }
+        }
+    }
+
+    /**
+     * Stores the content hash of an image that was saved before hashes were recorded.
+     *
+     * @param productId The ID of the product
+     * @param imageHash SHA-256 hex of the image bytes
+     * @throws SQLException If a database error occurs
+     * @author Ege Usug
+     */
+    public void saveImageHash(int productId, String imageHash) throws SQLException {
+        String query = "UPDATE ProductInfo SET image_hash = ? WHERE productID = ? AND image_hash IS NULL";
+        try (Connection connection = database.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
+            stmt.setString(1, imageHash);
+            stmt.setInt(2, productId);
+            stmt.executeUpdate();
+        }
+    }
+
     /**
      * Adds a new product to the database.
      *
@@ -79,31 +266,46 @@ public class ProductRepository {
      * @param stock The product stock quantity
      * @param threshold The stock threshold for price doubling
      * @param imageFile The product image file
-     * @return true if the product was added successfully, false otherwise
+     * @return the ID of the new product
      * @throws SQLException If a database error occurs
      * @author Ege Usug
      */
-    public boolean addProduct(String name, ProductType type, double price, double stock, double threshold, File imageFile) throws SQLException {
-        String query = "INSERT INTO ProductInfo (name, type, price, stock, threshold, image_data) VALUES (?, ?, ?, ?, ?, ?)";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setString(1, name);
-            stmt.setString(2, type.toString().toLowerCase());
-            stmt.setDouble(3, price);
-            stmt.setDouble(4, stock);
-            stmt.setDouble(5, threshold);
-
-            if (imageFile != null && imageFile.exists()) {
-                try (FileInputStream fis = new FileInputStream(imageFile)) {
-                    stmt.setBinaryStream(6, fis, (int) imageFile.length());
-                } catch (IOException e) {
-                    throw new SQLException("Failed to read image file: " + e.getMessage(), e);
+    public int addProduct(String name, ProductType type, double price, double stock, double threshold, File imageFile) throws SQLException {
+        String query = "INSERT INTO ProductInfo (name, type, price, stock, threshold, image_data, image_hash) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?)";
+        byte[] imageBytes = imageFile != null && imageFile.exists() ? readImageFile(imageFile) : null;
+        try (Connection connection = database.getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement stmt = connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
+                stmt.setString(1, name);
+                stmt.setString(2, type.toString().toLowerCase());
+                stmt.setDouble(3, price);
+                stmt.setDouble(4, stock);
+                stmt.setDouble(5, threshold);
+
+                if (imageBytes != null) {
+                    stmt.setBytes(6, imageBytes);
+                    stmt.setString(7, ImageCache.hash(imageBytes));
+                } else {
+                    stmt.setNull(6, Types.BLOB);
+                    stmt.setNull(7, Types.CHAR);
                 }
-            } else {
-                stmt.setNull(6, Types.BLOB);
-            }
 
-            int rowsAffected = stmt.executeUpdate();
-            return rowsAffected > 0;
+                stmt.executeUpdate();
+                int productId;
+                try (ResultSet keys = stmt.getGeneratedKeys()) {
+                    if (!keys.next()) {
+                        throw new SQLException("Failed to retrieve product ID.");
+                    }
+                    productId = keys.getInt(1);
+                }
+                CatalogVersion.stamp(connection, productId);
+                connection.commit();
+                return productId;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
         }
     }
 
@@ -122,32 +324,51 @@ public class ProductRepository {
      * @author Ege Usug
      */
     public boolean updateProduct(int productId, String name, ProductType type, double price, double stock, double threshold, File imageFile) throws SQLException {
-        String query = "UPDATE ProductInfo SET name = ?, type = ?, price = ?, stock = ?, threshold = ?, image_data = ? WHERE productID = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setString(1, name);
-            stmt.setString(2, type.toString().toLowerCase());
-            stmt.setDouble(3, price);
-            stmt.setDouble(4, stock);
-            stmt.setDouble(5, threshold);
-
-            if (imageFile != null && imageFile.exists()) {
-                try (FileInputStream fis = new FileInputStream(imageFile)) {
-                    stmt.setBinaryStream(6, fis, (int) imageFile.length());
-                } catch (IOException e) {
-                    throw new SQLException("Failed to read image file: " + e.getMessage(), e);
+        boolean replaceImage = imageFile != null && imageFile.exists();
+        String query = replaceImage
+                ? "UPDATE ProductInfo SET name = ?, type = ?, price = ?, stock = ?, threshold = ?, image_data = ?, image_hash = ? WHERE productID = ?"
+                : "UPDATE ProductInfo SET name = ?, type = ?, price = ?, stock = ?, threshold = ? WHERE productID = ?";
+        byte[] imageBytes = replaceImage ? readImageFile(imageFile) : null;
+        try (Connection connection = database.getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement stmt = connection.prepareStatement(query)) {
+                stmt.setString(1, name);
+                stmt.setString(2, type.toString().toLowerCase());
+                stmt.setDouble(3, price);
+                stmt.setDouble(4, stock);
+                stmt.setDouble(5, threshold);
+
+                if (replaceImage) {
+                    stmt.setBytes(6, imageBytes);
+                    stmt.setString(7, ImageCache.hash(imageBytes));
+                    stmt.setInt(8, productId);
+                } else {
+                    stmt.setInt(6, productId);
                 }
-            } else {
-                stmt.setNull(6, Types.BLOB);
+
+                int rowsAffected = stmt.executeUpdate();
+                if (rowsAffected > 0) {
+                    CatalogVersion.stamp(connection, productId);
+                }
+                connection.commit();
+                return rowsAffected > 0;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
             }
+        }
+    }
 
-            stmt.setInt(7, productId);
-            int rowsAffected = stmt.executeUpdate();
-            return rowsAffected > 0;
+    private byte[] readImageFile(File imageFile) throws SQLException {
+        try {
+            return Files.readAllBytes(imageFile.toPath());
+        } catch (IOException e) {
+            throw new SQLException("Failed to read image file: " + e.getMessage(), e);
         }
     }
 
     /**
-     * Removes a product from the database.
+     * Removes a product from the database and records a tombstone for the change feed.
      *
      * @param productId The ID of the product to remove
      * @return true if the product was removed successfully, false otherwise
@@ -156,10 +377,31 @@ public class ProductRepository {
      */
     public boolean removeProduct(int productId) throws SQLException {
         String query = "DELETE FROM ProductInfo WHERE productID = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setInt(1, productId);
-            int rowsAffected = stmt.executeUpdate();
-            return rowsAffected > 0;
+        String tombstone = "INSERT INTO ProductTombstones (productID, row_version) VALUES (?, ?) " +
+                "ON DUPLICATE KEY UPDATE row_version = ?";
+        try (Connection connection = database.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                int rowsAffected;
+                try (PreparedStatement stmt = connection.prepareStatement(query)) {
+                    stmt.setInt(1, productId);
+                    rowsAffected = stmt.executeUpdate();
+                }
+                if (rowsAffected > 0) {
+                    long version = CatalogVersion.next(connection);
+                    try (PreparedStatement stmt = connection.prepareStatement(tombstone)) {
+                        stmt.setInt(1, productId);
+                        stmt.setLong(2, version);
+                        stmt.setLong(3, version);
+                        stmt.executeUpdate();
+                    }
+                }
+                connection.commit();
+                return rowsAffected > 0;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
         }
     }
 }
@@ -0,0 +1,115 @@
+package com.group16.grocery_app.db.repository;
+
+import com.group16.grocery_app.db.Database;
+import com.group16.grocery_app.model.SalesReport;
+
+import java.sql.*;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Repository class for the owner's sales reports.
+ * Figures are read from the sales rollup tables that {@link OrderRepository} maintains
+ * with every order change, so a report costs the same however many orders exist.
+ *
+ * @author Yiğit Emre Ünlüçerçi
+ */
+public class ReportRepository {
+    private final Database database;
+
+    /**
+     * Creates a new ReportRepository instance and initializes the database connection.
+     *
+     * @author Yiğit Emre Ünlüçerçi
+     */
+    public ReportRepository() {
+        this.database = Database.getInstance();
+    }
+
+    /**
+     * Computes the sales report: order count and revenue over all orders, orders per status,
+     * revenue per month and the number of carriers.
+     *
+     * @return the report
+     * @throws SQLException if a database access error occurs
+     * @author Yiğit Emre Ünlüçerçi
+     */
+    public SalesReport getSalesReport() throws SQLException {
+        try (Connection connection = database.getConnection()) {
+            double totalRevenue = 0;
+            int totalOrders = 0;
+            String totalsQuery = "SELECT COALESCE(SUM(order_count), 0) AS order_count, COALESCE(SUM(revenue), 0) AS revenue " +
+                    "FROM SalesByStatus";
+            try (Statement stmt = connection.createStatement();
+                 ResultSet rs = stmt.executeQuery(totalsQuery)) {
+                if (rs.next()) {
+                    totalOrders = rs.getInt("order_count");
+                    totalRevenue = rs.getDouble("revenue");
+                }
+            }
+
+            return new SalesReport(totalRevenue, totalOrders, countCarriers(connection),
+                    getOrdersByStatus(connection), getMonthlyRevenue(connection));
+        }
+    }
+
+    /**
+     * Checks whether the rollup tables account for every order.
+     *
+     * @return true if the rollups match the orders
+     * @throws SQLException if a database access error occurs
+     * @author Yiğit Emre Ünlüçerçi
+     */
+    public boolean isRollupConsistent() throws SQLException {
+        try (Connection connection = database.getConnection()) {
+            return SalesRollup.isConsistent(connection);
+        }
+    }
+
+    /**
+     * Recomputes the rollup tables from all orders, replacing their contents.
+     *
+     * @throws SQLException if a database access error occurs
+     * @author Yiğit Emre Ünlüçerçi
+     */
+    public void rebuildRollups() throws SQLException {
+        try (Connection connection = database.getConnection()) {
+            SalesRollup.rebuild(connection);
+        }
+    }
+
+    private Map<String, Integer> getOrdersByStatus(Connection connection) throws SQLException {
+        Map<String, Integer> counts = new HashMap<>();
+        String query = "SELECT status, order_count FROM SalesByStatus WHERE order_count > 0";
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(query)) {
+            while (rs.next()) {
+                counts.put(rs.getString("status"), rs.getInt("order_count"));
+            }
+        }
+        return counts;
+    }
+
+    private Map<YearMonth, Double> getMonthlyRevenue(Connection connection) throws SQLException {
+        Map<YearMonth, Double> revenue = new TreeMap<>();
+        String query = "SELECT YEAR(sale_date) AS order_year, MONTH(sale_date) AS order_month, " +
+                "SUM(revenue) AS revenue FROM SalesDaily GROUP BY YEAR(sale_date), MONTH(sale_date)";
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(query)) {
+            while (rs.next()) {
+                revenue.put(YearMonth.of(rs.getInt("order_year"), rs.getInt("order_month")), rs.getDouble("revenue"));
+            }
+        }
+        return revenue;
+    }
+
+    private int countCarriers(Connection connection) throws SQLException {
+        String query = "SELECT COUNT(*) FROM UserInfo WHERE role = 'carrier'";
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(query)) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.group16.grocery_app.db.repository;
+
+import com.group16.grocery_app.db.Database;
+
+import java.sql.*;
+
+/**
+ * Repository for stock holds on products in customers' carts.
+ * A customer has at most one hold per product, covering the whole quantity in the cart.
+ * Holds that have not expired count against the stock available to every other customer,
+ * both when adding to a cart and at checkout. Expired holds are ignored by all queries,
+ * so deleting them ({@link #deleteExpired()}) only keeps the table small.
+ *
+ * @author Ege Usug
+ */
+public class ReservationRepository {
+
+    /** Quantity of a product held by other customers' active holds. */
+    static final String HELD_BY_OTHERS = "SELECT COALESCE(SUM(quantity), 0) FROM StockReservations " +
+            "WHERE productID = ? AND userID <> ? AND expires_at > NOW()";
+
+    private final Database database;
+
+    /**
+     * Creates a new ReservationRepository instance and initializes the database connection.
+     *
+     * @author Ege Usug
+     */
+    public ReservationRepository() {
+        this.database = Database.getInstance();
+    }
+
+    /**
+     * Holds {@code quantity} of a product for a customer, replacing the customer's previous
+     * hold on it, if the stock not held by other customers covers it. The product row is
+     * locked while checking, so two customers cannot both be given the last units.
+     *
+     * @param userId ID of the customer
+     * @param productId ID of the product
+     * @param quantity total quantity to hold (the cart quantity, not an increment)
+     * @param ttlSeconds seconds until the hold expires
+     * @return stock available to the customer; the hold was placed if this is at least {@code quantity}
+     * @throws SQLException if a database access error occurs
+     * @author Ege Usug
+     */
+    public double reserve(int userId, int productId, double quantity, int ttlSeconds) throws SQLException {
+        try (Connection connection = database.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                double stock;
+                try (PreparedStatement stmt = connection.prepareStatement(
+                        "SELECT stock FROM ProductInfo WHERE productID = ? FOR UPDATE")) {
+                    stmt.setInt(1, productId);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        if (!rs.next()) {
+                            connection.rollback();
+                            return 0;
+                        }
+                        stock = rs.getDouble("stock");
+                    }
+                }
+
+                double available;
+                try (PreparedStatement stmt = connection.prepareStatement(HELD_BY_OTHERS)) {
+                    stmt.setInt(1, productId);
+                    stmt.setInt(2, userId);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        rs.next();
+                        available = stock - rs.getDouble(1);
+                    }
+                }
+
+                if (available >= quantity) {
+                    String upsert = "INSERT INTO StockReservations (userID, productID, quantity, expires_at) " +
+                            "VALUES (?, ?, ?, TIMESTAMPADD(SECOND, ?, NOW())) " +
+                            "ON DUPLICATE KEY UPDATE quantity = ?, expires_at = TIMESTAMPADD(SECOND, ?, NOW())";
+                    try (PreparedStatement stmt = connection.prepareStatement(upsert)) {
+                        stmt.setInt(1, userId);
+                        stmt.setInt(2, productId);
+                        stmt.setDouble(3, quantity);
+                        stmt.setInt(4, ttlSeconds);
+                        stmt.setDouble(5, quantity);
+                        stmt.setInt(6, ttlSeconds);
+                        stmt.executeUpdate();
+                    }
+                }
+
+                connection.commit();
+                return available;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Pushes back the expiry of a customer's active holds. Holds that have already expired are
+     * left alone, since their stock may have been given to someone else.
+     *
+     * @param userId ID of the customer
+     * @param ttlSeconds seconds from now until the holds expire
+     * @return number of holds extended
+     * @throws SQLException if a database access error occurs
+     * @author Ege Usug
+     */
+    public int extend(int userId, int ttlSeconds) throws SQLException {
+        String query = "UPDATE StockReservations SET expires_at = TIMESTAMPADD(SECOND, ?, NOW()) " +
+                "WHERE userID = ? AND expires_at > NOW()";
+        try (Connection connection = database.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
+            stmt.setInt(1, ttlSeconds);
+            stmt.setInt(2, userId);
+            return stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Releases a customer's hold on a product.
+     *
+     * @param userId ID of the customer
+     * @param productId ID of the product
+     * @throws SQLException if a database access error occurs
+     * @author Ege Usug
+     */
+    public void release(int userId, int productId) throws SQLException {
+        String query = "DELETE FROM StockReservations WHERE userID = ? AND productID = ?";
+        try (Connection connection = database.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
+            stmt.setInt(1, userId);
+            stmt.setInt(2, productId);
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Releases all holds of a customer.
+     *
+     * @param userId ID of the customer
+     * @throws SQLException if a database access error occurs
+     * @author Ege Usug
+     */
+    public void releaseAll(int userId) throws SQLException {
+        try (Connection connection = database.getConnection()) {
+            releaseAll(connection, userId);
+        }
+    }
+
+    /**
+     * Releases all holds of a customer on the given connection, e.g. inside the checkout
+     * transaction that consumes them.
+     *
+     * @param connection connection to use
+     * @param userId ID of the customer
+     * @throws SQLException if a database access error occurs
+     * @author Ege Usug
+     */
+    static void releaseAll(Connection connection, int userId) throws SQLException {
+        try (PreparedStatement stmt = connection.prepareStatement(
+                "DELETE FROM StockReservations WHERE userID = ?")) {
+            stmt.setInt(1, userId);
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Deletes expired holds.
+     *
+     * @return number of holds deleted
+     * @throws SQLException if a database access error occurs
+     * @author Ege Usug
+     */
+    public int deleteExpired() throws SQLException {
+        String query = "DELETE FROM StockReservations WHERE expires_at <= NOW()";
+        try (Connection connection = database.getConnection();
+             Statement stmt = connection.createStatement()) {
+            return stmt.executeUpdate(query);
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.group16.grocery_app.db.repository;
+
+import com.group16.grocery_app.model.OrderItem;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Keeps the sales rollup tables in step with {@code OrderInfo} and {@code OrderItems}.
+ * <ul>
+ *     <li>{@code SalesDaily}: orders and revenue per order date</li>
+ *     <li>{@code SalesByStatus}: orders and revenue per current status</li>
+ *     <li>{@code SalesByProduct}: quantity sold and revenue per product</li>
+ * </ul>
+ * All counters cover every order, whatever its status, matching the owner's reports.
+ * The update methods take the caller's connection so they run inside the same transaction
+ * as the order change they record. {@link #rebuild(Connection)} recomputes all tables from
+ * the order data, for backfilling and repair.
+ *
+ * @author Oğuzhan Aydın
+ */
+class SalesRollup {
+
+    private static final String ADD_DAILY = "INSERT INTO SalesDaily (sale_date, order_count, revenue) VALUES (?, 1, ?) " +
+            "ON DUPLICATE KEY UPDATE order_count = order_count + 1, revenue = revenue + ?";
+
+    private static final String ADD_STATUS = "INSERT INTO SalesByStatus (status, order_count, revenue) VALUES (?, 1, ?) " +
+            "ON DUPLICATE KEY UPDATE order_count = order_count + 1, revenue = revenue + ?";
+
+    private static final String REMOVE_STATUS = "UPDATE SalesByStatus SET order_count = order_count - 1, revenue = revenue - ? " +
+            "WHERE status = ?";
+
+    private static final String ADD_PRODUCT = "INSERT INTO SalesByProduct (productID, quantity, revenue) VALUES (?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE quantity = quantity + ?, revenue = revenue + ?";
+
+    private static final String[] REBUILD = {
+            "DELETE FROM SalesDaily",
+            "INSERT INTO SalesDaily (sale_date, order_count, revenue) " +
+                    "SELECT CAST(order_date AS DATE), COUNT(*), SUM(total_cost) FROM OrderInfo " +
+                    "WHERE order_date IS NOT NULL GROUP BY CAST(order_date AS DATE)",
+            "DELETE FROM SalesByStatus",
+            "INSERT INTO SalesByStatus (status, order_count, revenue) " +
+                    "SELECT status, COUNT(*), SUM(total_cost) FROM OrderInfo " +
+                    "WHERE status IS NOT NULL GROUP BY status",
+            "DELETE FROM SalesByProduct",
+            "INSERT INTO SalesByProduct (productID, quantity, revenue) " +
+                    "SELECT productID, SUM(amount), SUM(amount * unit_price) FROM OrderItems GROUP BY productID"
+    };
+
+    private SalesRollup() {
+    }
+
+    /**
+     * Records a newly inserted order in the daily and status counters.
+     *
+     * @param connection connection of the transaction that inserted the order
+     * @param orderId ID of the new order
+     * @param status status the order was created with
+     * @param total order total
+     * @throws SQLException if a database error occurs
+     * @author Oğuzhan Aydın
+     */
+    static void recordOrder(Connection connection, int orderId, String status, double total) throws SQLException {
+        Date orderDate = null;
+        try (PreparedStatement stmt = connection.prepareStatement(
+                "SELECT CAST(order_date AS DATE) FROM OrderInfo WHERE orderID = ?")) {
+            stmt.setInt(1, orderId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    orderDate = rs.getDate(1);
+                }
+            }
+        }
+
+        if (orderDate != null) {
+            try (PreparedStatement stmt = connection.prepareStatement(ADD_DAILY)) {
+                stmt.setDate(1, orderDate);
+                stmt.setDouble(2, total);
+                stmt.setDouble(3, total);
+                stmt.executeUpdate();
+            }
+        }
+
+        addStatus(connection, status, total);
+    }
+
+    /**
+     * Records order lines in the per-product counters as one batch.
+     *
+     * @param connection connection of the transaction that inserted the lines
+     * @param lines order lines with the unit prices stored for them, sorted by productID
+     * @throws SQLException if a database error occurs
+     * @author Oğuzhan Aydın
+     */
+    static void recordItems(Connection connection, List<OrderItem> lines) throws SQLException {
+        try (PreparedStatement stmt = connection.prepareStatement(ADD_PRODUCT)) {
+            for (OrderItem line : lines) {
+                double revenue = line.getQuantity() * line.getUnitPrice();
+                stmt.setInt(1, line.getProduct().getId());
+                stmt.setDouble(2, line.getQuantity());
+                stmt.setDouble(3, revenue);
+                stmt.setDouble(4, line.getQuantity());
+                stmt.setDouble(5, revenue);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    /**
+     * Moves an order from one status counter to another.
+     *
+     * @param connection connection of the transaction that changed the status
+     * @param fromStatus previous status
+     * @param toStatus new status
+     * @param total order total
+     * @throws SQLException if a database error occurs
+     * @author Oğuzhan Aydın
+     */
+    static void changeStatus(Connection connection, String fromStatus, String toStatus, double total) throws SQLException {
+        if (fromStatus == null) {
+            addStatus(connection, toStatus, total);
+            return;
+        }
+        if (fromStatus.equals(toStatus)) {
+            return;
+        }
+        // Touch the two counter rows in name order so opposite transitions cannot deadlock
+        if (fromStatus.compareTo(toStatus) < 0) {
+            removeStatus(connection, fromStatus, total);
+            addStatus(connection, toStatus, total);
+        } else {
+            addStatus(connection, toStatus, total);
+            removeStatus(connection, fromStatus, total);
+        }
+    }
+
+    /**
+     * Checks whether the status counters account for every order, a cheap sign that the
+     * rollups have been built and kept up to date.
+     *
+     * @param connection connection to read with
+     * @return true if the counted orders match {@code OrderInfo}
+     * @throws SQLException if a database error occurs
+     * @author Oğuzhan Aydın
+     */
+    static boolean isConsistent(Connection connection) throws SQLException {
+        String query = "SELECT (SELECT COALESCE(SUM(order_count), 0) FROM SalesByStatus), " +
+                "(SELECT COUNT(*) FROM OrderInfo WHERE status IS NOT NULL)";
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(query)) {
+            return rs.next() && rs.getLong(1) == rs.getLong(2);
+        }
+    }
+
+    /**
+     * Recomputes all rollup tables from the order data in one transaction.
+     *
+     * @param connection connection to rebuild with; must be in auto-commit mode
+     * @throws SQLException if a database error occurs
+     * @author Oğuzhan Aydın
+     */
+    static void rebuild(Connection connection) throws SQLException {
+        connection.setAutoCommit(false);
+        try (Statement stmt = connection.createStatement()) {
+            for (String sql : REBUILD) {
+                stmt.executeUpdate(sql);
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    private static void removeStatus(Connection connection, String status, double total) throws SQLException {
+        try (PreparedStatement stmt = connection.prepareStatement(REMOVE_STATUS)) {
+            stmt.setDouble(1, total);
+            stmt.setString(2, status);
+            stmt.executeUpdate();
+        }
+    }
+
+    private static void addStatus(Connection connection, String status, double total) throws SQLException {
+        try (PreparedStatement stmt = connection.prepareStatement(ADD_STATUS)) {
+            stmt.setString(1, status);
+            stmt.setDouble(2, total);
+            stmt.setDouble(3, total);
+            stmt.executeUpdate();
+        }
+    }
+}
@@ -10,10 +10,10 @@ import java.util.ArrayList;
 import java.util.List;
 
 public class UserCouponRepository {
-    private final Connection connection;
+    private final Database database;
 
     public UserCouponRepository() {
-        this.connection = Database.getInstance().getConnection();
+        this.database = Database.getInstance();
     }
 
     public ObservableList<Coupon> getUserCoupons(int userId) throws SQLException {
@@ -23,7 +23,8 @@ public class UserCouponRepository {
                 "WHERE uc.userID = ? AND uc.is_used = FALSE " +
                 "AND c.is_active = TRUE AND c.expired_date >= CURDATE()";
 
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = database.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setInt(1, userId);
             ResultSet rs = stmt.executeQuery();
 
@@ -47,7 +48,8 @@ public class UserCouponRepository {
     public Coupon getCouponByCode(String code) throws SQLException {
         String query = "SELECT * FROM Coupons WHERE code = ? AND is_active = TRUE AND expired_date >= CURDATE()";
 
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = database.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setString(1, code);
             ResultSet rs = stmt.executeQuery();
 
@@ -70,7 +72,8 @@ public class UserCouponRepository {
 
     public boolean useCoupon(int userId, int couponId) throws SQLException {
         String query = "UPDATE UserCoupons SET is_used = TRUE WHERE userID = ? AND couponID = ? AND is_used = FALSE";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = database.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setInt(1, userId);
             stmt.setInt(2, couponId);
             int rowsAffected = stmt.executeUpdate();
@@ -78,9 +81,25 @@ public class UserCouponRepository {
         }
     }
 
+    /**
+     * Marks a customer's coupon, given by its code, as used on the given connection,
+     * e.g. inside the checkout transaction.
+     * @return true if an unused coupon was marked, false if it was already used or not assigned
+     */
+    static boolean useCouponByCode(Connection connection, int userId, String code) throws SQLException {
+        String query = "UPDATE UserCoupons SET is_used = TRUE WHERE userID = ? AND is_used = FALSE " +
+                "AND couponID IN (SELECT couponID FROM Coupons WHERE code = ?)";
+        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+            stmt.setInt(1, userId);
+            stmt.setString(2, code);
+            return stmt.executeUpdate() > 0;
+        }
+    }
+
     public boolean hasUnusedCoupon(int userId, int couponId) throws SQLException {
         String query = "SELECT COUNT(*) FROM UserCoupons WHERE userID = ? AND couponID = ? AND is_used = FALSE";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = database.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setInt(1, userId);
             stmt.setInt(2, couponId);
             ResultSet rs = stmt.executeQuery();
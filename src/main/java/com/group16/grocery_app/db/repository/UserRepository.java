@@ -21,7 +21,7 @@ import java.sql.Statement;
  */
 public class UserRepository {
 
-    private Connection connection;
+    private final Database database;
 
     /**
      * Creates a new UserRepository instance.
@@ -29,7 +29,7 @@ public class UserRepository {
      * @author Mert Bölükbaşı
      */
     public UserRepository() {
-        this.connection = Database.getInstance().getConnection();
+        this.database = Database.getInstance();
     }
 
     /**
@@ -42,7 +42,8 @@ public class UserRepository {
      */
     public User findByUsername(String username) throws SQLException {
         String query = "SELECT * FROM UserInfo WHERE username = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = database.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setString(1, username);
             ResultSet rs = stmt.executeQuery();
 
@@ -76,45 +77,35 @@ public class UserRepository {
      * @author Mert Bölükbaşı
      */
     public boolean checkUserForLogin(String username, String password) {
-        if (connection == null) {
-            System.err.println("Database connection is null in checkUserForLogin");
-            return false;
-        }
-        
         if (username == null || username.trim().isEmpty() || password == null || password.trim().isEmpty()) {
             System.err.println("Username or password is empty");
             return false;
         }
 
-        String hashPassword = PasswordHash.hash(password);
-        System.out.println("Login attempt - Username: " + username + ", Hash length: " + hashPassword.length());
+        System.out.println("Login attempt - Username: " + username);
 
-        String query = "SELECT userID FROM UserInfo WHERE username = ? AND password = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        String query = "SELECT userID, password FROM UserInfo WHERE username = ?";
+        try (Connection connection = database.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setString(1, username.trim());
-            stmt.setString(2, hashPassword);
             ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                System.out.println("Login successful for username: " + username);
-                return true;
-            } else {
-                // Debug: Check if username exists
-                String checkUserQuery = "SELECT password FROM UserInfo WHERE username = ?";
-                try (PreparedStatement checkStmt = connection.prepareStatement(checkUserQuery)) {
-                    checkStmt.setString(1, username.trim());
-                    ResultSet checkRs = checkStmt.executeQuery();
-                    if (checkRs.next()) {
-                        String storedPassword = checkRs.getString("password");
-                        System.err.println("Username exists but password doesn't match.");
-                        System.err.println("Stored password length: " + (storedPassword != null ? storedPassword.length() : "null"));
-                        System.err.println("Generated hash length: " + hashPassword.length());
-                        System.err.println("Stored password (first 20 chars): " + (storedPassword != null ? storedPassword.substring(0, Math.min(20, storedPassword.length())) : "null"));
-                        System.err.println("Generated hash (first 20 chars): " + hashPassword.substring(0, Math.min(20, hashPassword.length())));
-                    } else {
-                        System.err.println("Username does not exist: " + username);
-                    }
-                }
+            if (!rs.next()) {
+                System.err.println("Username does not exist: " + username);
+                return false;
+            }
+
+            int userId = rs.getInt("userID");
+            String storedPassword = rs.getString("password");
+            if (!PasswordHash.verify(password, storedPassword)) {
+                System.err.println("Username exists but password doesn't match.");
+                return false;
             }
+
+            if (PasswordHash.needsRehash(storedPassword)) {
+                upgradePasswordHash(connection, userId, storedPassword, PasswordHash.hash(password));
+            }
+            System.out.println("Login successful for username: " + username);
+            return true;
         } catch (SQLException e) {
             System.err.println("SQL Error in checkUserForLogin: " + e.getMessage());
             e.printStackTrace();
@@ -123,6 +114,30 @@ public class UserRepository {
         return false;
     }
 
+    /**
+     * Replaces an outdated password hash after a successful login.
+     * The update only applies if the stored hash is unchanged, so a concurrent password change wins.
+     *
+     * @param connection connection to use
+     * @param userId user ID
+     * @param oldHash hash that was verified
+     * @param newHash hash in the current format
+     * @author Mert Bölükbaşı
+     */
+    private void upgradePasswordHash(Connection connection, int userId, String oldHash, String newHash) {
+        String query = "UPDATE UserInfo SET password = ? WHERE userID = ? AND password = ?";
+        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+            stmt.setString(1, newHash);
+            stmt.setInt(2, userId);
+            stmt.setString(3, oldHash);
+            if (stmt.executeUpdate() > 0) {
+                System.out.println("Upgraded password hash for user " + userId);
+            }
+        } catch (SQLException e) {
+            System.err.println("Could not upgrade password hash (is the schema migrated?): " + e.getMessage());
+        }
+    }
+
     /**
      * Creates a new customer user.
      *
@@ -138,16 +153,13 @@ public class UserRepository {
         if (username == null || username.trim().isEmpty()) {
             return false;
         }
-        if (connection == null) {
-            System.err.println("Database connection is null in createUser");
-            return false;
-        }
         if (phoneNumber != null && !phoneNumber.trim().isEmpty() && phoneNumberExists(phoneNumber, null)) {
             return false;
         }
         String query = "INSERT INTO UserInfo (username, password, role, first_name, last_name, phone_number, loyalty_points) VALUES (?, ?, 'customer', ?, ?, ?, 0)";
         String hashPassword = PasswordHash.hash(password);
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = database.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setString(1, username.trim());
             stmt.setString(2, hashPassword);
             stmt.setString(3, firstName != null ? firstName.trim() : "");
@@ -167,7 +179,7 @@ public class UserRepository {
 
             if (errorCode == 1406 || errorCode == 1264 || errorMessage.contains("Data truncation") || errorMessage.contains("too long")) {
                 System.err.println("Data truncation error - password column may be too small. Error: " + errorMessage);
-                System.err.println("Please run: ALTER TABLE UserInfo MODIFY COLUMN password VARCHAR(64) NOT NULL;");
+                System.err.println("Please run: ALTER TABLE UserInfo MODIFY COLUMN password VARCHAR(255) NOT NULL;");
                 return false;
             }
 
@@ -187,13 +199,10 @@ public class UserRepository {
         if (username == null || username.trim().isEmpty()) {
             return false;
         }
-        if (connection == null) {
-            System.err.println("Database connection is null in usernameExists");
-            return false;
-        }
         String trimmedUsername = username.trim();
         String query = "SELECT userID FROM UserInfo WHERE username = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = database.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setString(1, trimmedUsername);
             try (ResultSet rs = stmt.executeQuery()) {
                 return rs.next();
@@ -216,10 +225,6 @@ public class UserRepository {
         if (phoneNumber == null || phoneNumber.trim().isEmpty()) {
             return false;
         }
-        if (connection == null) {
-            System.err.println("Database connection is null in phoneNumberExists");
-            return false;
-        }
         String trimmedPhone = phoneNumber.trim();
         String query;
         if (excludeUserId != null) {
@@ -227,7 +232,8 @@ public class UserRepository {
         } else {
             query = "SELECT userID FROM UserInfo WHERE phone_number = ?";
         }
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = database.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setString(1, trimmedPhone);
             if (excludeUserId != null) {
                 stmt.setInt(2, excludeUserId);
@@ -256,7 +262,8 @@ public class UserRepository {
         }
 
         String query = "UPDATE UserInfo SET address = ?, phone_number = ? WHERE userID = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = database.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setString(1, address != null ? address.trim() : null);
             stmt.setString(2, phoneNumber != null && !phoneNumber.trim().isEmpty() ? phoneNumber.trim() : null);
             stmt.setInt(3, userId);
@@ -277,12 +284,9 @@ public class UserRepository {
      * @author Mert Bölükbaşı
      */
     public boolean incrementLoyaltyPoints(int userId, int points) {
-        if (connection == null) {
-            System.err.println("Database connection is null in incrementLoyaltyPoints");
-            return false;
-        }
         String query = "UPDATE UserInfo SET loyalty_points = loyalty_points + ? WHERE userID = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = database.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setInt(1, points);
             stmt.setInt(2, userId);
             int rowsAffected = stmt.executeUpdate();
@@ -304,7 +308,8 @@ public class UserRepository {
         ObservableList<User> carriers = FXCollections.observableArrayList();
         String query = "SELECT * FROM UserInfo WHERE role = 'carrier' ORDER BY username";
 
-        try (Statement stmt = connection.createStatement();
+        try (Connection connection = database.getConnection();
+             Statement stmt = connection.createStatement();
              ResultSet rs = stmt.executeQuery(query)) {
 
             while (rs.next()) {
@@ -342,16 +347,13 @@ public class UserRepository {
         if (username == null || username.trim().isEmpty()) {
             return false;
         }
-        if (connection == null) {
-            System.err.println("Database connection is null in createCarrier");
-            return false;
-        }
         if (phoneNumber != null && !phoneNumber.trim().isEmpty() && phoneNumberExists(phoneNumber, null)) {
             return false;
         }
         String query = "INSERT INTO UserInfo (username, password, role, first_name, last_name, phone_number, loyalty_points) VALUES (?, ?, 'carrier', ?, ?, ?, 0)";
         String hashPassword = PasswordHash.hash(password);
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = database.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setString(1, username.trim());
             stmt.setString(2, hashPassword);
             stmt.setString(3, firstName != null ? firstName.trim() : "");
@@ -371,7 +373,7 @@ public class UserRepository {
 
             if (errorCode == 1406 || errorCode == 1264 || errorMessage.contains("Data truncation") || errorMessage.contains("too long")) {
                 System.err.println("Data truncation error - password column may be too small. Error: " + errorMessage);
-                System.err.println("Please run: ALTER TABLE UserInfo MODIFY COLUMN password VARCHAR(64) NOT NULL;");
+                System.err.println("Please run: ALTER TABLE UserInfo MODIFY COLUMN password VARCHAR(255) NOT NULL;");
                 return false;
             }
 
@@ -390,7 +392,8 @@ public class UserRepository {
      */
     public User findByRole(Role role) throws SQLException {
         String query = "SELECT * FROM UserInfo WHERE role = ? LIMIT 1";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = database.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setString(1, role.name().toLowerCase());
             ResultSet rs = stmt.executeQuery();
 
@@ -420,7 +423,8 @@ public class UserRepository {
      */
     public boolean removeCarrier(int carrierId) {
         String query = "DELETE FROM UserInfo WHERE userID = ? AND role = 'carrier'";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = database.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setInt(1, carrierId);
             int rowsAffected = stmt.executeUpdate();
             return rowsAffected > 0;
@@ -440,7 +444,8 @@ public class UserRepository {
      */
     public User findById(int userId) throws SQLException {
         String query = "SELECT * FROM UserInfo WHERE userID = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = database.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setInt(1, userId);
             ResultSet rs = stmt.executeQuery();
 
@@ -0,0 +1,136 @@
+package com.group16.grocery_app.db.service;
+
+import com.group16.grocery_app.config.AppConfig;
+import com.group16.grocery_app.model.Product;
+import com.group16.grocery_app.model.ProductChanges;
+import com.group16.grocery_app.utils.ProductCache;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Polls the database for product changes and hands them to the open catalogs, so they can
+ * patch their products in place instead of reloading the whole list.
+ * <p>
+ * Every {@code catalog.feed.pollSeconds} (default 5) one delta query is made from the oldest
+ * version any subscriber is up to date with, and the result is delivered to every subscriber
+ * that is behind it. Subscribers may receive changes they already have; applying them again
+ * must be harmless. Nothing is queried while there are no subscribers. Changed products are
+ * also patched in place in the {@link ProductCache}, after the subscribers have had them, and
+ * deleted ones are removed from it.
+ *
+ * @author Mert Bölükbaşı
+ */
+public final class CatalogFeed {
+
+    private static final int POLL_SECONDS =
+            Math.max(1, AppConfig.getInstance().getInt("catalog.feed.pollSeconds", 5));
+
+    private static final CatalogFeed INSTANCE = new CatalogFeed();
+
+    private final ProductService productService = new ProductService();
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private volatile boolean started;
+
+    private CatalogFeed() {
+    }
+
+    /**
+     * Gets the feed instance.
+     *
+     * @return the feed
+     * @author Mert Bölükbaşı
+     */
+    public static CatalogFeed getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Starts polling. Calling it again has no effect.
+     *
+     * @author Mert Bölükbaşı
+     */
+    public synchronized void start() {
+        if (started) {
+            return;
+        }
+        started = true;
+        ServiceExecutor.scheduleWithFixedDelay(this::poll, POLL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Subscribes to the changes made after a catalog version.
+     *
+     * @param version catalog version read before the subscriber loaded its products
+     * @param listener receives each batch of changes on the FX thread
+     * @return subscription to cancel when the products are no longer shown
+     * @author Mert Bölükbaşı
+     */
+    public Subscription subscribe(long version, Consumer<ProductChanges> listener) {
+        Subscription subscription = new Subscription(version, listener);
+        subscriptions.add(subscription);
+        return subscription;
+    }
+
+    private void poll() {
+        if (subscriptions.isEmpty()) {
+            return;
+        }
+        long oldest = Long.MAX_VALUE;
+        for (Subscription subscription : subscriptions) {
+            oldest = Math.min(oldest, subscription.version);
+        }
+
+        ProductChanges changes = productService.getChangesSince(oldest);
+        if (changes == null || changes.getVersion() <= oldest) {
+            return;
+        }
+        for (Subscription subscription : subscriptions) {
+            if (subscription.version < changes.getVersion()) {
+                subscription.version = changes.getVersion();
+                if (!changes.isEmpty()) {
+                    ServiceExecutor.FX.execute(() -> subscription.deliver(changes));
+                }
+            }
+        }
+        ProductCache cache = ProductCache.getInstance();
+        for (Product changed : changes.getChanged()) {
+            cache.update(changed);
+        }
+        cache.invalidateAll(changes.getRemovedIds());
+    }
+
+    /**
+     * A catalog's subscription to the feed.
+     *
+     * @author Mert Bölükbaşı
+     */
+    public final class Subscription {
+        private final Consumer<ProductChanges> listener;
+        private volatile long version;
+        private volatile boolean cancelled;
+
+        private Subscription(long version, Consumer<ProductChanges> listener) {
+            this.version = version;
+            this.listener = listener;
+        }
+
+        /**
+         * Stops delivering changes, including batches already on their way to the FX thread.
+         *
+         * @author Mert Bölükbaşı
+         */
+        public void cancel() {
+            cancelled = true;
+            subscriptions.remove(this);
+        }
+
+        private void deliver(ProductChanges changes) {
+            if (!cancelled) {
+                listener.accept(changes);
+            }
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.group16.grocery_app.db.service;
+
+import com.group16.grocery_app.config.AppConfig;
+import com.group16.grocery_app.db.repository.CheckoutOutboxRepository;
+import com.group16.grocery_app.db.repository.OrderRepository;
+import com.group16.grocery_app.db.repository.UserRepository;
+import com.group16.grocery_app.model.CheckoutJob;
+import com.group16.grocery_app.model.Order;
+import com.group16.grocery_app.model.User;
+import com.group16.grocery_app.utils.InvoiceGenerator;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Runs the follow-up stages of committed checkouts from the checkout outbox:
+ * rendering the invoice and awarding loyalty points, plus using the coupon for COUPON jobs
+ * queued before checkouts started using it in their own transaction.
+ * <p>
+ * Jobs are processed in parallel on {@link ServiceExecutor}. A checkout wakes the pipeline
+ * right after it commits, and a poll every {@code checkout.pipeline.pollSeconds} (default 5)
+ * picks up retries and jobs left over from a previous run. A failed job is retried with
+ * exponential backoff, capped at ten minutes, until it succeeds. A COUPON job whose coupon was
+ * already used cannot succeed, so it is parked in the outbox with its error instead.
+ * @author Oğuzhan Aydın
+ */
+public final class CheckoutPipeline {
+
+    /** Loyalty points awarded per order. */
+    public static final int LOYALTY_POINTS_PER_ORDER = 1;
+
+    private static final int BATCH_SIZE = 50;
+    private static final int LEASE_SECONDS = 120;
+    private static final int MAX_RETRY_DELAY_SECONDS = 600;
+    private static final int POLL_SECONDS =
+            Math.max(1, AppConfig.getInstance().getInt("checkout.pipeline.pollSeconds", 5));
+
+    private static final CheckoutPipeline INSTANCE = new CheckoutPipeline();
+
+    private final CheckoutOutboxRepository outboxRepository = new CheckoutOutboxRepository();
+    private final OrderRepository orderRepository = new OrderRepository();
+    private final UserRepository userRepository = new UserRepository();
+    private final ReentrantLock draining = new ReentrantLock();
+    private final AtomicBoolean drainRequested = new AtomicBoolean();
+    private volatile boolean started;
+
+    private CheckoutPipeline() {
+    }
+
+    /**
+     * Gets the pipeline instance.
+     * @return The pipeline.
+     * @author Oğuzhan Aydın
+     */
+    public static CheckoutPipeline getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Starts polling the outbox. Calling it again has no effect.
+     * @author Oğuzhan Aydın
+     */
+    public synchronized void start() {
+        if (started) {
+            return;
+        }
+        started = true;
+        wake();
+        ServiceExecutor.scheduleWithFixedDelay(this::drain, POLL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Processes due jobs in the background now, e.g. right after a checkout.
+     * @return A future completed once the due jobs have been processed or handed to a drain
+     *         that is already running.
+     * @author Oğuzhan Aydın
+     */
+    public CompletableFuture<Void> wake() {
+        return ServiceExecutor.runAsync(this::drain);
+    }
+
+    /**
+     * Processes due jobs until none are left. Only one drain runs at a time; a call while
+     * another drain is running makes that drain look for due jobs once more before it ends.
+     * @author Oğuzhan Aydın
+     */
+    private void drain() {
+        drainRequested.set(true);
+        while (drainRequested.get() && draining.tryLock()) {
+            try {
+                drainRequested.set(false);
+                List<CheckoutJob> jobs;
+                do {
+                    jobs = outboxRepository.findDue(BATCH_SIZE);
+                    List<CompletableFuture<Void>> running = new ArrayList<>(jobs.size());
+                    for (CheckoutJob job : jobs) {
+                        running.add(ServiceExecutor.runAsync(() -> process(job)));
+                    }
+                    CompletableFuture.allOf(running.toArray(new CompletableFuture[0])).join();
+                } while (jobs.size() == BATCH_SIZE);
+            } catch (SQLException e) {
+                System.err.println("Checkout pipeline could not read the outbox: " + e.getMessage());
+                return;
+            } finally {
+                draining.unlock();
+            }
+        }
+    }
+
+    private void process(CheckoutJob job) {
+        try {
+            if (!outboxRepository.claim(job.getId(), LEASE_SECONDS)) {
+                return;
+            }
+            switch (job.getStage()) {
+                case INVOICE -> outboxRepository.completeInvoice(job, renderInvoice(job));
+                case COUPON -> {
+                    if (!outboxRepository.completeCoupon(job)) {
+                        System.err.println("Checkout COUPON for order " + job.getOrderId() + " parked: coupon "
+                                + job.getArgument() + " was already used.");
+                    }
+                }
+                case LOYALTY -> outboxRepository.completeLoyalty(job, LOYALTY_POINTS_PER_ORDER);
+            }
+        } catch (Exception e) {
+            int delay = retryDelaySeconds(job.getAttempts());
+            System.err.println("Checkout " + job.getStage() + " for order " + job.getOrderId()
+                    + " failed (attempt " + (job.getAttempts() + 1) + "), retrying in " + delay + "s: " + e.getMessage());
+            try {
+                outboxRepository.fail(job.getId(), String.valueOf(e.getMessage()), delay);
+            } catch (SQLException ex) {
+                // The claim expires after the lease, so the job is retried anyway
+                ex.printStackTrace();
+            }
+        }
+    }
+
+    private String renderInvoice(CheckoutJob job) throws SQLException {
+        Order order = orderRepository.getOrderById(job.getOrderId());
+        if (order == null) {
+            throw new SQLException("Order " + job.getOrderId() + " not found.");
+        }
+        User customer = userRepository.findById(job.getCustomerId());
+        String customerName = customer != null ? customer.getFirstName() + " " + customer.getLastName() : "";
+        String customerAddress = customer != null ? customer.getAddress() : null;
+        return InvoiceGenerator.generateInvoiceText(order, customerName, customerAddress);
+    }
+
+    private static int retryDelaySeconds(int attempts) {
+        return (int) Math.min(MAX_RETRY_DELAY_SECONDS, 5L << Math.min(attempts, 16));
+    }
+}
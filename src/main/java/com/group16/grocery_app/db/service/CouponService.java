@@ -6,6 +6,7 @@ import javafx.collections.ObservableList;
 
 import java.sql.SQLException;
 import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Service class for coupon-related operations.
@@ -40,6 +41,16 @@ public class CouponService {
         }
     }
 
+    /**
+     * Retrieves all coupons in the background.
+     *
+     * @return future completed with all coupons; an empty list if an error occurs
+     * @author Yiğit Emre Ünlüçerçi
+     */
+    public CompletableFuture<ObservableList<Coupon>> getAllCouponsAsync() {
+        return ServiceExecutor.supplyAsync(this::getAllCoupons);
+    }
+
     /**
      * Adds a new coupon to the database.
      *
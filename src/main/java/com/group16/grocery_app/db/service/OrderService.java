@@ -2,11 +2,15 @@ package com.group16.grocery_app.db.service;
 
 import com.group16.grocery_app.db.repository.OrderRepository;
 import com.group16.grocery_app.model.Order;
+import com.group16.grocery_app.model.OrderCursor;
+import com.group16.grocery_app.model.OrderPage;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
 import java.time.LocalDateTime;
 import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 /**
  * Service class that acts as a bridge between the controller and the repository.
@@ -37,25 +41,26 @@ public class OrderService {
     }
 
     /**
-     * Places an order and automatically generates/saves the invoice text.
+     * Places an order from the cart and returns as soon as it is committed.
+     * The coupon is marked used with the order. The invoice and the loyalty points are saved
+     * with the order as follow-up jobs and carried out by the {@link CheckoutPipeline} in the background.
      * @param order The order object.
      * @param customerId The customer ID.
      * @param deliveryDate The scheduled delivery date.
-     * @param customerName The name of the customer for the invoice.
-     * @param customerAddress The address of the customer for the invoice.
+     * @param couponCode The code of the coupon applied to the order, or null.
+     * @return The ID of the newly created order.
      * @throws RuntimeException If the order placement fails.
      * @author Oğuzhan Aydın
      */
-    public void placeOrderWithInvoice(Order order, int customerId, LocalDateTime deliveryDate, String customerName, String customerAddress) {
+    public int checkout(Order order, int customerId, LocalDateTime deliveryDate, String couponCode) {
         try {
-            int orderId = placeOrder(order, customerId, deliveryDate);
-            String invoiceText = com.group16.grocery_app.utils.InvoiceGenerator.generateInvoiceText(
-                    order, customerName, customerAddress);
-            saveInvoice(orderId, invoiceText);
+            orderRepository.saveCheckout(order, customerId, deliveryDate, couponCode);
         } catch (Exception e) {
             e.printStackTrace();
             throw new RuntimeException("Order failed");
         }
+        CheckoutPipeline.getInstance().wake();
+        return order.getId();
     }
 
     /**
@@ -149,6 +154,120 @@ public class OrderService {
         }
     }
 
+    /**
+     * Retrieves one page of a customer's orders, newest first.
+     * @param customerId The customer's ID.
+     * @param after The cursor of the previous page, or null for the first page.
+     * @param pageSize The maximum number of orders.
+     * @return The page, empty on error.
+     * @author Oğuzhan Aydın
+     */
+    public OrderPage getOrdersByCustomerIdPage(int customerId, OrderCursor after, int pageSize) {
+        try {
+            return orderRepository.getOrdersByCustomerIdPage(customerId, after, pageSize);
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return OrderPage.empty();
+        }
+    }
+
+    /**
+     * Retrieves one page of all orders, newest first.
+     * @param after The cursor of the previous page, or null for the first page.
+     * @param pageSize The maximum number of orders.
+     * @return The page, empty on error.
+     * @author Oğuzhan Aydın
+     */
+    public OrderPage getAllOrdersPage(OrderCursor after, int pageSize) {
+        try {
+            return orderRepository.getOrdersByStatusPage(null, false, after, pageSize);
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return OrderPage.empty();
+        }
+    }
+
+    /**
+     * Retrieves one page of pending orders not yet assigned to a carrier.
+     * @param after The cursor of the previous page, or null for the first page.
+     * @param pageSize The maximum number of orders.
+     * @return The page, empty on error.
+     * @author Oğuzhan Aydın
+     */
+    public OrderPage getAvailableOrdersPage(OrderCursor after, int pageSize) {
+        try {
+            return orderRepository.getOrdersByStatusPage("Pending", true, after, pageSize);
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return OrderPage.empty();
+        }
+    }
+
+    /**
+     * Retrieves one page of the orders assigned to a carrier.
+     * @param carrierId The carrier's ID.
+     * @param status Optional status filter.
+     * @param after The cursor of the previous page, or null for the first page.
+     * @param pageSize The maximum number of orders.
+     * @return The page, empty on error.
+     * @author Oğuzhan Aydın
+     */
+    public OrderPage getOrdersByCarrierIdPage(int carrierId, String status, OrderCursor after, int pageSize) {
+        try {
+            return orderRepository.getOrdersByCarrierIdPage(carrierId, status, after, pageSize);
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return OrderPage.empty();
+        }
+    }
+
+    /**
+     * Loads one page of a customer's orders in the background.
+     * @param customerId The customer's ID.
+     * @param after The cursor of the previous page, or null for the first page.
+     * @param pageSize The maximum number of orders.
+     * @return Future completed with the page, empty on error.
+     * @author Oğuzhan Aydın
+     */
+    public CompletableFuture<OrderPage> getOrdersByCustomerIdPageAsync(int customerId, OrderCursor after, int pageSize) {
+        return ServiceExecutor.supplyAsync(() -> getOrdersByCustomerIdPage(customerId, after, pageSize));
+    }
+
+    /**
+     * Loads one page of all orders in the background.
+     * @param after The cursor of the previous page, or null for the first page.
+     * @param pageSize The maximum number of orders.
+     * @return Future completed with the page, empty on error.
+     * @author Oğuzhan Aydın
+     */
+    public CompletableFuture<OrderPage> getAllOrdersPageAsync(OrderCursor after, int pageSize) {
+        return ServiceExecutor.supplyAsync(() -> getAllOrdersPage(after, pageSize));
+    }
+
+    /**
+     * Loads one page of unassigned pending orders in the background.
+     * @param after The cursor of the previous page, or null for the first page.
+     * @param pageSize The maximum number of orders.
+     * @return Future completed with the page, empty on error.
+     * @author Oğuzhan Aydın
+     */
+    public CompletableFuture<OrderPage> getAvailableOrdersPageAsync(OrderCursor after, int pageSize) {
+        return ServiceExecutor.supplyAsync(() -> getAvailableOrdersPage(after, pageSize));
+    }
+
+    /**
+     * Loads one page of a carrier's orders in the background.
+     * @param carrierId The carrier's ID.
+     * @param status Optional status filter.
+     * @param after The cursor of the previous page, or null for the first page.
+     * @param pageSize The maximum number of orders.
+     * @return Future completed with the page, empty on error.
+     * @author Oğuzhan Aydın
+     */
+    public CompletableFuture<OrderPage> getOrdersByCarrierIdPageAsync(int carrierId, String status, OrderCursor after, int pageSize) {
+        return ServiceExecutor.supplyAsync(() -> getOrdersByCarrierIdPage(carrierId, status, after, pageSize));
+    }
+
     /**
      * Assigns a specific order to a carrier.
      * @param orderId The order ID.
@@ -213,6 +332,104 @@ public class OrderService {
         }
     }
 
+    /**
+     * Retrieves a single order with its items.
+     * @param orderId The order ID.
+     * @return The order, or null if it does not exist or an error occurs.
+     * @author Oğuzhan Aydın
+     */
+    public Order getOrderById(int orderId) {
+        try {
+            return orderRepository.getOrderById(orderId);
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Counts the orders placed in a date range.
+     * @param from Start of the range (inclusive).
+     * @param to End of the range (exclusive).
+     * @return The number of orders, or 0 if an error occurs.
+     * @author Oğuzhan Aydın
+     */
+    public int countOrdersBetween(LocalDateTime from, LocalDateTime to) {
+        try {
+            return orderRepository.countOrdersBetween(from, to);
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return 0;
+        }
+    }
+
+    /**
+     * Streams the orders placed in a date range, with their items, to a consumer.
+     * The consumer may block; no database connection is held while it runs.
+     * @param from Start of the range (inclusive).
+     * @param to End of the range (exclusive).
+     * @param consumer Receives each order, oldest ID first.
+     * @return True if every order was streamed, false if an error occurred.
+     * @author Oğuzhan Aydın
+     */
+    public boolean forEachOrderBetween(LocalDateTime from, LocalDateTime to, Consumer<Order> consumer) {
+        try {
+            orderRepository.forEachOrderBetween(from, to, consumer);
+            return true;
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * Retrieves the current invoice version of an order.
+     * @param orderId The order ID.
+     * @return The invoice version, or -1 if the order does not exist or an error occurs.
+     * @author Oğuzhan Aydın
+     */
+    public int getInvoiceVersion(int orderId) {
+        try {
+            return orderRepository.getInvoiceVersion(orderId);
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return -1;
+        }
+    }
+
+    /**
+     * Retrieves the stored compressed PDF invoice of an order for the given version.
+     * @param orderId The order ID.
+     * @param version The invoice version.
+     * @return The gzip-compressed PDF, or null if none is stored or an error occurs.
+     * @author Oğuzhan Aydın
+     */
+    public byte[] getInvoicePdf(int orderId, int version) {
+        try {
+            return orderRepository.getInvoicePdf(orderId, version);
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Stores a compressed PDF invoice rendered for the given version.
+     * @param orderId The order ID.
+     * @param version The invoice version the PDF was rendered for.
+     * @param compressedPdf The gzip-compressed PDF.
+     * @return True if saved successfully.
+     * @author Oğuzhan Aydın
+     */
+    public boolean saveInvoicePdf(int orderId, int version, byte[] compressedPdf) {
+        try {
+            return orderRepository.saveInvoicePdf(orderId, version, compressedPdf);
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
     /**
      * Saves the text content of an invoice to the database.
      * @param orderId The order ID.
@@ -2,13 +2,20 @@ package com.group16.grocery_app.db.service;
 
 import com.group16.grocery_app.db.repository.ProductRepository;
 import com.group16.grocery_app.model.Product;
+import com.group16.grocery_app.model.ProductChanges;
+import com.group16.grocery_app.utils.ImageCache;
+import com.group16.grocery_app.utils.ProductCache;
 import javafx.collections.ObservableList;
 import javafx.collections.FXCollections;
 import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Service class for product-related operations.
  * Handles product CRUD operations and inventory management.
+ * Products are shared through the {@link ProductCache}. Writes made here go through to it:
+ * added products are cached, updated ones are patched in place and removed ones are dropped.
  *
  * @author Mert Bölükbaşı
  */
@@ -41,6 +48,78 @@ public class ProductService {
         }
     }
 
+    /**
+     * Loads all products in the background.
+     *
+     * @return future completed with the products, empty list on error
+     * @author Mert Bölükbaşı
+     */
+    public CompletableFuture<ObservableList<Product>> getAllProductsAsync() {
+        return ServiceExecutor.supplyAsync(this::getAllProducts);
+    }
+
+    /**
+     * Gets a single product, from the product cache if it is there. Blocks on a miss, so it
+     * must not be called on the FX thread.
+     *
+     * @param productId product ID
+     * @return the shared product, null if it does not exist or on error
+     * @author Mert Bölükbaşı
+     */
+    public Product getProduct(int productId) {
+        try {
+            return ProductCache.getInstance().get(productId, productIds -> {
+                Product product = productRepository.findById(productId);
+                return product != null ? List.of(product) : List.of();
+            });
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Gets a single product in the background.
+     *
+     * @param productId product ID
+     * @return future of the shared product, null if it does not exist or on error
+     * @author Mert Bölükbaşı
+     */
+    public CompletableFuture<Product> getProductAsync(int productId) {
+        return ServiceExecutor.supplyAsync(() -> getProduct(productId));
+    }
+
+    /**
+     * Gets the current catalog version, to be read before loading the products.
+     *
+     * @return catalog version, -1 on error
+     * @author Mert Bölükbaşı
+     */
+    public long getCatalogVersion() {
+        try {
+            return productRepository.currentVersion();
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return -1;
+        }
+    }
+
+    /**
+     * Gets the products added, updated or removed after a catalog version.
+     *
+     * @param version catalog version the caller is up to date with
+     * @return the changes, null on error
+     * @author Mert Bölükbaşı
+     */
+    public ProductChanges getChangesSince(long version) {
+        try {
+            return productRepository.findChangedSince(version);
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
     /**
      * Adds a new product to the database.
      *
@@ -55,7 +134,12 @@ public class ProductService {
      */
     public boolean addProduct(String name, com.group16.grocery_app.model.ProductType type, double price, double stock, double threshold, java.io.File imageFile) {
         try {
-            return productRepository.addProduct(name, type, price, stock, threshold, imageFile);
+            int productId = productRepository.addProduct(name, type, price, stock, threshold, imageFile);
+            Product added = productRepository.findById(productId);
+            if (added != null) {
+                ProductCache.getInstance().intern(added);
+            }
+            return true;
         } catch (SQLException e) {
             e.printStackTrace();
             return false;
@@ -77,7 +161,16 @@ public class ProductService {
      */
     public boolean updateProduct(int productId, String name, com.group16.grocery_app.model.ProductType type, double price, double stock, double threshold, java.io.File imageFile) {
         try {
-            return productRepository.updateProduct(productId, name, type, price, stock, threshold, imageFile);
+            String oldImageHash = imageFile != null ? productRepository.findImageHash(productId) : null;
+            boolean updated = productRepository.updateProduct(productId, name, type, price, stock, threshold, imageFile);
+            Product current = updated ? productRepository.findById(productId) : null;
+            if (current != null) {
+                ProductCache.getInstance().update(current);
+            }
+            if (updated && oldImageHash != null && !oldImageHash.equals(productRepository.findImageHash(productId))) {
+                ImageCache.getInstance().invalidate(oldImageHash);
+            }
+            return updated;
         } catch (SQLException e) {
             e.printStackTrace();
             return false;
@@ -93,10 +186,47 @@ public class ProductService {
      */
     public boolean removeProduct(int productId) {
         try {
-            return productRepository.removeProduct(productId);
+            String imageHash = productRepository.findImageHash(productId);
+            boolean removed = productRepository.removeProduct(productId);
+            ProductCache.getInstance().invalidate(productId);
+            if (removed) {
+                ImageCache.getInstance().invalidate(imageHash);
+            }
+            return removed;
         } catch (SQLException e) {
             e.printStackTrace();
             return false;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Gets the stored image bytes of a product.
+     *
+     * @param productId product ID
+     * @return encoded image bytes, null if missing or on error
+     * @author Mert Bölükbaşı
+     */
+    public byte[] getProductImageData(int productId) {
+        try {
+            return productRepository.findImageData(productId);
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Records the content hash of a product image that was stored without one.
+     *
+     * @param productId product ID
+     * @param imageHash SHA-256 hex of the image bytes
+     * @author Mert Bölükbaşı
+     */
+    public void saveProductImageHash(int productId, String imageHash) {
+        try {
+            productRepository.saveImageHash(productId, imageHash);
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.group16.grocery_app.db.service;
+
+import com.group16.grocery_app.db.repository.ReportRepository;
+import com.group16.grocery_app.model.SalesReport;
+
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Service class for the owner's sales reports.
+ * Provides a higher-level API over {@link ReportRepository} and handles exceptions gracefully.
+ *
+ * @author Yiğit Emre Ünlüçerçi
+ */
+public class ReportService {
+    private final ReportRepository reportRepository;
+
+    /**
+     * Creates a new ReportService instance and initializes its repository dependency.
+     *
+     * @author Yiğit Emre Ünlüçerçi
+     */
+    public ReportService() {
+        this.reportRepository = new ReportRepository();
+    }
+
+    /**
+     * Computes the sales report.
+     *
+     * @return the report; an empty report if an error occurs
+     * @author Yiğit Emre Ünlüçerçi
+     */
+    public SalesReport getSalesReport() {
+        try {
+            return reportRepository.getSalesReport();
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return SalesReport.empty();
+        }
+    }
+
+    /**
+     * Computes the sales report in the background.
+     *
+     * @return future completed with the report; an empty report if an error occurs
+     * @author Yiğit Emre Ünlüçerçi
+     */
+    public CompletableFuture<SalesReport> getSalesReportAsync() {
+        return ServiceExecutor.supplyAsync(this::getSalesReport);
+    }
+
+    /**
+     * Rebuilds the sales rollups from all orders, e.g. to backfill them after an import.
+     *
+     * @return true if the rebuild succeeded, false otherwise
+     * @author Yiğit Emre Ünlüçerçi
+     */
+    public boolean rebuildRollups() {
+        try {
+            reportRepository.rebuildRollups();
+            return true;
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * Checks the sales rollups in the background and rebuilds them if they do not match the
+     * orders, or unconditionally if {@code force} is set.
+     *
+     * @param force rebuild even if the rollups look consistent
+     * @return future completed with true if the rollups are up to date afterwards
+     * @author Yiğit Emre Ünlüçerçi
+     */
+    public CompletableFuture<Boolean> verifyRollupsAsync(boolean force) {
+        return ServiceExecutor.supplyAsync(() -> {
+            try {
+                if (!force && reportRepository.isRollupConsistent()) {
+                    return true;
+                }
+            } catch (SQLException e) {
+                e.printStackTrace();
+                return false;
+            }
+            System.out.println("Rebuilding sales rollups...");
+            return rebuildRollups();
+        });
+    }
+}
@@ -0,0 +1,140 @@
+package com.group16.grocery_app.db.service;
+
+import com.group16.grocery_app.config.AppConfig;
+import com.group16.grocery_app.db.repository.ReservationRepository;
+
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service class for stock holds on cart items.
+ * Provides a higher-level API over {@link ReservationRepository} and handles exceptions gracefully.
+ * Holds last {@code cart.reservation.ttlSeconds} (default 15 minutes) and are extended
+ * whenever the customer opens the cart; expired holds are deleted every
+ * {@code cart.reservation.sweepSeconds} (default 60) by {@link #startSweeper()}.
+ *
+ * @author Ege Usug
+ */
+public class ReservationService {
+
+    private static final int TTL_SECONDS =
+            Math.max(1, AppConfig.getInstance().getInt("cart.reservation.ttlSeconds", 900));
+    private static final int SWEEP_SECONDS =
+            Math.max(1, AppConfig.getInstance().getInt("cart.reservation.sweepSeconds", 60));
+
+    private static volatile boolean sweeperStarted;
+
+    private final ReservationRepository reservationRepository;
+
+    /**
+     * Creates a new ReservationService instance and initializes its repository dependency.
+     *
+     * @author Ege Usug
+     */
+    public ReservationService() {
+        this.reservationRepository = new ReservationRepository();
+    }
+
+    /**
+     * Holds the given total cart quantity of a product for a customer in the background.
+     *
+     * @param userId ID of the customer
+     * @param productId ID of the product
+     * @param quantity total quantity of the product in the cart after the change
+     * @return future completed with the stock available to the customer (the hold was placed
+     *         if it is at least {@code quantity}); -1 if an error occurs
+     * @author Ege Usug
+     */
+    public CompletableFuture<Double> reserveAsync(int userId, int productId, double quantity) {
+        return ServiceExecutor.supplyAsync(() -> {
+            try {
+                return reservationRepository.reserve(userId, productId, quantity, TTL_SECONDS);
+            } catch (SQLException e) {
+                e.printStackTrace();
+                return -1.0;
+            }
+        });
+    }
+
+    /**
+     * Extends a customer's active holds in the background.
+     *
+     * @param userId ID of the customer
+     * @return future completed when done
+     * @author Ege Usug
+     */
+    public CompletableFuture<Void> extendAsync(int userId) {
+        return ServiceExecutor.runAsync(() -> {
+            try {
+                reservationRepository.extend(userId, TTL_SECONDS);
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+        });
+    }
+
+    /**
+     * Releases a customer's hold on a product in the background.
+     *
+     * @param userId ID of the customer
+     * @param productId ID of the product
+     * @return future completed when done
+     * @author Ege Usug
+     */
+    public CompletableFuture<Void> releaseAsync(int userId, int productId) {
+        return ServiceExecutor.runAsync(() -> {
+            try {
+                reservationRepository.release(userId, productId);
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+        });
+    }
+
+    /**
+     * Releases all holds of a customer in the background.
+     *
+     * @param userId ID of the customer
+     * @return future completed when done
+     * @author Ege Usug
+     */
+    public CompletableFuture<Void> releaseAllAsync(int userId) {
+        return ServiceExecutor.runAsync(() -> {
+            try {
+                reservationRepository.releaseAll(userId);
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+        });
+    }
+
+    /**
+     * Deletes expired holds.
+     *
+     * @return number of holds deleted, 0 if an error occurs
+     * @author Ege Usug
+     */
+    public int sweepExpired() {
+        try {
+            return reservationRepository.deleteExpired();
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return 0;
+        }
+    }
+
+    /**
+     * Starts the background job that deletes expired holds. Calling it again has no effect.
+     *
+     * @author Ege Usug
+     */
+    public static synchronized void startSweeper() {
+        if (sweeperStarted) {
+            return;
+        }
+        sweeperStarted = true;
+        ReservationService service = new ReservationService();
+        ServiceExecutor.scheduleWithFixedDelay(service::sweepExpired, SWEEP_SECONDS, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,90 @@
+package com.group16.grocery_app.db.service;
+
+import javafx.application.Platform;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs blocking service calls off the JavaFX Application Thread.
+ * Every task gets its own virtual thread, so waiting on the database or the connection
+ * pool costs no platform thread; the pool size still bounds how many queries run at once.
+ * Results are handed back to the UI with {@link #FX}, e.g.
+ * {@code productService.getAllProductsAsync().thenAcceptAsync(this::showProducts, ServiceExecutor.FX)}.
+ *
+ * @author Mert Bölükbaşı
+ */
+public final class ServiceExecutor {
+
+    /** Runs continuations on the JavaFX Application Thread. */
+    public static final Executor FX = Platform::runLater;
+
+    private static final ExecutorService EXECUTOR =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("service-", 0).factory());
+
+    /** Triggers periodic jobs; the jobs themselves run on {@link #EXECUTOR}. */
+    private static final ScheduledExecutorService SCHEDULER =
+            Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("service-scheduler").daemon().factory());
+
+    private ServiceExecutor() {
+    }
+
+    /**
+     * Runs a blocking call in the background.
+     *
+     * @param task call to run
+     * @param <T> result type
+     * @return future completed with the call's result
+     * @author Mert Bölükbaşı
+     */
+    public static <T> CompletableFuture<T> supplyAsync(Supplier<T> task) {
+        return CompletableFuture.supplyAsync(task, EXECUTOR);
+    }
+
+    /**
+     * Runs a blocking call without a result in the background.
+     *
+     * @param task call to run
+     * @return future completed when the call returns
+     * @author Mert Bölükbaşı
+     */
+    public static CompletableFuture<Void> runAsync(Runnable task) {
+        return CompletableFuture.runAsync(task, EXECUTOR);
+    }
+
+    /**
+     * Runs a background job repeatedly, waiting {@code delay} between the end of one run and
+     * the start of the next. A run that throws is logged and does not stop later runs.
+     *
+     * @param task job to run
+     * @param delay delay before the first run and between runs
+     * @param unit unit of {@code delay}
+     * @return handle to cancel the job
+     * @author Mert Bölükbaşı
+     */
+    public static ScheduledFuture<?> scheduleWithFixedDelay(Runnable task, long delay, TimeUnit unit) {
+        return SCHEDULER.scheduleWithFixedDelay(() -> {
+            try {
+                runAsync(task).join();
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }, delay, delay, unit);
+    }
+
+    /**
+     * Stops accepting new calls and cancels scheduled jobs. Calls already running are allowed to finish.
+     *
+     * @author Mert Bölükbaşı
+     */
+    public static void shutdown() {
+        SCHEDULER.shutdownNow();
+        EXECUTOR.shutdown();
+    }
+}
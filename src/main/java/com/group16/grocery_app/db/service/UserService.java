@@ -1,10 +1,13 @@
 package com.group16.grocery_app.db.service;
 
+import com.group16.grocery_app.db.repository.OrderRepository;
 import com.group16.grocery_app.db.repository.UserRepository;
 import com.group16.grocery_app.model.User;
 import javafx.collections.ObservableList;
 
 import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Service class for user-related operations.
@@ -15,6 +18,7 @@ import java.sql.SQLException;
 public class UserService {
 
     private UserRepository userRepository;
+    private final OrderRepository orderRepository = new OrderRepository();
 
     /**
      * Creates a new UserService instance.
@@ -100,6 +104,36 @@ public class UserService {
         }
     }
 
+    /**
+     * Gets all carrier users with their average rating filled in.
+     * All ratings are read with a single grouped query.
+     *
+     * @return list of carrier users, empty list on error
+     * @author Mert Bölükbaşı
+     */
+    public ObservableList<User> getCarriersWithRatings() {
+        ObservableList<User> carriers = getCarriers();
+        try {
+            Map<Integer, Double> ratings = orderRepository.getAverageCarrierRatings();
+            for (User carrier : carriers) {
+                carrier.setAverageRating(ratings.getOrDefault(carrier.getId(), -1.0));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return carriers;
+    }
+
+    /**
+     * Gets all carrier users with their average rating in the background.
+     *
+     * @return future completed with the carriers, empty list on error
+     * @author Mert Bölükbaşı
+     */
+    public CompletableFuture<ObservableList<User>> getCarriersWithRatingsAsync() {
+        return ServiceExecutor.supplyAsync(this::getCarriersWithRatings);
+    }
+
     /**
      * Creates a new carrier user.
      *
@@ -4,17 +4,26 @@ import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Model class representing a shopping cart.
  * Manages cart items, discounts, and checkout operations.
+ * Items are indexed by product ID and the subtotal is kept up to date on every change,
+ * so lookups and totals do not scan the item list. The subtotal is kept in whole cents,
+ * so it does not drift however often items change. Item prices are recalculated from the
+ * products with {@link #refreshEffectivePrices()}, which checkout also does.
  *
  * @author Ege Usug
  */
 public class Cart {
 
     private ObservableList<CartItem> items = FXCollections.observableArrayList();
+    private final ObservableList<CartItem> readOnlyItems = FXCollections.unmodifiableObservableList(items);
+    private final Map<Integer, CartItem> itemsByProductId = new HashMap<>();
+    private long subtotalCents = 0;
     private double couponDiscount = 0.0;
     private double loyaltyDiscount = 0.0;
     private String appliedCouponCode = null;
@@ -27,39 +36,55 @@ public class Cart {
      * @author Ege Usug
      */
     public void addProduct(Product product, double quantity) {
-
-        for (CartItem item : items) {
-            if (item.getProduct().getId() == product.getId()) {
-                item.addQuantity(quantity);
-                refreshEffectivePrices();
-                return;
-            }
+        CartItem existing = itemsByProductId.get(product.getId());
+        if (existing != null) {
+            existing.addQuantity(quantity);
+            return;
         }
 
         CartItem newItem = new CartItem(product, quantity, this);
+        itemsByProductId.put(product.getId(), newItem);
         items.add(newItem);
-        refreshEffectivePrices();
+        subtotalCents += newItem.getTotalCents();
     }
 
     /**
-     * Refreshes effective prices for all cart items.
+     * Recalculates all item prices and the subtotal from the current product prices and stock.
+     * Needed when product data may have changed since the items were added, e.g. after a
+     * catalog update or when a time-of-day price starts or ends.
      *
      * @author Ege Usug
      */
     public void refreshEffectivePrices() {
+        long total = 0;
         for (CartItem item : items) {
             item.setCart(this);
+            item.recalculate();
+            total += item.getTotalCents();
         }
+        subtotalCents = total;
+    }
+
+    /**
+     * Applies the change of an item's total to the running subtotal.
+     *
+     * @param previousCents item total in cents before the change
+     * @param newCents item total in cents after the change
+     * @author Ege Usug
+     */
+    void onItemTotalChanged(long previousCents, long newCents) {
+        subtotalCents += newCents - previousCents;
     }
 
     /**
      * Gets the list of items in the cart.
+     * The list is read-only; use {@link #addProduct} and {@link #removeProduct} to change the cart.
      *
      * @return ObservableList of cart items
      * @author Ege Usug
      */
     public ObservableList<CartItem> getItems() {
-        return items;
+        return readOnlyItems;
     }
 
     /**
@@ -70,14 +95,8 @@ public class Cart {
      * @author Ege Usug
      */
     public double getQuantityOfProduct(Product product) {
-
-        for (CartItem item : items) {
-            if (item.getProduct().getId() == product.getId()) {
-                return item.getQuantity();
-            }
-        }
-
-        return 0.0;
+        CartItem item = itemsByProductId.get(product.getId());
+        return item != null ? item.getQuantity() : 0.0;
     }
 
     /**
@@ -87,11 +106,7 @@ public class Cart {
      * @author Ege Usug
      */
     public double getTotal() {
-        double total = 0;
-        for (CartItem item : items) {
-            total += item.getTotalPrice();
-        }
-        return total;
+        return subtotalCents / 100.0;
     }
 
     /**
@@ -186,8 +201,13 @@ public class Cart {
      * @author Ege Usug
      */
     public void removeProduct(Product product) {
-        items.removeIf(item -> item.getProduct().getId() == product.getId());
-        refreshEffectivePrices();
+        CartItem removed = itemsByProductId.remove(product.getId());
+        if (removed == null) {
+            return;
+        }
+        items.remove(removed);
+        removed.setCart(null);
+        subtotalCents -= removed.getTotalCents();
     }
 
     /**
@@ -198,6 +218,7 @@ public class Cart {
      * @author Ege Usug
      */
     public Order checkout(double vatRate) {
+        refreshEffectivePrices();
         List<OrderItem> orderItems = new ArrayList<>();
 
         for (CartItem item : items) {
@@ -218,6 +239,7 @@ public class Cart {
      * @author Ege Usug
      */
     public Order checkout(double vatRate, java.time.LocalDateTime deliveryDate) {
+        refreshEffectivePrices();
         List<OrderItem> orderItems = new ArrayList<>();
 
         for (CartItem item : items) {
@@ -237,6 +259,8 @@ public class Cart {
      */
     public void clear() {
         items.clear();
+        itemsByProductId.clear();
+        subtotalCents = 0;
         couponDiscount = 0.0;
         loyaltyDiscount = 0.0;
         appliedCouponCode = null;
@@ -11,6 +11,9 @@ public class CartItem {
     private Product product;
     private double quantity;
     private Cart cart;
+    private double effectivePrice;
+    /** Line total rounded to whole cents, so the cart can keep an exact running subtotal. */
+    private long totalCents;
 
     /**
      * Creates a new cart item.
@@ -22,6 +25,7 @@ public class CartItem {
     public CartItem(Product product, double quantity) {
         this.product = product;
         this.quantity = quantity;
+        recalculate();
     }
 
     /**
@@ -36,6 +40,7 @@ public class CartItem {
         this.product = product;
         this.quantity = quantity;
         this.cart = cart;
+        recalculate();
     }
 
     /**
@@ -65,7 +70,7 @@ public class CartItem {
      * @author Ege Usug
      */
     public void addQuantity(double amount) {
-        this.quantity+=amount;
+        setQuantity(quantity + amount);
     }
 
     /**
@@ -79,35 +84,59 @@ public class CartItem {
     }
 
     /**
-     * Calculates the total price for this cart item.
+     * Gets the total price for this cart item.
+     * The value is cached and recalculated when the quantity or the prices change.
      *
-     * @return The total price (quantity × effective price)
+     * @return The total price (quantity × effective price, rounded to cents)
      * @author Ege Usug
      */
     public double getTotalPrice() {
-        double cartQuantity = cart != null ? cart.getQuantityOfProduct(product) : quantity;
-        double effectivePrice = product.getEffectivePrice(cartQuantity);
-        return quantity * effectivePrice;
+        return totalCents / 100.0;
+    }
+
+    /**
+     * Gets the total price for this cart item in cents.
+     *
+     * @return The total price in cents
+     * @author Ege Usug
+     */
+    long getTotalCents() {
+        return totalCents;
     }
 
     /**
      * Gets the effective price per unit based on stock levels.
+     * A product appears only once in a cart, so the quantity of this item is the cart quantity.
      *
      * @return The effective price per unit
      * @author Ege Usug
      */
     public double getEffectivePrice() {
-        double cartQuantity = cart != null ? cart.getQuantityOfProduct(product) : quantity;
-        return product.getEffectivePrice(cartQuantity);
+        return effectivePrice;
     }
 
     /**
-     * Sets the quantity.
+     * Sets the quantity and updates the cart subtotal.
      *
      * @param quantity The new quantity
      * @author Ege Usug
      */
     public void setQuantity(double quantity) {
-        this.quantity=quantity;
+        this.quantity = quantity;
+        long previousCents = totalCents;
+        recalculate();
+        if (cart != null) {
+            cart.onItemTotalChanged(previousCents, totalCents);
+        }
+    }
+
+    /**
+     * Recalculates the cached prices from the current product price and stock.
+     *
+     * @author Ege Usug
+     */
+    void recalculate() {
+        effectivePrice = product.getEffectivePrice(quantity);
+        totalCents = Math.round(quantity * effectivePrice * 100);
     }
 }
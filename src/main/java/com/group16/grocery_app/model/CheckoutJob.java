@@ -0,0 +1,88 @@
+package com.group16.grocery_app.model;
+
+/**
+ * A pending checkout follow-up stored in the checkout outbox.
+ * @author Oğuzhan Aydın
+ */
+public class CheckoutJob {
+
+    private final int id;
+    private final int orderId;
+    private final int customerId;
+    private final CheckoutStage stage;
+    private final String argument;
+    private final int attempts;
+
+    /**
+     * Creates a job as read from the outbox.
+     * @param id The job ID.
+     * @param orderId The ID of the order the job belongs to.
+     * @param customerId The ID of the customer who placed the order.
+     * @param stage The work to do.
+     * @param argument Stage specific data, e.g. the coupon code; may be null.
+     * @param attempts Number of failed attempts so far.
+     * @author Oğuzhan Aydın
+     */
+    public CheckoutJob(int id, int orderId, int customerId, CheckoutStage stage, String argument, int attempts) {
+        this.id = id;
+        this.orderId = orderId;
+        this.customerId = customerId;
+        this.stage = stage;
+        this.argument = argument;
+        this.attempts = attempts;
+    }
+
+    /**
+     * Gets the job ID.
+     * @return The job ID.
+     * @author Oğuzhan Aydın
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Gets the ID of the order the job belongs to.
+     * @return The order ID.
+     * @author Oğuzhan Aydın
+     */
+    public int getOrderId() {
+        return orderId;
+    }
+
+    /**
+     * Gets the ID of the customer who placed the order.
+     * @return The customer ID.
+     * @author Oğuzhan Aydın
+     */
+    public int getCustomerId() {
+        return customerId;
+    }
+
+    /**
+     * Gets the work to do.
+     * @return The stage.
+     * @author Oğuzhan Aydın
+     */
+    public CheckoutStage getStage() {
+        return stage;
+    }
+
+    /**
+     * Gets the stage specific data.
+     * @return The argument, or null if the stage has none.
+     * @author Oğuzhan Aydın
+     */
+    public String getArgument() {
+        return argument;
+    }
+
+    /**
+     * Gets the number of failed attempts so far.
+     * @return The attempt count.
+     * @author Oğuzhan Aydın
+     */
+    public int getAttempts() {
+        return attempts;
+    }
+}
@@ -0,0 +1,23 @@
+package com.group16.grocery_app.model;
+
+/**
+ * Follow-up work that runs after a checkout has been committed.
+ * @author Oğuzhan Aydın
+ */
+public enum CheckoutStage {
+    /**
+     * Render and store the text invoice.
+     */
+    INVOICE,
+
+    /**
+     * Mark the coupon used at checkout as used. Only jobs queued by older versions have this
+     * stage; checkouts now use the coupon in their own transaction.
+     */
+    COUPON,
+
+    /**
+     * Award the customer's loyalty points for the order.
+     */
+    LOYALTY
+}
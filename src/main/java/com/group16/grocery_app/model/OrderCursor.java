@@ -0,0 +1,53 @@
+package com.group16.grocery_app.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Position in an order listing sorted by order date and ID, newest first.
+ * A page request with a cursor returns the orders that come strictly after it.
+ * @author Oğuzhan Aydın
+ */
+public class OrderCursor {
+
+    private final LocalDateTime orderDate;
+    private final int orderId;
+
+    /**
+     * Creates a cursor pointing at an order.
+     * @param orderDate The order date of the last order already shown.
+     * @param orderId The ID of the last order already shown.
+     * @author Oğuzhan Aydın
+     */
+    public OrderCursor(LocalDateTime orderDate, int orderId) {
+        this.orderDate = orderDate;
+        this.orderId = orderId;
+    }
+
+    /**
+     * Creates a cursor pointing at the given order.
+     * @param order The last order already shown.
+     * @return The cursor after that order.
+     * @author Oğuzhan Aydın
+     */
+    public static OrderCursor after(Order order) {
+        return new OrderCursor(order.getCreatedAt(), order.getId());
+    }
+
+    /**
+     * Gets the order date of the cursor position.
+     * @return The order date.
+     * @author Oğuzhan Aydın
+     */
+    public LocalDateTime getOrderDate() {
+        return orderDate;
+    }
+
+    /**
+     * Gets the order ID of the cursor position.
+     * @return The order ID.
+     * @author Oğuzhan Aydın
+     */
+    public int getOrderId() {
+        return orderId;
+    }
+}
@@ -0,0 +1,61 @@
+package com.group16.grocery_app.model;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of an order listing, together with the cursor for the next page.
+ * @author Oğuzhan Aydın
+ */
+public class OrderPage {
+
+    private final List<Order> orders;
+    private final OrderCursor nextCursor;
+
+    /**
+     * Creates a page.
+     * @param orders The orders on this page, newest first.
+     * @param nextCursor The cursor for the next page, or null if this is the last page.
+     * @author Oğuzhan Aydın
+     */
+    public OrderPage(List<Order> orders, OrderCursor nextCursor) {
+        this.orders = orders;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Creates an empty last page.
+     * @return The empty page.
+     * @author Oğuzhan Aydın
+     */
+    public static OrderPage empty() {
+        return new OrderPage(Collections.emptyList(), null);
+    }
+
+    /**
+     * Gets the orders on this page.
+     * @return The orders, newest first.
+     * @author Oğuzhan Aydın
+     */
+    public List<Order> getOrders() {
+        return orders;
+    }
+
+    /**
+     * Gets the cursor to request the next page with.
+     * @return The next cursor, or null if there are no more orders.
+     * @author Oğuzhan Aydın
+     */
+    public OrderCursor getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * Checks whether more orders follow this page.
+     * @return True if another page can be loaded.
+     * @author Oğuzhan Aydın
+     */
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,47 @@
+package com.group16.grocery_app.model;
+
+/**
+ * A product's prices by remaining stock, compiled from the {@link PricingRules} when the
+ * product is loaded or its price or threshold changes. Looking up a price is a binary search
+ * over a few primitive values and does not allocate, so views can call it on every update.
+ *
+ * @author Mert Bölükbaşı
+ */
+public final class PriceTable {
+
+    private final PricingRules rules;
+    private final double basePrice;
+    /** Highest remaining stock of each tier, ascending. */
+    private final double[] limits;
+    private final double[] prices;
+
+    PriceTable(PricingRules rules, double basePrice, double[] limits, double[] prices) {
+        this.rules = rules;
+        this.basePrice = basePrice;
+        this.limits = limits;
+        this.prices = prices;
+    }
+
+    /**
+     * Gets the unit price when the given stock is left, including the current time-of-day factor.
+     *
+     * @param remainingStock stock left after the quantity being priced
+     * @return unit price
+     * @author Mert Bölükbaşı
+     */
+    public double priceFor(double remainingStock) {
+        // First tier whose limit the remaining stock does not exceed
+        int low = 0;
+        int high = limits.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (limits[mid] < remainingStock) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        double price = low < limits.length ? prices[low] : basePrice;
+        return price * rules.timeFactor();
+    }
+}
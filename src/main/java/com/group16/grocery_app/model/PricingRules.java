@@ -0,0 +1,252 @@
+package com.group16.grocery_app.model;
+
+import com.group16.grocery_app.config.AppConfig;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.zone.ZoneOffsetTransition;
+import java.util.Arrays;
+
+/**
+ * Store-wide price rules: stock tiers, relative to each product's threshold, and time-of-day
+ * factors. Read once from {@code grocery.properties}:
+ * <ul>
+ *     <li>{@code pricing.stockTiers} - {@code limit=factor} pairs; the price is multiplied by
+ *     the factor of the lowest tier whose {@code limit × threshold} the remaining stock does not
+ *     exceed. The default {@code 1=2} doubles the price when stock is at or below the threshold.</li>
+ *     <li>{@code pricing.timeOfDay} - {@code HH:mm-HH:mm=factor} ranges (the end is exclusive and
+ *     may wrap past midnight, {@code 00:00-24:00} is the whole day); later ranges win where they
+ *     overlap. Default: none.</li>
+ * </ul>
+ * Products compile the stock tiers into a {@link PriceTable} with their own price and threshold.
+ * The time factors are kept here as sorted segment starts, since they are the same for every product.
+ *
+ * @author Mert Bölükbaşı
+ */
+public final class PricingRules {
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+    private static final String DEFAULT_STOCK_TIERS = "1=2";
+
+    private static PricingRules current;
+
+    /** Tier limits in multiples of the threshold, ascending. */
+    private final double[] stockLimits;
+    private final double[] stockFactors;
+    /** Minute of the day each time segment starts at, ascending; the first is 0. */
+    private final int[] segmentStarts;
+    private final double[] segmentFactors;
+
+    private PricingRules(double[] stockLimits, double[] stockFactors, int[] segmentStarts, double[] segmentFactors) {
+        this.stockLimits = stockLimits;
+        this.stockFactors = stockFactors;
+        this.segmentStarts = segmentStarts;
+        this.segmentFactors = segmentFactors;
+    }
+
+    /**
+     * Returns the configured rules. Invalid settings are reported and replaced by the defaults.
+     *
+     * @return the store's price rules
+     * @author Mert Bölükbaşı
+     */
+    public static synchronized PricingRules current() {
+        if (current == null) {
+            AppConfig config = AppConfig.getInstance();
+            current = parse(config.get("pricing.stockTiers", DEFAULT_STOCK_TIERS), config.get("pricing.timeOfDay", ""));
+        }
+        return current;
+    }
+
+    /**
+     * Parses price rules from their {@code grocery.properties} values.
+     *
+     * @param stockTiers value of {@code pricing.stockTiers}
+     * @param timeOfDay value of {@code pricing.timeOfDay}
+     * @return the rules, with defaults for invalid settings
+     * @author Mert Bölükbaşı
+     */
+    static PricingRules parse(String stockTiers, String timeOfDay) {
+        double[][] tiers;
+        try {
+            tiers = parseStockTiers(stockTiers);
+        } catch (RuntimeException e) {
+            System.err.println("Invalid pricing.stockTiers '" + stockTiers + "', using " + DEFAULT_STOCK_TIERS + ": " + e.getMessage());
+            tiers = parseStockTiers(DEFAULT_STOCK_TIERS);
+        }
+
+        double[] factorByMinute = new double[MINUTES_PER_DAY];
+        Arrays.fill(factorByMinute, 1);
+        try {
+            applyTimeRanges(timeOfDay, factorByMinute);
+        } catch (RuntimeException e) {
+            System.err.println("Invalid pricing.timeOfDay '" + timeOfDay + "', ignoring it: " + e.getMessage());
+            Arrays.fill(factorByMinute, 1);
+        }
+
+        // Merge equal neighbouring minutes into segments
+        int count = 0;
+        int[] starts = new int[MINUTES_PER_DAY];
+        double[] factors = new double[MINUTES_PER_DAY];
+        for (int minute = 0; minute < MINUTES_PER_DAY; minute++) {
+            if (count == 0 || factors[count - 1] != factorByMinute[minute]) {
+                starts[count] = minute;
+                factors[count++] = factorByMinute[minute];
+            }
+        }
+        return new PricingRules(tiers[0], tiers[1], Arrays.copyOf(starts, count), Arrays.copyOf(factors, count));
+    }
+
+    private static double[][] parseStockTiers(String text) {
+        String[] entries = text.isBlank() ? new String[0] : text.split(",");
+        double[][] pairs = new double[entries.length][];
+        for (int i = 0; i < entries.length; i++) {
+            String[] parts = entries[i].split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("expected limit=factor, got '" + entries[i].trim() + "'");
+            }
+            double limit = Double.parseDouble(parts[0].trim());
+            double factor = Double.parseDouble(parts[1].trim());
+            if (limit < 0 || factor <= 0) {
+                throw new IllegalArgumentException("limit must be non-negative and factor positive in '" + entries[i].trim() + "'");
+            }
+            pairs[i] = new double[]{limit, factor};
+        }
+        Arrays.sort(pairs, (a, b) -> Double.compare(a[0], b[0]));
+
+        double[] limits = new double[pairs.length];
+        double[] factors = new double[pairs.length];
+        for (int i = 0; i < pairs.length; i++) {
+            limits[i] = pairs[i][0];
+            factors[i] = pairs[i][1];
+        }
+        return new double[][]{limits, factors};
+    }
+
+    private static void applyTimeRanges(String text, double[] factorByMinute) {
+        if (text.isBlank()) {
+            return;
+        }
+        for (String entry : text.split(",")) {
+            String[] parts = entry.split("=");
+            String[] range = parts[0].split("-");
+            if (parts.length != 2 || range.length != 2) {
+                throw new IllegalArgumentException("expected HH:mm-HH:mm=factor, got '" + entry.trim() + "'");
+            }
+            int start = parseMinute(range[0]);
+            int end = parseMinute(range[1]);
+            double factor = Double.parseDouble(parts[1].trim());
+            if (factor <= 0) {
+                throw new IllegalArgumentException("factor must be positive in '" + entry.trim() + "'");
+            }
+            // A range that ends where it starts covers the whole day
+            int minute = start;
+            do {
+                factorByMinute[minute] = factor;
+                minute = (minute + 1) % MINUTES_PER_DAY;
+            } while (minute != end);
+        }
+    }
+
+    private static int parseMinute(String time) {
+        String[] parts = time.trim().split(":");
+        int hour = Integer.parseInt(parts[0]);
+        int minute = parts.length > 1 ? Integer.parseInt(parts[1]) : 0;
+        if (hour < 0 || hour > 24 || minute < 0 || minute > 59 || hour * 60 + minute > MINUTES_PER_DAY) {
+            throw new IllegalArgumentException("invalid time '" + time.trim() + "'");
+        }
+        return (hour * 60 + minute) % MINUTES_PER_DAY;
+    }
+
+    /**
+     * Compiles the stock tiers for one product.
+     *
+     * @param price base price of the product
+     * @param threshold stock threshold of the product
+     * @return lookup table of the product's prices by remaining stock
+     * @author Mert Bölükbaşı
+     */
+    public PriceTable compile(double price, double threshold) {
+        double[] limits = new double[stockLimits.length];
+        double[] prices = new double[stockLimits.length];
+        for (int i = 0; i < limits.length; i++) {
+            limits[i] = stockLimits[i] * threshold;
+            prices[i] = price * stockFactors[i];
+        }
+        return new PriceTable(this, price, limits, prices);
+    }
+
+    /**
+     * Gets the time-of-day factor for the current time.
+     *
+     * @return price factor, 1 outside all configured ranges
+     * @author Mert Bölükbaşı
+     */
+    double timeFactor() {
+        if (segmentStarts.length == 1) {
+            return segmentFactors[0];
+        }
+        return timeFactorAt(Clock.minuteOfDay(System.currentTimeMillis()));
+    }
+
+    /**
+     * Gets the time-of-day factor for a minute of the day.
+     *
+     * @param minute minutes since local midnight
+     * @return price factor, 1 outside all configured ranges
+     * @author Mert Bölükbaşı
+     */
+    double timeFactorAt(int minute) {
+        int low = 0;
+        int high = segmentStarts.length - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (segmentStarts[mid] <= minute) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return segmentFactors[low];
+    }
+
+    /**
+     * Local minute of the day without allocating on every call: the wall-clock time is only
+     * recomputed at midnight and at offset changes such as daylight saving time.
+     */
+    private static final class Clock {
+        private static final ZoneId ZONE = ZoneId.systemDefault();
+        private static volatile Clock period = at(System.currentTimeMillis());
+
+        private final long start;
+        private final long end;
+        private final int startMinute;
+
+        private Clock(long start, long end, int startMinute) {
+            this.start = start;
+            this.end = end;
+            this.startMinute = startMinute;
+        }
+
+        private static int minuteOfDay(long now) {
+            Clock clock = period;
+            if (now < clock.start || now >= clock.end) {
+                clock = at(now);
+                period = clock;
+            }
+            return clock.startMinute + (int) ((now - clock.start) / 60_000);
+        }
+
+        private static Clock at(long now) {
+            ZonedDateTime time = Instant.ofEpochMilli(now).atZone(ZONE);
+            long start = now - now % 60_000;
+            long end = time.toLocalDate().plusDays(1).atStartOfDay(ZONE).toInstant().toEpochMilli();
+            ZoneOffsetTransition transition = ZONE.getRules().nextTransition(Instant.ofEpochMilli(now));
+            if (transition != null) {
+                end = Math.min(end, transition.toEpochSecond() * 1000);
+            }
+            return new Clock(start, end, time.getHour() * 60 + time.getMinute());
+        }
+    }
+}
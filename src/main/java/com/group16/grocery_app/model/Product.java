@@ -1,10 +1,14 @@
 package com.group16.grocery_app.model;
 
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.SimpleObjectProperty;
 import javafx.scene.image.Image;
 
 /**
  * Represents a product in the grocery store.
- * Handles pricing logic based on stock levels and thresholds.
+ * Handles pricing logic based on stock levels and thresholds; the store's
+ * {@link PricingRules} are compiled into a {@link PriceTable} whenever the price or
+ * threshold changes.
  *
  * @author Mert Bölükbaşı
  */
@@ -15,7 +19,11 @@ public class Product {
     private double price;
     private double stock;
     private double threshold;
-    private Image image;
+    private final ObjectProperty<Image> image = new SimpleObjectProperty<>();
+    private boolean hasImage;
+    private String imageHash;
+    private long version;
+    private PriceTable priceTable;
 
     /**
      * Creates a new product with all required information.
@@ -36,37 +44,55 @@ public class Product {
         this.price = price;
         this.stock = stock;
         this.threshold = threshold;
-        this.image = image;
+        this.image.set(image);
+        this.hasImage = image != null;
+        compilePrices();
+    }
+
+    /**
+     * Creates a product without its image.
+     * The image is loaded later on demand (see {@code ProductImageLoader}).
+     *
+     * @param id unique product identifier
+     * @param name product name
+     * @param type product type (FRUIT or VEGETABLE)
+     * @param price base price
+     * @param stock current stock quantity
+     * @param threshold stock threshold for price doubling
+     * @param hasImage whether an image is stored for this product
+     * @author Mert Bölükbaşı
+     */
+    public Product(int id, String name, ProductType type, double price, double stock, double threshold, boolean hasImage) {
+        this(id, name, type, price, stock, threshold, null);
+        this.hasImage = hasImage;
     }
 
     /**
      * Calculates the effective price based on current stock.
-     * Price doubles when stock falls below threshold.
+     * With the default rules the price doubles when stock is at or below the threshold.
      *
-     * @return effective price (doubled if stock <= threshold)
+     * @return effective price per unit
      * @author Mert Bölükbaşı
      */
     public double getEffectivePrice() {
-        if (stock <= threshold) {
-            return price * 2;
-        }
-        return price;
+        return priceTable.priceFor(stock);
     }
 
     /**
      * Calculates effective price considering items already in cart.
-     * Price doubles if remaining stock (after cart) falls below threshold.
+     * With the default rules the price doubles if the stock left after the cart is at or
+     * below the threshold.
      *
      * @param cartQuantity quantity of this product in the cart
-     * @return effective price (doubled if remaining stock <= threshold)
+     * @return effective price per unit
      * @author Mert Bölükbaşı
      */
     public double getEffectivePrice(double cartQuantity) {
-        double remainingStock = stock - cartQuantity;
-        if (remainingStock <= threshold) {
-            return price * 2;
-        }
-        return price;
+        return priceTable.priceFor(stock - cartQuantity);
+    }
+
+    private void compilePrices() {
+        priceTable = PricingRules.current().compile(price, threshold);
     }
 
     /**
@@ -120,10 +146,66 @@ public class Product {
     /**
      * Gets the product image.
      *
-     * @return product image
+     * @return product image, or null if not loaded yet
      * @author Mert Bölükbaşı
      */
-    public Image getImage() { return image; }
+    public Image getImage() { return image.get(); }
+
+    /**
+     * Sets the product image once it has been loaded.
+     *
+     * @param image decoded product image
+     * @author Mert Bölükbaşı
+     */
+    public void setImage(Image image) { this.image.set(image); }
+
+    /**
+     * Gets the image property, so views can show the image when it arrives.
+     *
+     * @return image property
+     * @author Mert Bölükbaşı
+     */
+    public ObjectProperty<Image> imageProperty() { return image; }
+
+    /**
+     * Checks whether an image is stored for this product.
+     *
+     * @return true if the product has an image in the database
+     * @author Mert Bölükbaşı
+     */
+    public boolean hasImage() { return hasImage; }
+
+    /**
+     * Gets the content hash of the stored image, used as image cache key.
+     *
+     * @return SHA-256 hex of the image bytes, or null if not computed yet
+     * @author Mert Bölükbaşı
+     */
+    public String getImageHash() { return imageHash; }
+
+    /**
+     * Sets the content hash of the stored image.
+     *
+     * @param imageHash SHA-256 hex of the image bytes
+     * @author Mert Bölükbaşı
+     */
+    public void setImageHash(String imageHash) { this.imageHash = imageHash; }
+
+    /**
+     * Gets the catalog version this product's data was last changed at.
+     *
+     * @return catalog version
+     * @author Mert Bölükbaşı
+     */
+    public long getVersion() { return version; }
+
+    /**
+     * Sets the catalog version this product's data was last changed at.
+     *
+     * @param version catalog version
+     * @author Mert Bölükbaşı
+     */
+    public void setVersion(long version) { this.version = version; }
 
     /**
      * Sets the product price.
@@ -131,7 +213,10 @@ public class Product {
      * @param price new price
      * @author Mert Bölükbaşı
      */
-    public void setPrice(double price) { this.price = price; }
+    public void setPrice(double price) {
+        this.price = price;
+        compilePrices();
+    }
 
     /**
      * Sets the stock quantity.
@@ -147,5 +232,34 @@ public class Product {
      * @param threshold new threshold value
      * @author Mert Bölükbaşı
      */
-    public void setThreshold(double threshold) { this.threshold = threshold; }
-}
\ No newline at end of file
+    public void setThreshold(double threshold) {
+        this.threshold = threshold;
+        compilePrices();
+    }
+
+    /**
+     * Copies the catalog data of a newer copy of this product, e.g. from the catalog change feed.
+     * The loaded image is dropped if the stored image changed, so it is loaded again when shown.
+     *
+     * @param source newer copy of this product
+     * @author Mert Bölükbaşı
+     */
+    public void updateFrom(Product source) {
+        this.name = source.name;
+        this.type = source.type;
+        this.price = source.price;
+        this.stock = source.stock;
+        this.threshold = source.threshold;
+        this.version = source.version;
+        this.priceTable = source.priceTable;
+        boolean imageChanged = hasImage != source.hasImage
+                || (source.imageHash != null && !source.imageHash.equals(imageHash));
+        this.hasImage = source.hasImage;
+        if (source.imageHash != null || !source.hasImage) {
+            this.imageHash = source.imageHash;
+        }
+        if (imageChanged) {
+            this.image.set(null);
+        }
+    }
+}
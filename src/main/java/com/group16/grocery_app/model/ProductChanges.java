@@ -0,0 +1,60 @@
+package com.group16.grocery_app.model;
+
+import java.util.List;
+
+/**
+ * Product changes between two catalog versions, as returned by the catalog change feed.
+ *
+ * @author Ege Usug
+ */
+public class ProductChanges {
+    private final List<Product> changed;
+    private final List<Integer> removedIds;
+    private final long version;
+
+    /**
+     * Creates a change set.
+     *
+     * @param changed products added or updated since the requested version, without image data
+     * @param removedIds IDs of products removed since the requested version
+     * @param version catalog version the changes lead up to
+     * @author Ege Usug
+     */
+    public ProductChanges(List<Product> changed, List<Integer> removedIds, long version) {
+        this.changed = List.copyOf(changed);
+        this.removedIds = List.copyOf(removedIds);
+        this.version = version;
+    }
+
+    /**
+     * Gets the added or updated products.
+     *
+     * @return changed products
+     * @author Ege Usug
+     */
+    public List<Product> getChanged() { return changed; }
+
+    /**
+     * Gets the IDs of removed products.
+     *
+     * @return removed product IDs
+     * @author Ege Usug
+     */
+    public List<Integer> getRemovedIds() { return removedIds; }
+
+    /**
+     * Gets the catalog version the changes lead up to; pass it to the next delta query.
+     *
+     * @return catalog version
+     * @author Ege Usug
+     */
+    public long getVersion() { return version; }
+
+    /**
+     * Checks whether nothing changed.
+     *
+     * @return true if no product was added, updated or removed
+     * @author Ege Usug
+     */
+    public boolean isEmpty() { return changed.isEmpty() && removedIds.isEmpty(); }
+}
@@ -0,0 +1,102 @@
+package com.group16.grocery_app.model;
+
+import java.time.YearMonth;
+import java.util.Collections;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Summary figures shown on the owner's reports tab.
+ * Holds total revenue and order count, the number of carriers, orders per status,
+ * and revenue per month in chronological order.
+ *
+ * @author Yiğit Emre Ünlüçerçi
+ */
+public class SalesReport {
+    private final double totalRevenue;
+    private final int totalOrders;
+    private final int activeCarriers;
+    private final Map<String, Integer> ordersByStatus;
+    private final SortedMap<YearMonth, Double> monthlyRevenue;
+
+    /**
+     * Creates a new SalesReport instance.
+     *
+     * @param totalRevenue sum of all order totals
+     * @param totalOrders number of orders
+     * @param activeCarriers number of carrier accounts
+     * @param ordersByStatus number of orders per status name
+     * @param monthlyRevenue revenue per month
+     * @author Yiğit Emre Ünlüçerçi
+     */
+    public SalesReport(double totalRevenue, int totalOrders, int activeCarriers,
+                       Map<String, Integer> ordersByStatus, Map<YearMonth, Double> monthlyRevenue) {
+        this.totalRevenue = totalRevenue;
+        this.totalOrders = totalOrders;
+        this.activeCarriers = activeCarriers;
+        this.ordersByStatus = Collections.unmodifiableMap(ordersByStatus);
+        this.monthlyRevenue = Collections.unmodifiableSortedMap(new TreeMap<>(monthlyRevenue));
+    }
+
+    /**
+     * Returns a report with all figures zero, used when the data cannot be read.
+     *
+     * @return empty report
+     * @author Yiğit Emre Ünlüçerçi
+     */
+    public static SalesReport empty() {
+        return new SalesReport(0, 0, 0, Map.of(), Map.of());
+    }
+
+    /**
+     * Returns the sum of all order totals.
+     *
+     * @return total revenue
+     * @author Yiğit Emre Ünlüçerçi
+     */
+    public double getTotalRevenue() {
+        return totalRevenue;
+    }
+
+    /**
+     * Returns the number of orders.
+     *
+     * @return order count
+     * @author Yiğit Emre Ünlüçerçi
+     */
+    public int getTotalOrders() {
+        return totalOrders;
+    }
+
+    /**
+     * Returns the number of carrier accounts.
+     *
+     * @return carrier count
+     * @author Yiğit Emre Ünlüçerçi
+     */
+    public int getActiveCarriers() {
+        return activeCarriers;
+    }
+
+    /**
+     * Returns the number of orders per status name (e.g. "Pending").
+     * Statuses without orders are absent.
+     *
+     * @return read-only map of status to order count
+     * @author Yiğit Emre Ünlüçerçi
+     */
+    public Map<String, Integer> getOrdersByStatus() {
+        return ordersByStatus;
+    }
+
+    /**
+     * Returns the revenue per month, oldest month first. Months without orders are absent.
+     *
+     * @return read-only map of month to revenue
+     * @author Yiğit Emre Ünlüçerçi
+     */
+    public SortedMap<YearMonth, Double> getMonthlyRevenue() {
+        return monthlyRevenue;
+    }
+}
@@ -16,6 +16,7 @@ public class User {
     private String address;
     private String phoneNumber;
     private int loyaltyPoints;
+    private double averageRating = -1.0;
 
     /**
      * Creates a new user with all required information.
@@ -123,6 +124,22 @@ public class User {
      */
     public void setPhoneNumber(String phoneNumber) { this.phoneNumber = phoneNumber; }
 
+    /**
+     * Gets the carrier's average delivery rating, as loaded with the carrier list.
+     *
+     * @return average rating, or -1 if the carrier has no ratings or they were not loaded
+     * @author Mert Bölükbaşı
+     */
+    public double getAverageRating() { return averageRating; }
+
+    /**
+     * Sets the carrier's average delivery rating.
+     *
+     * @param averageRating average rating, or -1 if there are no ratings
+     * @author Mert Bölükbaşı
+     */
+    public void setAverageRating(double averageRating) { this.averageRating = averageRating; }
+
     public String getPassword() {
         return this.password;
     }
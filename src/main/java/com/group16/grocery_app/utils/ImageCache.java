@@ -0,0 +1,247 @@
+package com.group16.grocery_app.utils;
+
+import com.group16.grocery_app.config.AppConfig;
+import javafx.scene.image.Image;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Two-tier cache for product thumbnails, keyed by the SHA-256 hash of the original image bytes.
+ * <p>
+ * Thumbnails are scaled once and stored as small PNG files in the cache directory
+ * ({@code image.cache.dir}, default {@code ~/.grocery-app/image-cache}), so later launches
+ * read a few KB per product instead of the full photo from the database. Decoded images are
+ * kept in an in-memory LRU bounded by pixel bytes ({@code image.cache.memoryBytes}).
+ * Because entries are content addressed, a changed image simply gets a new key; the old
+ * entries are removed with {@link #invalidate(String)}.
+ *
+ * @author Ege Usug
+ */
+public class ImageCache {
+
+    /**
+     * Thumbnail sizes used by the views, as the edge of the square box the image must fit in.
+     */
+    public enum ThumbnailSize {
+        /** Product card in the customer catalog ({@code productItem.fxml}). */
+        CATALOG(50),
+        /** Image preview in the owner's product dialog. */
+        PREVIEW(150);
+
+        private final int pixels;
+
+        ThumbnailSize(int pixels) {
+            this.pixels = pixels;
+        }
+
+        public int getPixels() {
+            return pixels;
+        }
+    }
+
+    private static final long DEFAULT_MEMORY_BYTES = 32L * 1024 * 1024;
+
+    private static ImageCache instance;
+
+    private final Path directory;
+    private final long maxMemoryBytes;
+    private final LinkedHashMap<String, Image> memory = new LinkedHashMap<>(64, 0.75f, true);
+    private long memoryBytes;
+
+    private ImageCache() {
+        AppConfig config = AppConfig.getInstance();
+        String defaultDir = Paths.get(System.getProperty("user.home"), ".grocery-app", "image-cache").toString();
+        this.directory = Paths.get(config.get("image.cache.dir", defaultDir));
+        this.maxMemoryBytes = config.getLong("image.cache.memoryBytes", DEFAULT_MEMORY_BYTES);
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            System.err.println("Could not create image cache directory " + directory + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the cache singleton.
+     *
+     * @return cache instance
+     * @author Ege Usug
+     */
+    public static synchronized ImageCache getInstance() {
+        if (instance == null) {
+            instance = new ImageCache();
+        }
+        return instance;
+    }
+
+    /**
+     * Computes the content hash used as cache key.
+     *
+     * @param data original image bytes
+     * @return lower-case hex SHA-256 of the bytes
+     * @author Ege Usug
+     */
+    public static String hash(byte[] data) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(data);
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Gets a thumbnail, looking in memory, then on disk, then scaling the original bytes.
+     * Blocks while reading or scaling, so it must not be called on the FX thread.
+     *
+     * @param hash content hash of the original image
+     * @param size thumbnail size
+     * @param source supplies the original image bytes on a cache miss (may return null)
+     * @return thumbnail image, or null if it could not be produced
+     * @author Ege Usug
+     */
+    public Image get(String hash, ThumbnailSize size, Supplier<byte[]> source) {
+        String key = key(hash, size);
+
+        synchronized (this) {
+            Image cached = memory.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        Path file = directory.resolve(key + ".png");
+        Image image = readFromDisk(file);
+        if (image == null) {
+            byte[] original = source.get();
+            if (original == null) {
+                return null;
+            }
+            image = createThumbnail(original, size, file);
+        }
+        if (image != null) {
+            remember(key, image);
+        }
+        return image;
+    }
+
+    /**
+     * Removes all thumbnails of an image from memory and disk.
+     *
+     * @param hash content hash of the image that is no longer used
+     * @author Ege Usug
+     */
+    public void invalidate(String hash) {
+        if (hash == null) {
+            return;
+        }
+        for (ThumbnailSize size : ThumbnailSize.values()) {
+            String key = key(hash, size);
+            synchronized (this) {
+                Image removed = memory.remove(key);
+                if (removed != null) {
+                    memoryBytes -= weight(removed);
+                }
+            }
+            try {
+                Files.deleteIfExists(directory.resolve(key + ".png"));
+            } catch (IOException e) {
+                System.err.println("Could not delete cached thumbnail " + key + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private static String key(String hash, ThumbnailSize size) {
+        return hash + "-" + size.getPixels();
+    }
+
+    private Image readFromDisk(Path file) {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (InputStream in = Files.newInputStream(file)) {
+            Image image = new Image(in);
+            return image.isError() ? null : image;
+        } catch (IOException e) {
+            System.err.println("Could not read cached thumbnail " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private Image createThumbnail(byte[] original, ThumbnailSize size, Path file) {
+        try {
+            BufferedImage source = ImageIO.read(new ByteArrayInputStream(original));
+            if (source == null) {
+                System.err.println("Unsupported image format for thumbnail " + file.getFileName());
+                return null;
+            }
+
+            double scale = Math.min(1.0, (double) size.getPixels() / Math.max(source.getWidth(), source.getHeight()));
+            int width = Math.max(1, (int) Math.round(source.getWidth() * scale));
+            int height = Math.max(1, (int) Math.round(source.getHeight() * scale));
+
+            BufferedImage thumbnail = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g = thumbnail.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+                g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                g.drawImage(source, 0, 0, width, height, null);
+            } finally {
+                g.dispose();
+            }
+
+            Path temp = Files.createTempFile(directory, "thumb", ".tmp");
+            try {
+                ImageIO.write(thumbnail, "png", temp.toFile());
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+            return readFromDisk(file);
+        } catch (IOException e) {
+            System.err.println("Could not create thumbnail " + file.getFileName() + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private synchronized void remember(String key, Image image) {
+        Image previous = memory.put(key, image);
+        if (previous != null) {
+            memoryBytes -= weight(previous);
+        }
+        memoryBytes += weight(image);
+
+        Iterator<Map.Entry<String, Image>> eldest = memory.entrySet().iterator();
+        while (memoryBytes > maxMemoryBytes && eldest.hasNext()) {
+            Map.Entry<String, Image> entry = eldest.next();
+            if (entry.getKey().equals(key)) {
+                continue;
+            }
+            memoryBytes -= weight(entry.getValue());
+            eldest.remove();
+        }
+    }
+
+    private static long weight(Image image) {
+        return (long) image.getWidth() * (long) image.getHeight() * 4L;
+    }
+}
@@ -23,16 +23,11 @@ public class ImageLoader {
      * @author Mert Bölükbaşı
      */
     public static void loadImagesToDatabase() {
-        Connection connection = Database.getInstance().getConnection();
-        if (connection == null) {
-            System.err.println("Cannot load images: Database connection is null.");
-            return;
-        }
-
         String selectQuery = "SELECT productID, name FROM ProductInfo WHERE image_data IS NULL";
-        String updateQuery = "UPDATE ProductInfo SET image_data = ? WHERE productID = ?";
+        String updateQuery = "UPDATE ProductInfo SET image_data = ?, image_hash = ? WHERE productID = ?";
 
-        try (PreparedStatement selectStmt = connection.prepareStatement(selectQuery);
+        try (Connection connection = Database.getInstance().getConnection();
+             PreparedStatement selectStmt = connection.prepareStatement(selectQuery);
              ResultSet rs = selectStmt.executeQuery()) {
 
             while (rs.next()) {
@@ -46,7 +41,8 @@ public class ImageLoader {
                         byte[] imageBytes = is.readAllBytes();
                         try (PreparedStatement updateStmt = connection.prepareStatement(updateQuery)) {
                             updateStmt.setBytes(1, imageBytes);
-                            updateStmt.setInt(2, id);
+                            updateStmt.setString(2, ImageCache.hash(imageBytes));
+                            updateStmt.setInt(3, id);
                             updateStmt.executeUpdate();
                         }
                     } catch (IOException e) {
@@ -0,0 +1,212 @@
+package com.group16.grocery_app.utils;
+
+import com.group16.grocery_app.config.AppConfig;
+import com.group16.grocery_app.db.service.OrderService;
+import com.group16.grocery_app.db.service.ServiceExecutor;
+import com.group16.grocery_app.db.service.UserService;
+import com.group16.grocery_app.model.Order;
+import com.group16.grocery_app.model.User;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Exports the PDF invoices of every order placed in a date range into one ZIP file.
+ * <p>
+ * Orders are streamed from the database in batches and rendered in parallel on
+ * {@link ServiceExecutor}, at most {@code invoice.export.parallelism} (default: number of CPU
+ * cores) at a time. Reading waits while that many invoices are in flight, so memory use
+ * stays bounded however many orders the range holds. Each finished invoice is written to the
+ * archive right away. The archive is built in a temporary file and moved to the target at the end,
+ * so a failed or cancelled export never leaves a partial file behind.
+ *
+ * @author Yiğit Emre Ünlüçerçi
+ */
+public class InvoiceExporter {
+
+    private static final long PROGRESS_INTERVAL_NANOS = 100_000_000L;
+
+    private final LocalDate from;
+    private final LocalDate to;
+    private final int parallelism;
+    private final OrderService orderService = new OrderService();
+    private final UserService userService = new UserService();
+    private final Map<Integer, Optional<User>> customers = new ConcurrentHashMap<>();
+    private final AtomicBoolean cancelled = new AtomicBoolean();
+
+    /**
+     * Receives progress updates from a running export. It is called from background threads.
+     *
+     * @author Yiğit Emre Ünlüçerçi
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+        /**
+         * @param done invoices written so far
+         * @param total invoices to write
+         * @param invoicesPerSecond average throughput since the export started
+         */
+        void onProgress(int done, int total, double invoicesPerSecond);
+    }
+
+    /**
+     * Creates an exporter for the orders placed between two dates.
+     *
+     * @param from first day of the range (inclusive)
+     * @param to last day of the range (inclusive)
+     * @author Yiğit Emre Ünlüçerçi
+     */
+    public InvoiceExporter(LocalDate from, LocalDate to) {
+        this.from = from;
+        this.to = to;
+        this.parallelism = Math.max(1, AppConfig.getInstance().getInt("invoice.export.parallelism",
+                Runtime.getRuntime().availableProcessors()));
+    }
+
+    /**
+     * Writes the invoices as {@code invoice_<orderId>.pdf} entries to a ZIP file, replacing it
+     * if it exists. Blocks until the export is done, so it must not be called on the FX thread.
+     *
+     * @param target ZIP file to write
+     * @param listener receives progress about every 100 ms and once at the end; may be null
+     * @return number of invoices written
+     * @throws IOException if the orders cannot be read or an invoice cannot be rendered or written
+     * @throws CancellationException if {@link #cancel()} was called
+     * @author Yiğit Emre Ünlüçerçi
+     */
+    public int exportZip(Path target, ProgressListener listener) throws IOException {
+        LocalDateTime start = from.atStartOfDay();
+        LocalDateTime end = to.plusDays(1).atStartOfDay();
+        int total = orderService.countOrdersBetween(start, end);
+
+        Path directory = target.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(directory, "invoices", ".tmp");
+        try {
+            Progress progress = new Progress(total, listener);
+            try (ZipOutputStream zip = new ZipOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                AtomicReference<Exception> failure = new AtomicReference<>();
+                Semaphore inFlight = new Semaphore(parallelism);
+
+                boolean read;
+                try {
+                    read = orderService.forEachOrderBetween(start, end, order -> {
+                        if (cancelled.get() || failure.get() != null) {
+                            throw new CancellationException();
+                        }
+                        inFlight.acquireUninterruptibly();
+                        ServiceExecutor.runAsync(() -> {
+                            try {
+                                byte[] pdf = render(order);
+                                synchronized (zip) {
+                                    if (cancelled.get() || failure.get() != null) {
+                                        return;
+                                    }
+                                    zip.putNextEntry(new ZipEntry("invoice_" + order.getId() + ".pdf"));
+                                    zip.write(pdf);
+                                    zip.closeEntry();
+                                    progress.invoiceWritten();
+                                }
+                            } catch (Exception e) {
+                                failure.compareAndSet(null, e);
+                            } finally {
+                                inFlight.release();
+                            }
+                        });
+                    });
+                } catch (CancellationException e) {
+                    // Reading stopped early; the reason is reported below
+                    read = true;
+                }
+                inFlight.acquireUninterruptibly(parallelism);
+
+                if (cancelled.get()) {
+                    throw new CancellationException("Invoice export cancelled.");
+                }
+                if (failure.get() != null) {
+                    throw new IOException("Invoice export failed: " + failure.get().getMessage(), failure.get());
+                }
+                if (!read) {
+                    throw new IOException("Orders could not be read.");
+                }
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            return progress.finish();
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Stops a running export. Invoices already being rendered are discarded and
+     * {@link #exportZip} throws a {@link CancellationException}.
+     *
+     * @author Yiğit Emre Ünlüçerçi
+     */
+    public void cancel() {
+        cancelled.set(true);
+    }
+
+    private byte[] render(Order order) throws IOException {
+        Optional<User> customer = customers.get(order.getCustomerId());
+        if (customer == null) {
+            customer = Optional.ofNullable(userService.findById(order.getCustomerId()));
+            customers.putIfAbsent(order.getCustomerId(), customer);
+        }
+        String customerName = customer.map(c -> c.getFirstName() + " " + c.getLastName()).orElse("Unknown Customer");
+        String customerAddress = customer.map(User::getAddress).orElse("");
+        return InvoiceGenerator.generateInvoicePDF(order, customerName, customerAddress);
+    }
+
+    /**
+     * Counts written invoices and reports them to the listener at most every
+     * {@link #PROGRESS_INTERVAL_NANOS}. Only called while holding the archive's lock.
+     */
+    private static final class Progress {
+        private final int total;
+        private final ProgressListener listener;
+        private final long startedAt = System.nanoTime();
+        private long reportedAt = startedAt;
+        private int done;
+
+        private Progress(int total, ProgressListener listener) {
+            this.total = total;
+            this.listener = listener;
+        }
+
+        private void invoiceWritten() {
+            done++;
+            long now = System.nanoTime();
+            if (now - reportedAt >= PROGRESS_INTERVAL_NANOS) {
+                reportedAt = now;
+                report(now);
+            }
+        }
+
+        private int finish() {
+            report(System.nanoTime());
+            return done;
+        }
+
+        private void report(long now) {
+            if (listener == null) {
+                return;
+            }
+            double seconds = (now - startedAt) / 1e9;
+            listener.onProgress(done, Math.max(total, done), seconds > 0 ? done / seconds : 0);
+        }
+    }
+}
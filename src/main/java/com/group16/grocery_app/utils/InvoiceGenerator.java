@@ -10,13 +10,26 @@ import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.time.format.DateTimeFormatter;
+import java.util.Queue;
 import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 public class InvoiceGenerator {
 
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
 
+    private static final float TOP = 750;
+    private static final float BOTTOM = 72;
+    private static final float FOOTER = 40;
+    private static final float MARGIN = 50;
+    private static final float LINE_HEIGHT = 20;
+    /** Lines the totals take, from the rule under the items down to the closing line. */
+    private static final int TOTALS_LINES = 7;
+
+    private static final Queue<Fonts> FONTS = new ConcurrentLinkedQueue<>();
+
     /**
      * Generates a text invoice for an order.
      *
@@ -85,162 +98,184 @@ public class InvoiceGenerator {
      * @author Ege Usug
      */
     public static byte[] generateInvoicePDF(Order order, String customerName, String customerAddress) throws IOException {
-        PDDocument document = new PDDocument();
-        PDPage page = new PDPage();
-        document.addPage(page);
-
-        PDPageContentStream contentStream = new PDPageContentStream(document, page);
-
-        PDType1Font font = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
-        PDType1Font boldFont = new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD);
-
-        float yPosition = 750;
-        float lineHeight = 20;
-        float margin = 50;
-        float width = page.getMediaBox().getWidth() - 2 * margin;
-
-        contentStream.beginText();
-        contentStream.setFont(boldFont, 18);
-        contentStream.newLineAtOffset(margin, yPosition);
-        contentStream.showText("GROUP16 GREENGROCER - INVOICE");
-        contentStream.endText();
-        yPosition -= lineHeight * 2;
-
-        contentStream.moveTo(margin, yPosition);
-        contentStream.lineTo(margin + width, yPosition);
-        contentStream.stroke();
-        yPosition -= lineHeight;
-
-        contentStream.beginText();
-        contentStream.setFont(boldFont, 12);
-        contentStream.newLineAtOffset(margin, yPosition);
-        contentStream.showText("Customer: " + customerName);
-        contentStream.endText();
-        yPosition -= lineHeight;
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        writeInvoicePDF(order, customerName, customerAddress, baos);
+        return baos.toByteArray();
+    }
 
-        if (customerAddress != null && !customerAddress.isEmpty()) {
-            contentStream.beginText();
-            contentStream.setFont(font, 12);
-            contentStream.newLineAtOffset(margin, yPosition);
-            contentStream.showText("Address: " + customerAddress);
-            contentStream.endText();
-            yPosition -= lineHeight;
+    /**
+     * Writes a PDF invoice for an order to a stream.
+     * Items continue on new pages, with the column headings repeated, when they do not fit on
+     * one page, and every page is numbered. The stream is not closed.
+     *
+     * @param order the order to generate invoice for
+     * @param customerName the customer's name
+     * @param customerAddress the customer's address
+     * @param out the stream to write the PDF to
+     * @throws IOException if an error occurs while generating or writing the PDF
+     * @author Ege Usug
+     */
+    public static void writeInvoicePDF(Order order, String customerName, String customerAddress,
+                                       OutputStream out) throws IOException {
+        Fonts fonts = FONTS.poll();
+        if (fonts == null) {
+            fonts = new Fonts();
         }
+        try (PDDocument document = new PDDocument()) {
+            PageWriter writer = new PageWriter(document, fonts, "Invoice #" + order.getId());
+
+            writer.text(fonts.bold, 18, "GROUP16 GREENGROCER - INVOICE");
+            writer.skip(2);
+            writer.rule();
+            writer.skip(1);
+
+            writer.text(fonts.bold, 12, "Customer: " + customerName);
+            writer.skip(1);
+            if (customerAddress != null && !customerAddress.isEmpty()) {
+                writer.text(fonts.regular, 12, "Address: " + customerAddress);
+                writer.skip(1);
+            }
+            writer.text(fonts.regular, 12, "Order ID: " + order.getId());
+            writer.skip(1);
+            if (order.getCreatedAt() != null) {
+                writer.text(fonts.regular, 12, "Order Date: " + order.getCreatedAt().format(DATE_FORMATTER));
+                writer.skip(1);
+            }
+            if (order.getDeliveryDate() != null) {
+                writer.text(fonts.regular, 12, "Delivery Date: " + order.getDeliveryDate().format(DATE_FORMATTER));
+                writer.skip(1);
+            }
+            writer.text(fonts.regular, 12, "Status: " + order.getStatus());
+            writer.skip(2);
+
+            writeItemHeadings(writer, fonts);
+
+            double subtotal = 0;
+            for (OrderItem item : order.getItems()) {
+                if (!writer.fits(1)) {
+                    writer.newPage();
+                    writeItemHeadings(writer, fonts);
+                }
+
+                double itemTotal = item.getTotalPrice();
+                subtotal += itemTotal;
+
+                String name = item.getProduct().getName();
+                writer.text(fonts.regular, 10, String.format("%-30s %8.2f kg %10.2f TRY %10.2f TRY",
+                        name.length() > 30 ? name.substring(0, 27) + "..." : name,
+                        item.getQuantity(),
+                        item.getUnitPrice(),
+                        itemTotal));
+                writer.skip(1);
+            }
 
-        contentStream.beginText();
-        contentStream.setFont(font, 12);
-        contentStream.newLineAtOffset(margin, yPosition);
-        contentStream.showText("Order ID: " + order.getId());
-        contentStream.endText();
-        yPosition -= lineHeight;
-
-        if (order.getCreatedAt() != null) {
-            contentStream.beginText();
-            contentStream.setFont(font, 12);
-            contentStream.newLineAtOffset(margin, yPosition);
-            contentStream.showText("Order Date: " + order.getCreatedAt().format(DATE_FORMATTER));
-            contentStream.endText();
-            yPosition -= lineHeight;
-        }
+            double vat = subtotal * 0.18;
+            double total = subtotal + vat;
 
-        if (order.getDeliveryDate() != null) {
-            contentStream.beginText();
-            contentStream.setFont(font, 12);
-            contentStream.newLineAtOffset(margin, yPosition);
-            contentStream.showText("Delivery Date: " + order.getDeliveryDate().format(DATE_FORMATTER));
-            contentStream.endText();
-            yPosition -= lineHeight;
+            // Keep the totals together with the closing line
+            if (!writer.fits(TOTALS_LINES)) {
+                writer.newPage();
+            }
+            writer.skip(1);
+            writer.rule();
+            writer.skip(1);
+            writer.text(fonts.regular, 12, String.format("Subtotal: %.2f TRY", subtotal));
+            writer.skip(1);
+            writer.text(fonts.regular, 12, String.format("VAT (18%%): %.2f TRY", vat));
+            writer.skip(1);
+            writer.text(fonts.bold, 14, String.format("Total: %.2f TRY", total));
+            writer.skip(2);
+            writer.text(fonts.regular, 12, "Thank you for your purchase!");
+
+            writer.finish();
+            document.save(out);
+        } finally {
+            FONTS.offer(fonts);
         }
+    }
 
-        contentStream.beginText();
-        contentStream.setFont(font, 12);
-        contentStream.newLineAtOffset(margin, yPosition);
-        contentStream.showText("Status: " + order.getStatus());
-        contentStream.endText();
-        yPosition -= lineHeight * 2;
-
-        contentStream.beginText();
-        contentStream.setFont(boldFont, 12);
-        contentStream.newLineAtOffset(margin, yPosition);
-        contentStream.showText(String.format("%-30s %10s %12s %12s", "Item", "Quantity", "Unit Price", "Total"));
-        contentStream.endText();
-        yPosition -= lineHeight;
-
-        contentStream.moveTo(margin, yPosition);
-        contentStream.lineTo(margin + width, yPosition);
-        contentStream.stroke();
-        yPosition -= lineHeight;
+    private static void writeItemHeadings(PageWriter writer, Fonts fonts) throws IOException {
+        writer.text(fonts.bold, 12, String.format("%-30s %10s %12s %12s", "Item", "Quantity", "Unit Price", "Total"));
+        writer.skip(1);
+        writer.rule();
+        writer.skip(1);
+    }
 
-        double subtotal = 0;
-        for (OrderItem item : order.getItems()) {
-            if (yPosition < 100) {
-                contentStream.close();
-                page = new PDPage();
-                document.addPage(page);
-                contentStream = new PDPageContentStream(document, page);
-                yPosition = 750;
-            }
+    /**
+     * Font instances for one invoice at a time. Creating the standard fonts loads their metrics,
+     * so they are kept in {@link #FONTS} and reused by later invoices; they are not shared by
+     * invoices rendered at the same time because PDFBox fonts cache glyph data without locking.
+     */
+    private static final class Fonts {
+        private final PDType1Font regular = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+        private final PDType1Font bold = new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD);
+    }
 
-            double itemTotal = item.getTotalPrice();
-            subtotal += itemTotal;
+    /**
+     * Writes lines top to bottom and starts a new page when asked to, numbering each page
+     * in its footer.
+     */
+    private static final class PageWriter {
+        private final PDDocument document;
+        private final Fonts fonts;
+        private final String title;
+        private PDPageContentStream contentStream;
+        private float width;
+        private float yPosition;
+        private int pageNumber;
+
+        private PageWriter(PDDocument document, Fonts fonts, String title) throws IOException {
+            this.document = document;
+            this.fonts = fonts;
+            this.title = title;
+            startPage();
+        }
 
+        private void text(PDType1Font font, float size, String text) throws IOException {
             contentStream.beginText();
-            contentStream.setFont(font, 10);
-            contentStream.newLineAtOffset(margin, yPosition);
-            String itemLine = String.format("%-30s %8.2f kg %10.2f TRY %10.2f TRY",
-                    item.getProduct().getName().length() > 30 ?
-                            item.getProduct().getName().substring(0, 27) + "..." :
-                            item.getProduct().getName(),
-                    item.getQuantity(),
-                    item.getUnitPrice(),
-                    itemTotal);
-            contentStream.showText(itemLine);
+            contentStream.setFont(font, size);
+            contentStream.newLineAtOffset(MARGIN, yPosition);
+            contentStream.showText(text);
             contentStream.endText();
-            yPosition -= lineHeight;
         }
 
-        yPosition -= lineHeight;
-        contentStream.moveTo(margin, yPosition);
-        contentStream.lineTo(margin + width, yPosition);
-        contentStream.stroke();
-        yPosition -= lineHeight;
+        private void rule() throws IOException {
+            contentStream.moveTo(MARGIN, yPosition);
+            contentStream.lineTo(MARGIN + width, yPosition);
+            contentStream.stroke();
+        }
 
-        double vat = subtotal * 0.18;
-        double total = subtotal + vat;
+        private void skip(int lines) {
+            yPosition -= LINE_HEIGHT * lines;
+        }
 
-        contentStream.beginText();
-        contentStream.setFont(font, 12);
-        contentStream.newLineAtOffset(margin, yPosition);
-        contentStream.showText(String.format("Subtotal: %.2f TRY", subtotal));
-        contentStream.endText();
-        yPosition -= lineHeight;
-
-        contentStream.beginText();
-        contentStream.setFont(font, 12);
-        contentStream.newLineAtOffset(margin, yPosition);
-        contentStream.showText(String.format("VAT (18%%): %.2f TRY", vat));
-        contentStream.endText();
-        yPosition -= lineHeight;
-
-        contentStream.beginText();
-        contentStream.setFont(boldFont, 14);
-        contentStream.newLineAtOffset(margin, yPosition);
-        contentStream.showText(String.format("Total: %.2f TRY", total));
-        contentStream.endText();
-        yPosition -= lineHeight * 2;
-
-        contentStream.beginText();
-        contentStream.setFont(font, 12);
-        contentStream.newLineAtOffset(margin, yPosition);
-        contentStream.showText("Thank you for your purchase!");
-        contentStream.endText();
-
-        contentStream.close();
+        private boolean fits(int lines) {
+            return yPosition - LINE_HEIGHT * (lines - 1) >= BOTTOM;
+        }
 
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        document.save(baos);
-        document.close();
+        private void newPage() throws IOException {
+            finish();
+            startPage();
+            text(fonts.bold, 12, title + " (continued)");
+            skip(2);
+        }
 
-        return baos.toByteArray();
+        private void finish() throws IOException {
+            contentStream.beginText();
+            contentStream.setFont(fonts.regular, 9);
+            contentStream.newLineAtOffset(MARGIN, FOOTER);
+            contentStream.showText(title + " - Page " + pageNumber);
+            contentStream.endText();
+            contentStream.close();
+        }
+
+        private void startPage() throws IOException {
+            PDPage page = new PDPage();
+            document.addPage(page);
+            contentStream = new PDPageContentStream(document, page);
+            width = page.getMediaBox().getWidth() - 2 * MARGIN;
+            yPosition = TOP;
+            pageNumber++;
+        }
     }
 }
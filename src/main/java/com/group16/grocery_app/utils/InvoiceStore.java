@@ -0,0 +1,168 @@
+package com.group16.grocery_app.utils;
+
+import com.group16.grocery_app.config.AppConfig;
+import com.group16.grocery_app.db.service.OrderService;
+import com.group16.grocery_app.db.service.UserService;
+import com.group16.grocery_app.model.Order;
+import com.group16.grocery_app.model.User;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Store for PDF invoices, so each invoice is rendered once per version instead of on every view.
+ * <p>
+ * An order's invoice version ({@code OrderInfo.invoice_version}) changes whenever the order
+ * changes in a way the invoice shows. The rendered PDF is kept gzip-compressed in
+ * {@code OrderInfo.invoice_pdf} together with the version it was rendered for, and recently used
+ * invoices are also kept compressed in an in-memory LRU bounded by {@code invoice.cache.memoryBytes}.
+ * Requests are answered from memory, then from the database, and only then by rendering.
+ * Every request checks the current version first, so an outdated PDF is never served.
+ * All methods block, so they must not be called on the FX thread.
+ *
+ * @author Ege Usug
+ */
+public class InvoiceStore {
+
+    private static final long DEFAULT_MEMORY_BYTES = 8L * 1024 * 1024;
+
+    private static InvoiceStore instance;
+
+    private final OrderService orderService = new OrderService();
+    private final UserService userService = new UserService();
+    private final long maxMemoryBytes;
+    private final LinkedHashMap<Integer, CachedInvoice> memory = new LinkedHashMap<>(64, 0.75f, true);
+    private long memoryBytes;
+
+    private InvoiceStore() {
+        this.maxMemoryBytes = AppConfig.getInstance().getLong("invoice.cache.memoryBytes", DEFAULT_MEMORY_BYTES);
+    }
+
+    /**
+     * Returns the store singleton.
+     *
+     * @return store instance
+     * @author Ege Usug
+     */
+    public static synchronized InvoiceStore getInstance() {
+        if (instance == null) {
+            instance = new InvoiceStore();
+        }
+        return instance;
+    }
+
+    /**
+     * Writes the current PDF invoice of an order to a stream.
+     *
+     * @param orderId ID of the order
+     * @param out stream to write the PDF to; it is not closed
+     * @throws IOException if the invoice cannot be produced or written
+     * @author Ege Usug
+     */
+    public void writeTo(int orderId, OutputStream out) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(compressedPdf(orderId)))) {
+            in.transferTo(out);
+        }
+    }
+
+    /**
+     * Writes the current PDF invoice of an order to a file, replacing it if it exists.
+     * The PDF is written to a temporary file next to the target first, so the target never
+     * holds a partial invoice.
+     *
+     * @param orderId ID of the order
+     * @param target file to write
+     * @throws IOException if the invoice cannot be produced or written
+     * @author Ege Usug
+     */
+    public void copyTo(int orderId, Path target) throws IOException {
+        Path directory = target.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(directory, "invoice", ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                writeTo(orderId, out);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private byte[] compressedPdf(int orderId) throws IOException {
+        int version = orderService.getInvoiceVersion(orderId);
+        if (version < 0) {
+            throw new IOException("Order " + orderId + " not found.");
+        }
+
+        synchronized (this) {
+            CachedInvoice cached = memory.get(orderId);
+            if (cached != null && cached.version == version) {
+                return cached.data;
+            }
+        }
+
+        byte[] data = orderService.getInvoicePdf(orderId, version);
+        if (data == null) {
+            data = renderCompressed(orderId);
+            orderService.saveInvoicePdf(orderId, version, data);
+        }
+        remember(orderId, new CachedInvoice(version, data));
+        return data;
+    }
+
+    private byte[] renderCompressed(int orderId) throws IOException {
+        Order order = orderService.getOrderById(orderId);
+        if (order == null) {
+            throw new IOException("Order " + orderId + " could not be loaded.");
+        }
+        User customer = userService.findById(order.getCustomerId());
+        String customerName = customer != null ?
+                (customer.getFirstName() + " " + customer.getLastName()) : "Unknown Customer";
+        String customerAddress = customer != null ? customer.getAddress() : "";
+
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+            InvoiceGenerator.writeInvoicePDF(order, customerName, customerAddress, gzip);
+        }
+        return buffer.toByteArray();
+    }
+
+    private synchronized void remember(int orderId, CachedInvoice invoice) {
+        CachedInvoice previous = memory.put(orderId, invoice);
+        if (previous != null) {
+            memoryBytes -= previous.data.length;
+        }
+        memoryBytes += invoice.data.length;
+
+        Iterator<Map.Entry<Integer, CachedInvoice>> eldest = memory.entrySet().iterator();
+        while (memoryBytes > maxMemoryBytes && eldest.hasNext()) {
+            Map.Entry<Integer, CachedInvoice> entry = eldest.next();
+            if (entry.getKey() == orderId) {
+                continue;
+            }
+            memoryBytes -= entry.getValue().data.length;
+            eldest.remove();
+        }
+    }
+
+    private static final class CachedInvoice {
+        private final int version;
+        private final byte[] data;
+
+        private CachedInvoice(int version, byte[] data) {
+            this.version = version;
+            this.data = data;
+        }
+    }
+}
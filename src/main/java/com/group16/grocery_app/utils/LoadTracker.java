@@ -0,0 +1,137 @@
+package com.group16.grocery_app.utils;
+
+import com.group16.grocery_app.db.service.ServiceExecutor;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.scene.Node;
+import javafx.scene.control.ProgressIndicator;
+import javafx.scene.control.TableView;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+
+/**
+ * Keeps track of the background loads started by one view.
+ * Each load has a key; starting a new load with the same key cancels the previous one, and
+ * {@link #cancelAll()} drops every pending load when the user leaves the view. The result of
+ * a cancelled or superseded load is never applied to the UI.
+ * <p>
+ * Must only be used from the JavaFX Application Thread.
+ *
+ * @author Mert Bölükbaşı
+ */
+public class LoadTracker {
+
+    private static final String SAVED_PLACEHOLDER = "loadTracker.placeholder";
+    private static final Object NO_PLACEHOLDER = new Object();
+
+    private final Map<String, CompletableFuture<?>> loads = new HashMap<>();
+    private boolean closed;
+
+    /**
+     * Starts tracking a load and applies its result on the FX thread, unless the load has
+     * been replaced or cancelled by then.
+     *
+     * @param key identifies the load, e.g. the table it fills
+     * @param future background call, usually from a service's {@code *Async} method
+     * @param onLoaded called on the FX thread with the result
+     * @param <T> result type
+     * @author Mert Bölükbaşı
+     */
+    public <T> void load(String key, CompletableFuture<T> future, Consumer<T> onLoaded) {
+        if (closed) {
+            future.cancel(false);
+            return;
+        }
+        CompletableFuture<?> previous = loads.put(key, future);
+        if (previous != null) {
+            previous.cancel(false);
+        }
+
+        future.whenCompleteAsync((result, error) -> {
+            if (loads.get(key) != future) {
+                return;
+            }
+            loads.remove(key);
+            if (error == null) {
+                onLoaded.accept(result);
+            } else if (!(unwrap(error) instanceof CancellationException)) {
+                System.err.println("Background load '" + key + "' failed: " + unwrap(error).getMessage());
+                unwrap(error).printStackTrace();
+            }
+        }, ServiceExecutor.FX);
+    }
+
+    /**
+     * Loads the items of a table in the background, with a progress indicator as placeholder
+     * until they arrive.
+     *
+     * @param key identifies the load
+     * @param table table to fill
+     * @param future background call returning the items (null is treated as empty)
+     * @param <T> row type
+     * @author Mert Bölükbaşı
+     */
+    public <T> void loadInto(String key, TableView<T> table, CompletableFuture<ObservableList<T>> future) {
+        showLoading(table);
+        load(key, future, items -> {
+            table.setItems(items != null ? items : FXCollections.observableArrayList());
+            showLoaded(table);
+        });
+    }
+
+    /**
+     * Replaces the table's placeholder with a progress indicator. Rows already shown stay
+     * visible until the new ones arrive.
+     *
+     * @param table table that is being loaded
+     * @author Mert Bölükbaşı
+     */
+    public static void showLoading(TableView<?> table) {
+        if (table.getPlaceholder() instanceof ProgressIndicator) {
+            return;
+        }
+        table.getProperties().put(SAVED_PLACEHOLDER, table.getPlaceholder() != null ? table.getPlaceholder() : NO_PLACEHOLDER);
+        ProgressIndicator indicator = new ProgressIndicator();
+        indicator.setMaxSize(40, 40);
+        table.setPlaceholder(indicator);
+    }
+
+    /**
+     * Restores the placeholder replaced by {@link #showLoading(TableView)}.
+     *
+     * @param table table that finished loading
+     * @author Mert Bölükbaşı
+     */
+    public static void showLoaded(TableView<?> table) {
+        Object saved = table.getProperties().remove(SAVED_PLACEHOLDER);
+        if (saved != null) {
+            table.setPlaceholder(saved instanceof Node node ? node : null);
+        }
+    }
+
+    /**
+     * Cancels every pending load. Later loads are cancelled right away, so this is meant
+     * for when the view is closed or replaced.
+     *
+     * @author Mert Bölükbaşı
+     */
+    public void cancelAll() {
+        closed = true;
+        List<CompletableFuture<?>> pending = new ArrayList<>(loads.values());
+        loads.clear();
+        for (CompletableFuture<?> future : pending) {
+            future.cancel(false);
+        }
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+}
@@ -0,0 +1,156 @@
+package com.group16.grocery_app.utils;
+
+import com.group16.grocery_app.config.AppConfig;
+import com.group16.grocery_app.model.Order;
+import com.group16.grocery_app.model.OrderCursor;
+import com.group16.grocery_app.model.OrderPage;
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.geometry.Orientation;
+import javafx.scene.Node;
+import javafx.scene.control.ScrollBar;
+import javafx.scene.control.TableView;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Loads an order table one page at a time.
+ * The first page is loaded on {@link #reset()}; further pages are appended when the user
+ * scrolls near the bottom of the table, or right away if the loaded rows do not fill it yet.
+ * Pages are fetched in the background through a {@link LoadTracker}, so a stale page is
+ * dropped when the table is reset or the view is closed. A progress indicator is shown
+ * while the first page loads. The page size is read from {@code ui.orders.pageSize}.
+ *
+ * @author Oğuzhan Aydın
+ */
+public class OrderTablePager {
+
+    /**
+     * Supplies pages of orders, usually a keyset-paginated async service call.
+     */
+    @FunctionalInterface
+    public interface PageSource {
+        /**
+         * Starts loading the page after the given cursor.
+         *
+         * @param after cursor of the previous page, or null for the first page
+         * @param pageSize maximum number of orders
+         * @return future completed with the page
+         */
+        CompletableFuture<OrderPage> load(OrderCursor after, int pageSize);
+    }
+
+    private static final double LOAD_THRESHOLD = 0.9;
+
+    private final TableView<Order> table;
+    private final LoadTracker tracker;
+    private final String key;
+    private final PageSource source;
+    private final int pageSize;
+    private final ObservableList<Order> items = FXCollections.observableArrayList();
+
+    private OrderCursor nextCursor;
+    private boolean exhausted = true;
+    private boolean loading;
+    private ScrollBar verticalBar;
+
+    /**
+     * Attaches a pager to a table. Call {@link #reset()} to load the first page.
+     *
+     * @param table table to fill
+     * @param tracker tracker of the view's background loads
+     * @param key key of this table's loads in the tracker
+     * @param source page source
+     * @author Oğuzhan Aydın
+     */
+    public OrderTablePager(TableView<Order> table, LoadTracker tracker, String key, PageSource source) {
+        this.table = table;
+        this.tracker = tracker;
+        this.key = key;
+        this.source = source;
+        this.pageSize = Math.max(1, AppConfig.getInstance().getInt("ui.orders.pageSize", 50));
+        table.setItems(items);
+
+        if (table.getSkin() != null) {
+            attachScrollListener();
+        }
+        table.skinProperty().addListener((obs, oldSkin, newSkin) -> {
+            if (newSkin != null) {
+                attachScrollListener();
+            }
+        });
+    }
+
+    /**
+     * Clears the table and loads the first page again.
+     *
+     * @author Oğuzhan Aydın
+     */
+    public void reset() {
+        items.clear();
+        nextCursor = null;
+        exhausted = false;
+        loading = false;
+        LoadTracker.showLoading(table);
+        loadNextPage();
+    }
+
+    /**
+     * Starts loading the next page if there is one and no page is loading yet.
+     *
+     * @author Oğuzhan Aydın
+     */
+    public void loadNextPage() {
+        if (loading || exhausted) {
+            return;
+        }
+        loading = true;
+        tracker.load(key, source.load(nextCursor, pageSize), page -> {
+            loading = false;
+            items.addAll(page.getOrders());
+            nextCursor = page.getNextCursor();
+            exhausted = !page.hasMore();
+            LoadTracker.showLoaded(table);
+            Platform.runLater(this::fillViewport);
+        });
+    }
+
+    /**
+     * Gets the orders loaded so far.
+     *
+     * @return loaded orders, also the table's items
+     * @author Oğuzhan Aydın
+     */
+    public ObservableList<Order> getItems() {
+        return items;
+    }
+
+    private void attachScrollListener() {
+        for (Node node : table.lookupAll(".scroll-bar")) {
+            if (node instanceof ScrollBar bar && bar.getOrientation() == Orientation.VERTICAL && bar != verticalBar) {
+                verticalBar = bar;
+                bar.valueProperty().addListener((obs, oldValue, newValue) -> {
+                    double range = bar.getMax() - bar.getMin();
+                    if (range > 0 && newValue.doubleValue() >= bar.getMin() + range * LOAD_THRESHOLD) {
+                        loadNextPage();
+                    }
+                });
+                bar.visibleProperty().addListener((obs, wasVisible, visible) -> fillViewport());
+                return;
+            }
+        }
+    }
+
+    /**
+     * Loads another page while the table has no scroll bar, i.e. the rows do not fill it.
+     */
+    private void fillViewport() {
+        if (verticalBar == null) {
+            attachScrollListener();
+        }
+        if (!exhausted && verticalBar != null && !verticalBar.isVisible() && table.getScene() != null) {
+            loadNextPage();
+        }
+    }
+}
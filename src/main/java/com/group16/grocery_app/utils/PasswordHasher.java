@@ -0,0 +1,43 @@
+package com.group16.grocery_app.utils;
+
+/**
+ * A password hashing algorithm used by {@link PasswordHash}.
+ * Stored hashes carry enough information (algorithm, parameters, salt) to be verified later.
+ *
+ * @author Mert Bölükbaşı
+ */
+public interface PasswordHasher {
+
+    /**
+     * Hashes a password for storage.
+     *
+     * @param password plain text password
+     * @return encoded hash to store in the database
+     */
+    String hash(String password);
+
+    /**
+     * Checks a password against a stored hash produced by this hasher.
+     *
+     * @param password plain text password
+     * @param storedHash encoded hash from the database
+     * @return true if the password matches
+     */
+    boolean verify(String password, String storedHash);
+
+    /**
+     * Checks whether a stored hash was produced by this hasher.
+     *
+     * @param storedHash encoded hash from the database
+     * @return true if this hasher can verify the hash
+     */
+    boolean supports(String storedHash);
+
+    /**
+     * Checks whether a stored hash should be replaced, e.g. because the work factor changed.
+     *
+     * @param storedHash encoded hash produced by this hasher
+     * @return true if the password should be hashed again on the next successful login
+     */
+    boolean needsRehash(String storedHash);
+}
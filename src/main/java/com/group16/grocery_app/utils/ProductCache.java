@@ -0,0 +1,303 @@
+package com.group16.grocery_app.utils;
+
+import com.group16.grocery_app.config.AppConfig;
+import com.group16.grocery_app.model.Product;
+import javafx.application.Platform;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Process-wide cache of {@link Product} instances, keyed by product ID.
+ * <p>
+ * Products needed by ID, such as order lines and products added to the cart, are read
+ * through with {@link #get(int, Loader)} and {@link #getAll(Collection, Loader)}, so only the
+ * ones not cached yet are queried. Full catalog loads go through {@link #intern(Product)}, so
+ * the catalog, the cart and the order views share one instance per product and its image is
+ * only loaded once. A cached instance is never replaced: a newer row, loaded, written by
+ * {@code ProductService} or delivered by the catalog feed, is copied into it with
+ * {@link Product#updateFrom(Product)}, always on the FX thread. Only deleted products are removed.
+ * <p>
+ * At most {@code product.cache.maxEntries} (default 5000) products are held; beyond that the
+ * least recently used one is released. A released product that a view still shows is found
+ * again through a weak reference, so a product in use never gets a second instance; only
+ * products nothing refers to any more are really dropped. Hits, misses and evictions are counted.
+ *
+ * @author Ege Usug
+ */
+public class ProductCache {
+
+    /**
+     * Loads products from the database on a cache miss.
+     *
+     * @author Ege Usug
+     */
+    @FunctionalInterface
+    public interface Loader {
+        /**
+         * @param productIds IDs of the products, without duplicates
+         * @return the products that exist, in any order
+         * @throws SQLException if a database access error occurs
+         */
+        List<Product> load(Collection<Integer> productIds) throws SQLException;
+    }
+
+    private static final int DEFAULT_MAX_ENTRIES = 5000;
+
+    private static ProductCache instance;
+
+    private final int maxEntries;
+    /** Products kept in memory, least recently used first. */
+    private final LinkedHashMap<Integer, Product> products;
+    /** Every instance handed out, including released ones that are still in use. */
+    private final Map<Integer, ProductReference> live = new HashMap<>();
+    private final ReferenceQueue<Product> collected = new ReferenceQueue<>();
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    private ProductCache() {
+        this.maxEntries = Math.max(1, AppConfig.getInstance().getInt("product.cache.maxEntries", DEFAULT_MAX_ENTRIES));
+        this.products = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Product> eldest) {
+                if (size() > maxEntries) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the cache singleton.
+     *
+     * @return cache instance
+     * @author Ege Usug
+     */
+    public static synchronized ProductCache getInstance() {
+        if (instance == null) {
+            instance = new ProductCache();
+        }
+        return instance;
+    }
+
+    /**
+     * Gets a product, loading it on a miss. Blocks while loading, so it must not be called
+     * on the FX thread.
+     *
+     * @param productId ID of the product
+     * @param loader loads the product on a miss
+     * @return the shared product instance, or null if the product does not exist
+     * @throws SQLException if the loader fails
+     * @author Ege Usug
+     */
+    public Product get(int productId, Loader loader) throws SQLException {
+        return getAll(List.of(productId), loader).get(productId);
+    }
+
+    /**
+     * Gets several products, loading the missing ones with one call to the loader. Blocks
+     * while loading, so it must not be called on the FX thread.
+     *
+     * @param productIds IDs of the products
+     * @param loader loads the products that are not cached
+     * @return the shared instances by ID; products that do not exist are left out
+     * @throws SQLException if the loader fails
+     * @author Ege Usug
+     */
+    public Map<Integer, Product> getAll(Collection<Integer> productIds, Loader loader) throws SQLException {
+        Map<Integer, Product> found = new HashMap<>(Math.max(16, productIds.size() * 4 / 3 + 1));
+        List<Integer> missing = new ArrayList<>();
+        Set<Integer> requested = new HashSet<>();
+        synchronized (this) {
+            for (Integer productId : productIds) {
+                if (!requested.add(productId)) {
+                    continue;
+                }
+                Product cached = lookup(productId);
+                if (cached != null) {
+                    hits++;
+                    found.put(productId, cached);
+                } else {
+                    missing.add(productId);
+                }
+            }
+        }
+        if (!missing.isEmpty()) {
+            for (Product loaded : loader.load(missing)) {
+                found.put(loaded.getId(), intern(loaded));
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Returns the shared instance for a product just read from the database: the cached one if
+     * there is one, otherwise the given product, which then becomes the cached one. If the given
+     * product is newer, the cached one is patched with it on the FX thread; callers hand their
+     * results to the FX thread after that, so views never see the old values.
+     *
+     * @param loaded product built from a database row
+     * @return the product instance to use
+     * @author Ege Usug
+     */
+    public synchronized Product intern(Product loaded) {
+        Product cached = lookup(loaded.getId());
+        if (cached != null) {
+            hits++;
+            if (cached != loaded && cached.getVersion() < loaded.getVersion()) {
+                patch(cached, loaded);
+            }
+            return cached;
+        }
+        misses++;
+        products.put(loaded.getId(), loaded);
+        live.put(loaded.getId(), new ProductReference(loaded, collected));
+        return loaded;
+    }
+
+    /**
+     * Patches the cached instance of a changed product, if there is one and it is older.
+     * Products that are not cached are left alone; they are loaded when next needed.
+     *
+     * @param changed product as it is now in the database
+     * @author Ege Usug
+     */
+    public synchronized void update(Product changed) {
+        Product cached = lookup(changed.getId());
+        if (cached != null && cached != changed && cached.getVersion() < changed.getVersion()) {
+            patch(cached, changed);
+        }
+    }
+
+    /**
+     * Removes a deleted product.
+     *
+     * @param productId ID of the product
+     * @author Ege Usug
+     */
+    public synchronized void invalidate(int productId) {
+        products.remove(productId);
+        live.remove(productId);
+    }
+
+    /**
+     * Removes deleted products.
+     *
+     * @param productIds IDs of the products
+     * @author Ege Usug
+     */
+    public synchronized void invalidateAll(Collection<Integer> productIds) {
+        for (Integer productId : productIds) {
+            invalidate(productId);
+        }
+    }
+
+    /**
+     * Gets the number of cached products.
+     *
+     * @return product count
+     * @author Ege Usug
+     */
+    public synchronized int size() {
+        return products.size();
+    }
+
+    /**
+     * Gets the number of reads served by a cached instance.
+     *
+     * @return hit count
+     * @author Ege Usug
+     */
+    public synchronized long getHitCount() {
+        return hits;
+    }
+
+    /**
+     * Gets the number of reads that loaded or stored a new instance.
+     *
+     * @return miss count
+     * @author Ege Usug
+     */
+    public synchronized long getMissCount() {
+        return misses;
+    }
+
+    /**
+     * Gets the number of products released to stay within the size limit.
+     *
+     * @return eviction count
+     * @author Ege Usug
+     */
+    public synchronized long getEvictionCount() {
+        return evictions;
+    }
+
+    /**
+     * Gets the share of reads served by a cached instance.
+     *
+     * @return hit rate between 0 and 1, 0 before the first read
+     * @author Ege Usug
+     */
+    public synchronized double getHitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    /**
+     * Finds the instance in use for a product, taking a released one back in if a view still
+     * holds it.
+     */
+    private Product lookup(int productId) {
+        Product cached = products.get(productId);
+        if (cached != null) {
+            return cached;
+        }
+        expungeCollected();
+        ProductReference reference = live.get(productId);
+        cached = reference != null ? reference.get() : null;
+        if (cached != null) {
+            products.put(productId, cached);
+        }
+        return cached;
+    }
+
+    private void expungeCollected() {
+        ProductReference reference;
+        while ((reference = (ProductReference) collected.poll()) != null) {
+            live.remove(reference.productId, reference);
+        }
+    }
+
+    private static void patch(Product cached, Product source) {
+        if (Platform.isFxApplicationThread()) {
+            cached.updateFrom(source);
+        } else {
+            Platform.runLater(() -> {
+                if (cached.getVersion() < source.getVersion()) {
+                    cached.updateFrom(source);
+                }
+            });
+        }
+    }
+
+    private static final class ProductReference extends WeakReference<Product> {
+        private final int productId;
+
+        private ProductReference(Product product, ReferenceQueue<Product> queue) {
+            super(product, queue);
+            this.productId = product.getId();
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.group16.grocery_app.utils;
+
+import com.group16.grocery_app.db.service.ProductService;
+import com.group16.grocery_app.model.Product;
+import javafx.application.Platform;
+import javafx.scene.image.Image;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Loads product images on demand.
+ * Product lists are loaded without image data; this loader gets a thumbnail for a single product
+ * from the {@link ImageCache} on a background thread and sets it on the product on the FX thread.
+ * Views bound to {@link Product#imageProperty()} update when the image arrives.
+ *
+ * @author Ege Usug
+ */
+public class ProductImageLoader {
+
+    private static final int LOADER_THREADS = 2;
+
+    private static ProductImageLoader instance;
+
+    private final ProductService productService = new ProductService();
+    private final Set<Product> pending = ConcurrentHashMap.newKeySet();
+    private final ExecutorService executor;
+
+    private ProductImageLoader() {
+        this.executor = Executors.newFixedThreadPool(LOADER_THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "product-image-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Returns the loader singleton.
+     *
+     * @return loader instance
+     * @author Ege Usug
+     */
+    public static synchronized ProductImageLoader getInstance() {
+        if (instance == null) {
+            instance = new ProductImageLoader();
+        }
+        return instance;
+    }
+
+    /**
+     * Starts loading the catalog thumbnail of a product in the background.
+     * Does nothing if the image is already loaded, being loaded, or the product has no image.
+     *
+     * @param product product whose image should be loaded
+     * @author Ege Usug
+     */
+    public void load(Product product) {
+        if (!needsLoading(product) || !pending.add(product)) {
+            return;
+        }
+        executor.execute(() -> {
+            Image image = fetch(product, ImageCache.ThumbnailSize.CATALOG);
+            Platform.runLater(() -> {
+                if (image != null) {
+                    product.setImage(image);
+                }
+                pending.remove(product);
+            });
+        });
+    }
+
+    /**
+     * Loads the larger preview thumbnail of a product in the background.
+     * The preview is not stored on the product, since catalog views only need the small size.
+     *
+     * @param product product whose image should be loaded
+     * @param onLoaded called on the FX thread with the preview image
+     * @author Ege Usug
+     */
+    public void loadPreview(Product product, Consumer<Image> onLoaded) {
+        if (product == null || !product.hasImage()) {
+            return;
+        }
+        executor.execute(() -> {
+            Image image = fetch(product, ImageCache.ThumbnailSize.PREVIEW);
+            if (image != null) {
+                Platform.runLater(() -> onLoaded.accept(image));
+            }
+        });
+    }
+
+    /**
+     * Gets a thumbnail through the image cache. The original bytes are only read from the
+     * database on a cache miss, or once to compute the content hash for products stored before
+     * hashes were recorded.
+     */
+    private Image fetch(Product product, ImageCache.ThumbnailSize size) {
+        try {
+            String hash = product.getImageHash();
+            byte[] original = null;
+            if (hash == null) {
+                original = productService.getProductImageData(product.getId());
+                if (original == null) {
+                    return null;
+                }
+                hash = ImageCache.hash(original);
+                productService.saveProductImageHash(product.getId(), hash);
+                product.setImageHash(hash);
+            }
+
+            byte[] known = original;
+            Image image = ImageCache.getInstance().get(hash, size,
+                    () -> known != null ? known : productService.getProductImageData(product.getId()));
+            if (image == null) {
+                System.err.println("Could not decode image for product " + product.getName());
+            }
+            return image;
+        } catch (RuntimeException e) {
+            System.err.println("Error loading image for product " + product.getName() + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static boolean needsLoading(Product product) {
+        return product != null && product.hasImage() && product.getImage() == null;
+    }
+}
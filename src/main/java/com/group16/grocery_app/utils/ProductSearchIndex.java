@@ -0,0 +1,314 @@
+package com.group16.grocery_app.utils;
+
+import com.group16.grocery_app.model.Product;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory search index over product names and types, built once per product load.
+ * <p>
+ * Names are normalized once (lower case, accents removed) and split into words. Each distinct
+ * word is indexed by its trigrams and kept in a sorted vocabulary, so a query only compares
+ * itself against the few words that share a trigram or prefix with it instead of against every
+ * product. A query word matches a product word exactly, as a prefix, as a substring, or with
+ * one typo (two for words of seven letters or more); query words shorter than three letters
+ * only match as a prefix. Every query word must match, and results are ranked by how well
+ * they match.
+ * <p>
+ * The index is immutable, so it can be built in the background and queried from the FX thread.
+ *
+ * @author Ege Usug
+ */
+public class ProductSearchIndex {
+
+    private static final Pattern ACCENTS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final int EXACT = 8;
+    private static final int PREFIX = 6;
+    private static final int SUBSTRING = 4;
+    private static final int TYPO = 2;
+
+    private final List<Product> products;
+    /** Text each product was indexed with, by product ID. */
+    private final Map<Integer, String> indexedText;
+    /** Distinct words of all products, sorted for prefix lookups. */
+    private final String[] words;
+    /** Products (indexes into {@link #products}) containing each word. */
+    private final int[][] productsByWord;
+    /** Words (indexes into {@link #words}) containing each trigram. */
+    private final Map<String, int[]> wordsByTrigram;
+
+    /**
+     * Builds the index.
+     *
+     * @param products products to index, in their default display order
+     * @author Ege Usug
+     */
+    public ProductSearchIndex(List<Product> products) {
+        this.products = List.copyOf(products);
+        this.indexedText = new HashMap<>(this.products.size() * 2);
+
+        Map<String, IntList> postings = new HashMap<>();
+        for (int i = 0; i < this.products.size(); i++) {
+            Product product = this.products.get(i);
+            String text = indexText(product);
+            indexedText.put(product.getId(), text);
+            for (String word : tokenize(text)) {
+                postings.computeIfAbsent(word, w -> new IntList()).addOnce(i);
+            }
+        }
+
+        this.words = postings.keySet().toArray(new String[0]);
+        Arrays.sort(this.words);
+        this.productsByWord = new int[words.length][];
+        Map<String, IntList> trigramPostings = new HashMap<>();
+        for (int w = 0; w < words.length; w++) {
+            productsByWord[w] = postings.get(words[w]).toArray();
+            for (String trigram : trigrams(words[w])) {
+                trigramPostings.computeIfAbsent(trigram, t -> new IntList()).addOnce(w);
+            }
+        }
+
+        this.wordsByTrigram = new HashMap<>(trigramPostings.size() * 2);
+        trigramPostings.forEach((trigram, list) -> wordsByTrigram.put(trigram, list.toArray()));
+    }
+
+    /**
+     * Returns the number of indexed products.
+     *
+     * @return product count
+     * @author Ege Usug
+     */
+    public int size() {
+        return products.size();
+    }
+
+    /**
+     * Checks whether a product is indexed under its current name and type. The shown products
+     * may already have been patched, so callers check the new values against the index rather
+     * than against them.
+     *
+     * @param product product as it is now
+     * @return true if the index is still correct for the product
+     * @author Ege Usug
+     */
+    public boolean isIndexedAs(Product product) {
+        return indexText(product).equals(indexedText.get(product.getId()));
+    }
+
+    private static String indexText(Product product) {
+        return product.getName() + " " + (product.getType() != null ? product.getType().name() : "");
+    }
+
+    /**
+     * Returns the products matching a query, best matches first. Products that match equally
+     * well keep their order from the list the index was built with.
+     *
+     * @param query text typed by the user
+     * @return matching products; all products if the query has no words
+     * @author Ege Usug
+     */
+    public List<Product> search(String query) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty()) {
+            return products;
+        }
+
+        int[] scores = null;
+        for (String term : terms) {
+            int[] termScores = new int[products.size()];
+            for (Map.Entry<Integer, Integer> match : matchWords(term).entrySet()) {
+                for (int product : productsByWord[match.getKey()]) {
+                    termScores[product] = Math.max(termScores[product], match.getValue());
+                }
+            }
+
+            if (scores == null) {
+                scores = termScores;
+            } else {
+                for (int i = 0; i < scores.length; i++) {
+                    scores[i] = scores[i] == 0 || termScores[i] == 0 ? 0 : scores[i] + termScores[i];
+                }
+            }
+        }
+
+        // Counting sort by score, best first; stable, so equal scores keep the display order
+        int maxScore = EXACT * terms.size();
+        int[] starts = new int[maxScore + 2];
+        for (int score : scores) {
+            starts[maxScore - score + 1]++;
+        }
+        int hitCount = scores.length - starts[maxScore + 1];
+        for (int i = 1; i < starts.length; i++) {
+            starts[i] += starts[i - 1];
+        }
+        Product[] ranked = new Product[hitCount];
+        for (int i = 0; i < scores.length; i++) {
+            if (scores[i] > 0) {
+                ranked[starts[maxScore - scores[i]]++] = products.get(i);
+            }
+        }
+        return Arrays.asList(ranked);
+    }
+
+    /**
+     * Finds the indexed words a query word matches and how well.
+     *
+     * @param term normalized query word
+     * @return score of each matching word, by word index
+     */
+    private Map<Integer, Integer> matchWords(String term) {
+        Map<Integer, Integer> matches = new LinkedHashMap<>();
+
+        int first = lowerBound(term);
+        for (int w = first; w < words.length && words[w].startsWith(term); w++) {
+            matches.put(w, words[w].length() == term.length() ? EXACT : PREFIX);
+        }
+
+        if (term.length() < 3) {
+            // Too short to have a trigram of its own, and would match inside most words anyway
+            return matches;
+        }
+
+        int maxTypos = term.length() >= 7 ? 2 : term.length() >= 4 ? 1 : 0;
+        List<String> grams = trigrams(term);
+        // A substring contains every inner trigram of the term; the first one is anchored at the start
+        List<String> inner = grams.subList(1, grams.size());
+        Map<Integer, Integer> shared = new HashMap<>();
+        for (String gram : grams) {
+            int[] list = wordsByTrigram.get(gram);
+            if (list != null) {
+                for (int w : list) {
+                    shared.merge(w, 1, Integer::sum);
+                }
+            }
+        }
+
+        for (Map.Entry<Integer, Integer> candidate : shared.entrySet()) {
+            int w = candidate.getKey();
+            if (matches.containsKey(w)) {
+                continue;
+            }
+            String word = words[w];
+            if (candidate.getValue() >= inner.size() && word.contains(term)) {
+                matches.put(w, SUBSTRING);
+            } else if (maxTypos > 0 && withinTypos(term, word, maxTypos)) {
+                matches.put(w, TYPO);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Checks whether a query word is at most {@code maxTypos} edits away from a word or from
+     * the start of it, so a word still being typed can match with a typo as well.
+     */
+    private static boolean withinTypos(String term, String word, int maxTypos) {
+        int minLength = Math.max(1, term.length() - maxTypos);
+        int maxLength = Math.min(word.length(), term.length() + maxTypos);
+        for (int length = minLength; length <= maxLength; length++) {
+            if (editDistance(term, word.substring(0, length), maxTypos) <= maxTypos) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Levenshtein distance, giving up once it exceeds {@code limit}.
+     */
+    private static int editDistance(String a, String b, int limit) {
+        if (Math.abs(a.length() - b.length()) > limit) {
+            return limit + 1;
+        }
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > limit) {
+                return limit + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    private int lowerBound(String term) {
+        int index = Arrays.binarySearch(words, term);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    /**
+     * Trigrams of a word, starting with one anchored at the start of the word ("^ab").
+     */
+    private static List<String> trigrams(String word) {
+        String padded = "^" + word;
+        List<String> grams = new ArrayList<>(Math.max(1, padded.length() - 2));
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    /**
+     * Growable list of ints that skips adding the value it ends with, since postings are
+     * built in ascending order.
+     */
+    private static final class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        private void addOnce(int value) {
+            if (size > 0 && values[size - 1] == value) {
+                return;
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        private int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+
+    /**
+     * Lower-cases text, removes accents and splits it into words.
+     */
+    private static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String normalized = ACCENTS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT)
+                .replace('ı', 'i');
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARATORS.split(normalized)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+}
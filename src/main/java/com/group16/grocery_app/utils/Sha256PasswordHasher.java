@@ -0,0 +1,57 @@
+package com.group16.grocery_app.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Legacy unsalted SHA-256 hashes (64 hex characters), as stored by earlier versions.
+ * Kept so existing accounts can still log in; their hashes are replaced on the next successful login.
+ *
+ * @author Mert Bölükbaşı
+ */
+public class Sha256PasswordHasher implements PasswordHasher {
+
+    private static final HexFormat HEX = HexFormat.of();
+
+    private static final ThreadLocal<MessageDigest> DIGEST = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    @Override
+    public String hash(String password) {
+        MessageDigest digest = DIGEST.get();
+        digest.reset();
+        return HEX.formatHex(digest.digest(password.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Override
+    public boolean verify(String password, String storedHash) {
+        byte[] expected = hash(password).getBytes(StandardCharsets.US_ASCII);
+        byte[] actual = storedHash.toLowerCase().getBytes(StandardCharsets.US_ASCII);
+        return MessageDigest.isEqual(expected, actual);
+    }
+
+    @Override
+    public boolean supports(String storedHash) {
+        if (storedHash == null || storedHash.length() != 64) {
+            return false;
+        }
+        for (int i = 0; i < storedHash.length(); i++) {
+            if (Character.digit(storedHash.charAt(i), 16) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean needsRehash(String storedHash) {
+        return true;
+    }
+}
@@ -0,0 +1,3 @@
+-- Salted PBKDF2 hashes are about 90 characters; the original column held 50.
+-- Legacy SHA-256 hashes (64 characters) keep working and are upgraded on the next login.
+ALTER TABLE UserInfo MODIFY COLUMN password VARCHAR(255) NOT NULL;
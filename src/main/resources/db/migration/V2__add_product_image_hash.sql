@@ -0,0 +1,3 @@
+-- SHA-256 of image_data, used as the key of the local thumbnail cache.
+-- Existing rows are filled in by the application the first time each image is loaded.
+ALTER TABLE ProductInfo ADD COLUMN image_hash CHAR(64) NULL AFTER image_data;
@@ -0,0 +1,30 @@
+-- Indexes for the predicates the repositories filter and sort on.
+-- InnoDB appends the primary key to every secondary index, so the order_date indexes
+-- also serve the (order_date, orderID) keyset used by the paged order listings.
+-- UserInfo(username) and Coupons(code) are already indexed by their UNIQUE constraints.
+
+-- Available orders (status, unassigned) and a carrier's orders by status, newest first
+CREATE INDEX idx_orderinfo_status_carrier_date ON OrderInfo (status, carrierID, order_date);
+
+-- A customer's order history, newest first
+CREATE INDEX idx_orderinfo_customer_date ON OrderInfo (customerID, order_date);
+
+-- The owner's list of all orders, newest first
+CREATE INDEX idx_orderinfo_date ON OrderInfo (order_date);
+
+-- Average rating per carrier, answered from the index alone
+CREATE INDEX idx_orderinfo_carrier_rating ON OrderInfo (carrierID, carrier_rating);
+
+-- Conversation between two users in time order; the receiver index serves the
+-- "senderID = ? OR receiverID = ?" conversation list
+CREATE INDEX idx_messages_sender_receiver_time ON Messages (senderID, receiverID, sent_time);
+CREATE INDEX idx_messages_receiver_sender_time ON Messages (receiverID, senderID, sent_time);
+
+-- Phone number uniqueness check on profile updates
+CREATE INDEX idx_userinfo_phone ON UserInfo (phone_number);
+
+-- Carrier list, ordered by username
+CREATE INDEX idx_userinfo_role_username ON UserInfo (role, username);
+
+-- Unused coupons of a user and coupon redemption
+CREATE INDEX idx_usercoupons_user_coupon_used ON UserCoupons (userID, couponID, is_used);
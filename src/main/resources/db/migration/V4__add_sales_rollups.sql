@@ -0,0 +1,22 @@
+-- Pre-aggregated sales figures for the owner's reports, maintained by OrderRepository
+-- in the same transaction as each order insert and status change.
+-- The tables start empty; the application rebuilds them from OrderInfo/OrderItems at
+-- startup when the counters do not match the orders (see ReportService.verifyRollups).
+
+CREATE TABLE IF NOT EXISTS SalesDaily (
+    sale_date DATE PRIMARY KEY,
+    order_count INT NOT NULL DEFAULT 0,
+    revenue DOUBLE NOT NULL DEFAULT 0
+);
+
+CREATE TABLE IF NOT EXISTS SalesByStatus (
+    status VARCHAR(20) PRIMARY KEY,
+    order_count INT NOT NULL DEFAULT 0,
+    revenue DOUBLE NOT NULL DEFAULT 0
+);
+
+CREATE TABLE IF NOT EXISTS SalesByProduct (
+    productID INT PRIMARY KEY,
+    quantity DOUBLE NOT NULL DEFAULT 0,
+    revenue DOUBLE NOT NULL DEFAULT 0
+);
@@ -0,0 +1,17 @@
+-- Short-lived holds on product stock for items in customers' carts.
+-- A hold counts against the stock other customers can add or check out until expires_at;
+-- checkout consumes the customer's holds and a background sweeper deletes expired ones.
+
+CREATE TABLE IF NOT EXISTS StockReservations (
+    reservationID INT AUTO_INCREMENT PRIMARY KEY,
+    userID INT NOT NULL,
+    productID INT NOT NULL,
+    quantity DOUBLE NOT NULL,
+    expires_at DATETIME NOT NULL,
+    UNIQUE (userID, productID),
+    FOREIGN KEY (userID) REFERENCES UserInfo(userID) ON DELETE CASCADE,
+    FOREIGN KEY (productID) REFERENCES ProductInfo(productID) ON DELETE CASCADE
+);
+
+-- Active holds on a product, summed when reserving and at checkout
+CREATE INDEX idx_reservations_product_expiry ON StockReservations (productID, expires_at);
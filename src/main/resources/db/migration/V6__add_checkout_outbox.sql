@@ -0,0 +1,20 @@
+-- Outbox of follow-up work for committed checkouts (invoice, coupon, loyalty points).
+-- Rows are written in the checkout transaction and deleted in the transaction that
+-- completes them, so a crash between the two only delays the work.
+
+CREATE TABLE IF NOT EXISTS CheckoutOutbox (
+    jobID INT AUTO_INCREMENT PRIMARY KEY,
+    orderID INT NOT NULL,
+    customerID INT NOT NULL,
+    stage VARCHAR(20) NOT NULL,
+    argument VARCHAR(255),
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    locked_until DATETIME,
+    last_error VARCHAR(255),
+    created_at DATETIME DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (orderID) REFERENCES OrderInfo(orderID) ON DELETE CASCADE
+);
+
+-- Due jobs, polled by the checkout pipeline
+CREATE INDEX idx_outbox_next_attempt ON CheckoutOutbox (next_attempt_at);
@@ -0,0 +1,5 @@
+-- Versioned, gzip-compressed PDF invoices (see InvoiceStore).
+-- invoice_version is bumped whenever the order changes in a way the invoice shows (status,
+-- delivery date); invoice_pdf holds the compressed PDF rendered for invoice_pdf_version.
+ALTER TABLE OrderInfo ADD COLUMN invoice_version INT NOT NULL DEFAULT 0;
+ALTER TABLE OrderInfo ADD COLUMN invoice_pdf_version INT;
@@ -0,0 +1,24 @@
+-- Product change feed: every write to a product stamps it with the next catalog version, and a
+-- deleted product leaves a tombstone, so clients can fetch only what changed since the version
+-- they last saw (see ProductRepository#findChangedSince).
+-- CatalogVersion holds the last version handed out; the row stays locked until the writing
+-- transaction commits, so versions become visible in increasing order.
+
+CREATE TABLE IF NOT EXISTS CatalogVersion (
+    id INT PRIMARY KEY,
+    version BIGINT NOT NULL
+);
+
+INSERT INTO CatalogVersion (id, version)
+SELECT 1, 0 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM CatalogVersion WHERE id = 1);
+
+ALTER TABLE ProductInfo ADD COLUMN row_version BIGINT NOT NULL DEFAULT 0;
+
+CREATE TABLE IF NOT EXISTS ProductTombstones (
+    productID INT PRIMARY KEY,
+    row_version BIGINT NOT NULL
+);
+
+-- Delta queries read rows newer than a version
+CREATE INDEX idx_productinfo_row_version ON ProductInfo (row_version);
+CREATE INDEX idx_tombstones_row_version ON ProductTombstones (row_version);
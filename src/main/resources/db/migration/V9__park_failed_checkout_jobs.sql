@@ -0,0 +1,5 @@
+-- Checkout jobs that retrying cannot fix (e.g. a coupon that was already used) are parked:
+-- failed_at is set and the pipeline no longer picks them up. They stay with their last_error
+-- for the owner to look at.
+
+ALTER TABLE CheckoutOutbox ADD COLUMN failed_at DATETIME;
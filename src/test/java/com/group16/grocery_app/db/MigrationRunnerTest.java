@@ -0,0 +1,90 @@
+package com.group16.grocery_app.db;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link MigrationRunner}, run against in-memory H2 databases seeded from {@code Group16.sql}.
+ *
+ * @author Mert Bölükbaşı
+ */
+class MigrationRunnerTest {
+
+    private static Connection seededDatabase(String name) throws SQLException, IOException {
+        Connection connection = DriverManager.getConnection("jdbc:h2:mem:" + name + ";MODE=MySQL");
+        SqlScript.load("classpath:/Group16.sql").execute(connection, true);
+        return connection;
+    }
+
+    private static List<Integer> listedVersions() throws IOException {
+        List<Integer> versions = new ArrayList<>();
+        try (InputStream in = MigrationRunner.class.getResourceAsStream("/db/migration/migrations.txt")) {
+            for (String line : new String(in.readAllBytes(), StandardCharsets.UTF_8).split("\\R")) {
+                String name = line.trim();
+                if (!name.isEmpty() && !name.startsWith("#")) {
+                    versions.add(Integer.parseInt(name.substring(1, name.indexOf("__"))));
+                }
+            }
+        }
+        return versions;
+    }
+
+    private static List<Integer> appliedVersions(Connection connection) throws SQLException {
+        List<Integer> versions = new ArrayList<>();
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT version FROM schema_version ORDER BY version")) {
+            while (rs.next()) {
+                versions.add(rs.getInt("version"));
+            }
+        }
+        return versions;
+    }
+
+    @Test
+    void migrationsAreListedInIncreasingVersionOrder() throws IOException {
+        List<Integer> versions = listedVersions();
+
+        assertTrue(versions.size() > 1);
+        for (int i = 1; i < versions.size(); i++) {
+            assertTrue(versions.get(i - 1) < versions.get(i), "out of order at " + versions.get(i));
+        }
+    }
+
+    @Test
+    void appliesEveryListedMigrationOnceOnAFreshSchema() throws Exception {
+        try (Connection connection = seededDatabase("migrationsFresh")) {
+            MigrationRunner runner = new MigrationRunner(connection);
+
+            assertEquals(listedVersions().size(), runner.migrate());
+            assertEquals(listedVersions(), appliedVersions(connection));
+            assertEquals(0, runner.migrate());
+        }
+    }
+
+    @Test
+    void stopsWhenAnAppliedScriptWasChanged() throws Exception {
+        try (Connection connection = seededDatabase("migrationsChanged")) {
+            new MigrationRunner(connection).migrate();
+            try (Statement stmt = connection.createStatement()) {
+                stmt.executeUpdate("UPDATE schema_version SET checksum = REPEAT('0', 64) WHERE version = 1");
+            }
+
+            SQLException e = assertThrows(SQLException.class, () -> new MigrationRunner(connection).migrate());
+            assertTrue(e.getMessage().contains("checksum mismatch"), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.group16.grocery_app.db;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link SqlScript}.
+ *
+ * @author Mert Bölükbaşı
+ */
+class SqlScriptTest {
+
+    @Test
+    void splitsOnSemicolonsAndDropsEmptyStatements() {
+        SqlScript script = SqlScript.parse("CREATE TABLE a (id INT);\n\n;  ;\nINSERT INTO a VALUES (1);\nSELECT 1");
+
+        assertEquals(List.of("CREATE TABLE a (id INT)", "INSERT INTO a VALUES (1)", "SELECT 1"), script.getStatements());
+    }
+
+    @Test
+    void keepsSemicolonsAndDashesInsideQuotes() {
+        SqlScript script = SqlScript.parse(
+                "INSERT INTO m VALUES ('a;b', \"c;d\", `e;f`);\n" +
+                "INSERT INTO m VALUES ('-- not a comment');");
+
+        assertEquals(List.of(
+                "INSERT INTO m VALUES ('a;b', \"c;d\", `e;f`)",
+                "INSERT INTO m VALUES ('-- not a comment')"), script.getStatements());
+    }
+
+    @Test
+    void handlesDoubledAndEscapedQuotes() {
+        SqlScript script = SqlScript.parse("INSERT INTO m VALUES ('it''s; fine');INSERT INTO m VALUES ('a\\';b');");
+
+        assertEquals(List.of(
+                "INSERT INTO m VALUES ('it''s; fine')",
+                "INSERT INTO m VALUES ('a\\';b')"), script.getStatements());
+    }
+
+    @Test
+    void dropsLineComments() {
+        SqlScript script = SqlScript.parse(
+                "-- header; with a semicolon\n" +
+                "CREATE TABLE a (id INT); -- trailing\n" +
+                "-- only a comment\n");
+
+        assertEquals(List.of("CREATE TABLE a (id INT)"), script.getStatements());
+    }
+
+    @Test
+    void executeSkipsDatabaseSelectionWhenAsked() throws SQLException {
+        SqlScript script = SqlScript.parse(
+                "CREATE DATABASE shop;\nUSE shop;\nCREATE TABLE items (id INT);\nINSERT INTO items VALUES (7);");
+
+        try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:sqlScriptTest;MODE=MySQL")) {
+            script.execute(connection, true);
+            try (Statement stmt = connection.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT id FROM items")) {
+                assertTrue(rs.next());
+                assertEquals(7, rs.getInt("id"));
+            }
+        }
+    }
+
+    @Test
+    void executeReportsTheFailingStatement() throws SQLException {
+        SqlScript script = SqlScript.parse("CREATE TABLE t (id INT);\nINSERT INTO missing\nVALUES (1);");
+
+        try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:sqlScriptFailure;MODE=MySQL")) {
+            SQLException e = assertThrows(SQLException.class, () -> script.execute(connection, false));
+            assertTrue(e.getMessage().startsWith("Failed to run statement: INSERT INTO missing ..."), e.getMessage());
+        }
+    }
+}
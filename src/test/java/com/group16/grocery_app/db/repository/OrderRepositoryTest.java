@@ -0,0 +1,289 @@
+package com.group16.grocery_app.db.repository;
+
+import com.group16.grocery_app.db.Database;
+import com.group16.grocery_app.model.Order;
+import com.group16.grocery_app.model.OrderCursor;
+import com.group16.grocery_app.model.OrderItem;
+import com.group16.grocery_app.model.OrderPage;
+import com.group16.grocery_app.model.Product;
+import com.group16.grocery_app.model.ProductType;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link OrderRepository}, run against the embedded H2 database. Every test works on
+ * a customer of its own, so the tests do not depend on the seed data or on each other.
+ *
+ * @author Oğuzhan Aydın
+ */
+class OrderRepositoryTest {
+
+    private static final AtomicInteger CUSTOMERS = new AtomicInteger();
+    private static final LocalDateTime NOON = LocalDateTime.of(2025, 3, 1, 12, 0);
+
+    private final OrderRepository repository = new OrderRepository();
+
+    private static Connection connection() throws SQLException {
+        return Database.getInstance().getConnection();
+    }
+
+    private static int insertCustomer() throws SQLException {
+        String sql = "INSERT INTO UserInfo (username, password, role) VALUES (?, 'x', 'customer')";
+        try (Connection connection = connection();
+             PreparedStatement stmt = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            stmt.setString(1, "order-test-" + CUSTOMERS.incrementAndGet() + "-" + System.nanoTime());
+            stmt.executeUpdate();
+            try (ResultSet rs = stmt.getGeneratedKeys()) {
+                rs.next();
+                return rs.getInt(1);
+            }
+        }
+    }
+
+    private static int insertOrder(int customerId, LocalDateTime orderDate) throws SQLException {
+        String sql = "INSERT INTO OrderInfo (customerID, order_date, status, total_cost) VALUES (?, ?, 'Pending', 10)";
+        try (Connection connection = connection();
+             PreparedStatement stmt = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            stmt.setInt(1, customerId);
+            stmt.setTimestamp(2, orderDate != null ? Timestamp.valueOf(orderDate) : null);
+            stmt.executeUpdate();
+            try (ResultSet rs = stmt.getGeneratedKeys()) {
+                rs.next();
+                return rs.getInt(1);
+            }
+        }
+    }
+
+    private static Product insertProduct(double stock) throws SQLException {
+        String name = "Test product " + System.nanoTime();
+        String sql = "INSERT INTO ProductInfo (name, type, price, stock) VALUES (?, 'fruit', 10, ?)";
+        try (Connection connection = connection();
+             PreparedStatement stmt = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            stmt.setString(1, name);
+            stmt.setDouble(2, stock);
+            stmt.executeUpdate();
+            try (ResultSet rs = stmt.getGeneratedKeys()) {
+                rs.next();
+                return new Product(rs.getInt(1), name, ProductType.FRUIT, 10, stock, 5, false);
+            }
+        }
+    }
+
+    private static String assignCoupon(int customerId, boolean used) throws SQLException {
+        String code = "T" + CUSTOMERS.incrementAndGet() + "-" + System.nanoTime() % 1_000_000_000L;
+        try (Connection connection = connection()) {
+            int couponId;
+            try (PreparedStatement stmt = connection.prepareStatement(
+                    "INSERT INTO Coupons (code, discount_amount, expired_date) VALUES (?, 5, '2099-12-31')",
+                    Statement.RETURN_GENERATED_KEYS)) {
+                stmt.setString(1, code);
+                stmt.executeUpdate();
+                try (ResultSet rs = stmt.getGeneratedKeys()) {
+                    rs.next();
+                    couponId = rs.getInt(1);
+                }
+            }
+            try (PreparedStatement stmt = connection.prepareStatement(
+                    "INSERT INTO UserCoupons (userID, couponID, is_used) VALUES (?, ?, ?)")) {
+                stmt.setInt(1, customerId);
+                stmt.setInt(2, couponId);
+                stmt.setBoolean(3, used);
+                stmt.executeUpdate();
+            }
+        }
+        return code;
+    }
+
+    private static boolean isCouponUsed(int customerId, String code) throws SQLException {
+        String sql = "SELECT uc.is_used FROM UserCoupons uc JOIN Coupons c ON c.couponID = uc.couponID " +
+                "WHERE uc.userID = ? AND c.code = ?";
+        try (Connection connection = connection();
+             PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setInt(1, customerId);
+            stmt.setString(2, code);
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                return rs.getBoolean(1);
+            }
+        }
+    }
+
+    private static double stockOf(Product product) throws SQLException {
+        try (Connection connection = connection();
+             PreparedStatement stmt = connection.prepareStatement("SELECT stock FROM ProductInfo WHERE productID = ?")) {
+            stmt.setInt(1, product.getId());
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                return rs.getDouble(1);
+            }
+        }
+    }
+
+    private static int count(String table, int customerId) throws SQLException {
+        try (Connection connection = connection();
+             PreparedStatement stmt = connection.prepareStatement(
+                     "SELECT COUNT(*) FROM " + table + " WHERE customerID = ?")) {
+            stmt.setInt(1, customerId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                return rs.getInt(1);
+            }
+        }
+    }
+
+    private static Order order(OrderItem... items) {
+        double total = 0;
+        for (OrderItem item : items) {
+            total += item.getQuantity() * item.getUnitPrice();
+        }
+        return new Order(List.of(items), total);
+    }
+
+    private static List<Integer> ids(OrderPage page) {
+        return page.getOrders().stream().map(Order::getId).toList();
+    }
+
+    @Test
+    void pagesWalkTiedDatesByIdWithoutGapsOrRepeats() throws SQLException {
+        int customerId = insertCustomer();
+        int newest = insertOrder(customerId, NOON.plusHours(1));
+        int tiedFirst = insertOrder(customerId, NOON);
+        int tiedSecond = insertOrder(customerId, NOON);
+        int tiedThird = insertOrder(customerId, NOON);
+        int oldest = insertOrder(customerId, NOON.minusHours(1));
+        insertOrder(insertCustomer(), NOON);
+
+        List<Integer> seen = new ArrayList<>();
+        OrderCursor cursor = null;
+        int pages = 0;
+        do {
+            OrderPage page = repository.getOrdersByCustomerIdPage(customerId, cursor, 2);
+            assertTrue(page.getOrders().size() <= 2);
+            seen.addAll(ids(page));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(List.of(newest, tiedThird, tiedSecond, tiedFirst, oldest), seen);
+        assertEquals(3, pages);
+    }
+
+    @Test
+    void fullLastPageHasNoNextCursor() throws SQLException {
+        int customerId = insertCustomer();
+        int first = insertOrder(customerId, NOON.plusMinutes(2));
+        int second = insertOrder(customerId, NOON.plusMinutes(1));
+
+        OrderPage page = repository.getOrdersByCustomerIdPage(customerId, null, 2);
+
+        assertEquals(List.of(first, second), ids(page));
+        assertFalse(page.hasMore());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void cursorExcludesTheOrderItPointsAt() throws SQLException {
+        int customerId = insertCustomer();
+        int listedSecond = insertOrder(customerId, NOON);
+        int listedFirst = insertOrder(customerId, NOON);
+
+        OrderPage page = repository.getOrdersByCustomerIdPage(customerId, new OrderCursor(NOON, listedFirst), 10);
+        assertEquals(List.of(listedSecond), ids(page));
+
+        page = repository.getOrdersByCustomerIdPage(customerId, new OrderCursor(NOON, listedSecond), 10);
+        assertTrue(page.getOrders().isEmpty());
+        assertFalse(page.hasMore());
+    }
+
+    @Test
+    void undatedOrdersSortLast() throws SQLException {
+        int customerId = insertCustomer();
+        int undated = insertOrder(customerId, null);
+        int dated = insertOrder(customerId, NOON);
+
+        OrderPage page = repository.getOrdersByCustomerIdPage(customerId, null, 10);
+
+        assertEquals(List.of(dated, undated), ids(page));
+        assertFalse(page.hasMore());
+    }
+
+    @Test
+    void rejectsEmptyPages() {
+        assertThrows(IllegalArgumentException.class, () -> repository.getOrdersByCustomerIdPage(1, null, 0));
+    }
+
+    @Test
+    void savingDecrementsStockOfEveryLine() throws SQLException {
+        int customerId = insertCustomer();
+        Product apples = insertProduct(10);
+        Product pears = insertProduct(4);
+
+        repository.saveOrder(order(new OrderItem(apples, 3, 10), new OrderItem(pears, 4, 10),
+                new OrderItem(apples, 1, 10)), customerId);
+
+        assertEquals(6, stockOf(apples));
+        assertEquals(0, stockOf(pears));
+        assertEquals(1, count("OrderInfo", customerId));
+    }
+
+    @Test
+    void insufficientStockRollsBackTheWholeOrder() throws SQLException {
+        int customerId = insertCustomer();
+        Product apples = insertProduct(10);
+        Product pears = insertProduct(1);
+
+        SQLException failure = assertThrows(SQLException.class, () -> repository.saveCheckout(
+                order(new OrderItem(apples, 3, 10), new OrderItem(pears, 2, 10)), customerId, null, null));
+
+        assertTrue(failure.getMessage().contains(pears.getName()));
+        assertEquals(10, stockOf(apples));
+        assertEquals(1, stockOf(pears));
+        assertEquals(0, count("OrderInfo", customerId));
+        assertEquals(0, count("CheckoutOutbox", customerId));
+    }
+
+    @Test
+    void checkoutUsesTheCouponAndQueuesFollowUps() throws SQLException {
+        int customerId = insertCustomer();
+        Product apples = insertProduct(10);
+        String code = assignCoupon(customerId, false);
+
+        repository.saveCheckout(order(new OrderItem(apples, 2, 10)), customerId, null, code);
+
+        assertTrue(isCouponUsed(customerId, code));
+        assertEquals(8, stockOf(apples));
+        assertEquals(1, count("OrderInfo", customerId));
+        assertEquals(2, count("CheckoutOutbox", customerId));
+    }
+
+    @Test
+    void usedCouponRollsBackTheWholeCheckout() throws SQLException {
+        int customerId = insertCustomer();
+        Product apples = insertProduct(10);
+        String code = assignCoupon(customerId, true);
+
+        SQLException failure = assertThrows(SQLException.class, () -> repository.saveCheckout(
+                order(new OrderItem(apples, 2, 10)), customerId, null, code));
+
+        assertTrue(failure.getMessage().contains(code));
+        assertEquals(10, stockOf(apples));
+        assertEquals(0, count("OrderInfo", customerId));
+        assertEquals(0, count("CheckoutOutbox", customerId));
+    }
+}
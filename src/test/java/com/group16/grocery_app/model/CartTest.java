@@ -0,0 +1,131 @@
+package com.group16.grocery_app.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests for {@link Cart}, using the default price rules (the price doubles when the stock
+ * left after the cart is at or below the threshold).
+ *
+ * @author Ege Usug
+ */
+class CartTest {
+
+    private static Product product(int id, double price, double stock, double threshold) {
+        return new Product(id, "Product " + id, ProductType.FRUIT, price, stock, threshold, false);
+    }
+
+    private static long sumOfItemCents(Cart cart) {
+        long cents = 0;
+        for (CartItem item : cart.getItems()) {
+            cents += Math.round(item.getTotalPrice() * 100);
+        }
+        return cents;
+    }
+
+    @Test
+    void subtotalDoesNotDriftOverManyChanges() {
+        Cart cart = new Cart();
+        Product apple = product(1, 0.1, 100_000, 5);
+        Product pear = product(2, 3.33, 100_000, 5);
+
+        for (int i = 0; i < 1000; i++) {
+            cart.addProduct(apple, 0.1);
+            cart.addProduct(pear, 0.3);
+        }
+
+        assertEquals(10.0, cart.getItems().get(0).getTotalPrice());
+        assertEquals(999.0, cart.getItems().get(1).getTotalPrice());
+        assertEquals(1009.0, cart.getTotal());
+        assertEquals(sumOfItemCents(cart), Math.round(cart.getTotal() * 100));
+    }
+
+    @Test
+    void addingAProductAgainMergesIntoOneLine() {
+        Cart cart = new Cart();
+        Product apple = product(1, 2.5, 100, 5);
+
+        cart.addProduct(apple, 1);
+        cart.addProduct(apple, 2);
+
+        assertEquals(1, cart.getItems().size());
+        assertEquals(3.0, cart.getQuantityOfProduct(apple));
+        assertEquals(7.5, cart.getTotal());
+    }
+
+    @Test
+    void removingAProductSubtractsItsLine() {
+        Cart cart = new Cart();
+        Product apple = product(1, 2.5, 100, 5);
+        Product pear = product(2, 1.25, 100, 5);
+        cart.addProduct(apple, 2);
+        cart.addProduct(pear, 4);
+
+        cart.removeProduct(apple);
+        cart.removeProduct(apple);
+
+        assertEquals(1, cart.getItems().size());
+        assertEquals(0.0, cart.getQuantityOfProduct(apple));
+        assertEquals(5.0, cart.getTotal());
+    }
+
+    @Test
+    void priceDoublesWhenTheCartTakesStockToTheThreshold() {
+        Cart cart = new Cart();
+        Product apple = product(1, 2.0, 10, 5);
+
+        cart.addProduct(apple, 4);
+        assertEquals(2.0, cart.getItems().get(0).getEffectivePrice());
+        assertEquals(8.0, cart.getTotal());
+
+        cart.addProduct(apple, 1);
+        assertEquals(4.0, cart.getItems().get(0).getEffectivePrice());
+        assertEquals(20.0, cart.getTotal());
+    }
+
+    @Test
+    void refreshPicksUpPatchedProducts() {
+        Cart cart = new Cart();
+        Product apple = product(1, 2.0, 100, 5);
+        cart.addProduct(apple, 3);
+
+        apple.setPrice(3.0);
+        assertEquals(6.0, cart.getTotal());
+
+        cart.refreshEffectivePrices();
+        assertEquals(3.0, cart.getItems().get(0).getEffectivePrice());
+        assertEquals(9.0, cart.getTotal());
+    }
+
+    @Test
+    void checkoutLinesAddUpToTheSubtotal() {
+        Cart cart = new Cart();
+        Product apple = product(1, 1.99, 100, 5);
+        Product pear = product(2, 0.35, 100, 5);
+        cart.addProduct(apple, 1.5);
+        cart.addProduct(pear, 2.25);
+
+        Order order = cart.checkout(0.0);
+
+        double lines = 0;
+        for (OrderItem item : order.getItems()) {
+            lines += Math.round(item.getQuantity() * item.getUnitPrice() * 100) / 100.0;
+        }
+        assertEquals(cart.getTotal(), lines, 1e-9);
+        assertEquals(cart.getTotal(), order.getTotal(), 1e-9);
+    }
+
+    @Test
+    void discountsNeverMakeTheTotalNegative() {
+        Cart cart = new Cart();
+        cart.addProduct(product(1, 5.0, 100, 5), 1);
+
+        cart.setCouponDiscount(3.0, "SAVE3");
+        cart.setLoyaltyDiscount(1.0);
+        assertEquals(1.0, cart.getTotalAfterDiscounts(), 1e-9);
+
+        cart.setLoyaltyDiscount(10.0);
+        assertEquals(0.0, cart.getTotalAfterDiscounts());
+    }
+}
@@ -0,0 +1,103 @@
+package com.group16.grocery_app.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests for {@link PricingRules} and the {@link PriceTable}s it compiles.
+ *
+ * @author Mert Bölükbaşı
+ */
+class PricingRulesTest {
+
+    private static int at(int hour, int minute) {
+        return hour * 60 + minute;
+    }
+
+    @Test
+    void defaultTierDoublesThePriceAtOrBelowTheThreshold() {
+        PriceTable table = PricingRules.parse("1=2", "").compile(2.0, 5);
+
+        assertEquals(2.0, table.priceFor(6));
+        assertEquals(2.0, table.priceFor(5.01));
+        assertEquals(4.0, table.priceFor(5));
+        assertEquals(4.0, table.priceFor(0));
+        assertEquals(4.0, table.priceFor(-1));
+    }
+
+    @Test
+    void picksTheLowestTierTheStockDoesNotExceed() {
+        // Listed out of order on purpose; limits are multiples of the threshold (10)
+        PriceTable table = PricingRules.parse("2=1.25, 0.5=2.5, 1=2", "").compile(4.0, 10);
+
+        assertEquals(10.0, table.priceFor(3));
+        assertEquals(10.0, table.priceFor(5));
+        assertEquals(8.0, table.priceFor(7));
+        assertEquals(8.0, table.priceFor(10));
+        assertEquals(5.0, table.priceFor(15));
+        assertEquals(5.0, table.priceFor(20));
+        assertEquals(4.0, table.priceFor(21));
+    }
+
+    @Test
+    void aZeroLimitOnlyPricesAnEmptyStock() {
+        PriceTable table = PricingRules.parse("0=3", "").compile(1.0, 5);
+
+        assertEquals(3.0, table.priceFor(0));
+        assertEquals(1.0, table.priceFor(0.5));
+    }
+
+    @Test
+    void invalidTiersFallBackToTheDefault() {
+        for (String tiers : new String[]{"abc", "1=0", "-1=2", "1=2=3"}) {
+            PriceTable table = PricingRules.parse(tiers, "").compile(2.0, 5);
+            assertEquals(4.0, table.priceFor(5), tiers);
+            assertEquals(2.0, table.priceFor(6), tiers);
+        }
+    }
+
+    @Test
+    void noTiersKeepTheBasePrice() {
+        assertEquals(2.0, PricingRules.parse("", "").compile(2.0, 5).priceFor(0));
+    }
+
+    @Test
+    void laterTimeRangesWinAndEndsAreExclusive() {
+        PricingRules rules = PricingRules.parse("1=2", "08:00-10:00=1.5, 09:00-11:00=0.8");
+
+        assertEquals(1.0, rules.timeFactorAt(at(7, 59)));
+        assertEquals(1.5, rules.timeFactorAt(at(8, 0)));
+        assertEquals(1.5, rules.timeFactorAt(at(8, 59)));
+        assertEquals(0.8, rules.timeFactorAt(at(9, 0)));
+        assertEquals(0.8, rules.timeFactorAt(at(10, 59)));
+        assertEquals(1.0, rules.timeFactorAt(at(11, 0)));
+    }
+
+    @Test
+    void timeRangesMayWrapPastMidnight() {
+        PricingRules rules = PricingRules.parse("1=2", "22:00-02:00=0.9");
+
+        assertEquals(1.0, rules.timeFactorAt(at(21, 59)));
+        assertEquals(0.9, rules.timeFactorAt(at(23, 30)));
+        assertEquals(0.9, rules.timeFactorAt(at(0, 0)));
+        assertEquals(0.9, rules.timeFactorAt(at(1, 59)));
+        assertEquals(1.0, rules.timeFactorAt(at(2, 0)));
+    }
+
+    @Test
+    void wholeDayRangeAppliesToEveryPrice() {
+        PricingRules rules = PricingRules.parse("1=2", "00:00-24:00=0.5");
+
+        assertEquals(0.5, rules.timeFactor());
+        assertEquals(2.0, rules.compile(2.0, 5).priceFor(5));
+        assertEquals(1.0, rules.compile(2.0, 5).priceFor(6));
+    }
+
+    @Test
+    void invalidTimeRangesAreIgnored() {
+        PricingRules rules = PricingRules.parse("1=2", "08:00-25:00=0.5");
+
+        assertEquals(1.0, rules.timeFactor());
+    }
+}
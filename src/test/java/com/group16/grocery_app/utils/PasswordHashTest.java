@@ -0,0 +1,57 @@
+package com.group16.grocery_app.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link PasswordHash} and the hashers behind it.
+ *
+ * @author Mert Bölükbaşı
+ */
+class PasswordHashTest {
+
+    /** Unsalted SHA-256 of "password", as stored before PBKDF2 was introduced. */
+    private static final String LEGACY_HASH = "5e884898da28047151d0e56f8dc6292773603d0d6aabbdd62a11ef721d1542d8";
+
+    @Test
+    void newHashesVerifyAndAreSalted() {
+        String first = PasswordHash.hash("secret");
+        String second = PasswordHash.hash("secret");
+
+        assertTrue(first.startsWith("pbkdf2-sha256$"));
+        assertNotEquals(first, second);
+        assertTrue(PasswordHash.verify("secret", first));
+        assertTrue(PasswordHash.verify("secret", second));
+        assertFalse(PasswordHash.verify("Secret", first));
+        assertFalse(PasswordHash.needsRehash(first));
+    }
+
+    @Test
+    void legacyHashesStillVerifyAndNeedRehash() {
+        assertTrue(PasswordHash.verify("password", LEGACY_HASH));
+        assertTrue(PasswordHash.verify("password", LEGACY_HASH.toUpperCase()));
+        assertFalse(PasswordHash.verify("passw0rd", LEGACY_HASH));
+        assertTrue(PasswordHash.needsRehash(LEGACY_HASH));
+    }
+
+    @Test
+    void hashesWithAnotherWorkFactorVerifyButNeedRehash() {
+        String weaker = new Pbkdf2PasswordHasher(1_000).hash("secret");
+
+        assertTrue(PasswordHash.verify("secret", weaker));
+        assertTrue(PasswordHash.needsRehash(weaker));
+    }
+
+    @Test
+    void unknownOrMalformedHashesNeverVerify() {
+        assertFalse(PasswordHash.verify("secret", null));
+        assertFalse(PasswordHash.verify("secret", "plain-text"));
+        assertFalse(PasswordHash.verify("secret", "pbkdf2-sha256$1000$not base64$abc"));
+        assertFalse(PasswordHash.verify("secret", "pbkdf2-sha256$1000$only-three-parts"));
+        assertTrue(PasswordHash.needsRehash(null));
+        assertTrue(PasswordHash.needsRehash("plain-text"));
+    }
+}
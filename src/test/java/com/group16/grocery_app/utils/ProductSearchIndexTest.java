@@ -0,0 +1,116 @@
+package com.group16.grocery_app.utils;
+
+import com.group16.grocery_app.model.Product;
+import com.group16.grocery_app.model.ProductType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link ProductSearchIndex}.
+ *
+ * @author Ege Usug
+ */
+class ProductSearchIndexTest {
+
+    private static Product product(int id, String name, ProductType type) {
+        return new Product(id, name, type, 10, 100, 5, false);
+    }
+
+    private static List<String> names(List<Product> products) {
+        return products.stream().map(Product::getName).toList();
+    }
+
+    @Test
+    void emptyQueryReturnsAllProductsInTheirOrder() {
+        List<Product> products = List.of(
+                product(1, "Apple", ProductType.FRUIT),
+                product(2, "Banana", ProductType.FRUIT),
+                product(3, "Carrot", ProductType.VEGETABLE));
+        ProductSearchIndex index = new ProductSearchIndex(products);
+
+        assertEquals(products, index.search(null));
+        assertEquals(products, index.search("   "));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void ranksExactBeforePrefixBeforeSubstringBeforeTypo() {
+        ProductSearchIndex index = new ProductSearchIndex(List.of(
+                product(1, "Pineapple", ProductType.FRUIT),
+                product(2, "Apples", ProductType.FRUIT),
+                product(3, "Aple Jam", ProductType.FRUIT),
+                product(4, "Apple", ProductType.FRUIT)));
+
+        assertEquals(List.of("Apple", "Apples", "Pineapple", "Aple Jam"), names(index.search("apple")));
+    }
+
+    @Test
+    void equalMatchesKeepTheIndexOrder() {
+        ProductSearchIndex index = new ProductSearchIndex(List.of(
+                product(1, "Red Pepper", ProductType.VEGETABLE),
+                product(2, "Green Pepper", ProductType.VEGETABLE)));
+
+        assertEquals(List.of("Red Pepper", "Green Pepper"), names(index.search("pepper")));
+    }
+
+    @Test
+    void shortTermsOnlyMatchAsPrefix() {
+        ProductSearchIndex index = new ProductSearchIndex(List.of(
+                product(1, "Banana", ProductType.FRUIT),
+                product(2, "Nectarine", ProductType.FRUIT)));
+
+        assertEquals(List.of("Nectarine"), names(index.search("ne")));
+        assertEquals(List.of("Banana"), names(index.search("ba")));
+    }
+
+    @Test
+    void allowsOneTypoInShortWordsAndTwoInLongOnes() {
+        ProductSearchIndex index = new ProductSearchIndex(List.of(
+                product(1, "Mango", ProductType.FRUIT),
+                product(2, "Cauliflower", ProductType.VEGETABLE)));
+
+        assertEquals(List.of("Mango"), names(index.search("mngo")));
+        assertTrue(index.search("mnga").isEmpty());
+        assertEquals(List.of("Cauliflower"), names(index.search("caulflowr")));
+        assertTrue(index.search("caulfowr").isEmpty());
+    }
+
+    @Test
+    void matchesTypeAccentsAndCase() {
+        ProductSearchIndex index = new ProductSearchIndex(List.of(
+                product(1, "Çilek", ProductType.FRUIT),
+                product(2, "Potato", ProductType.VEGETABLE)));
+
+        assertEquals(List.of("Çilek"), names(index.search("CILEK")));
+        assertEquals(List.of("Potato"), names(index.search("vegetable")));
+    }
+
+    @Test
+    void everyTermMustMatch() {
+        ProductSearchIndex index = new ProductSearchIndex(List.of(
+                product(1, "Green Apple", ProductType.FRUIT),
+                product(2, "Red Apple", ProductType.FRUIT),
+                product(3, "Green Pepper", ProductType.VEGETABLE)));
+
+        assertEquals(List.of("Green Apple"), names(index.search("green apple")));
+        assertTrue(index.search("green kiwi").isEmpty());
+    }
+
+    @Test
+    void knowsWhichTextAProductWasIndexedWith() {
+        Product apple = product(1, "Apple", ProductType.FRUIT);
+        ProductSearchIndex index = new ProductSearchIndex(List.of(apple));
+
+        assertTrue(index.isIndexedAs(product(1, "Apple", ProductType.FRUIT)));
+        assertFalse(index.isIndexedAs(product(1, "Green Apple", ProductType.FRUIT)));
+        assertFalse(index.isIndexedAs(product(1, "Apple", ProductType.VEGETABLE)));
+        assertFalse(index.isIndexedAs(product(2, "Apple", ProductType.FRUIT)));
+        assertSame(apple, index.search("apple").get(0));
+    }
+}